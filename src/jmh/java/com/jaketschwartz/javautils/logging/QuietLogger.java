@@ -0,0 +1,37 @@
+package com.jaketschwartz.javautils.logging;
+
+/**
+ * A Logger that discards everything.  Benchmarks install it before touching the utils classes so that the failure
+ * paths are measured without the cost of writing to the console.
+ */
+public class QuietLogger implements Logger {
+    private static final QuietLogger INSTANCE = new QuietLogger();
+
+    /**
+     * Routes every Logger to the QuietLogger.  The utils classes bind their Loggers lazily, so this takes effect
+     * whether or not they have been initialized yet.
+     */
+    public static void install() {
+        LoggerProvider.setLoggerGenerator(loggerClass -> INSTANCE);
+    }
+
+    @Override
+    public void trace(final String text, final Object... args) {
+    }
+
+    @Override
+    public void debug(final String text, final Object... args) {
+    }
+
+    @Override
+    public void info(final String text, final Object... args) {
+    }
+
+    @Override
+    public void warn(final String text, final Object... args) {
+    }
+
+    @Override
+    public void error(final String text, final Object... args) {
+    }
+}
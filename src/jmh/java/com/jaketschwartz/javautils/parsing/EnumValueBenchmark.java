@@ -0,0 +1,47 @@
+package com.jaketschwartz.javautils.parsing;
+
+import com.jaketschwartz.javautils.logging.LogLevel;
+import com.jaketschwartz.javautils.logging.QuietLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+
+/**
+ * Measures SafeParser.enumValue() for names that exist and names that do not.  A miss goes through Enum.valueOf()'s
+ * IllegalArgumentException, so the gap between the two is the cost of the exception path.
+ */
+@State(Scope.Benchmark)
+public abstract class EnumValueBenchmark {
+    private String hit;
+    private String miss;
+
+    @Setup
+    public void setup() {
+        QuietLogger.install();
+        // Built at runtime so the JIT cannot treat the names as constants
+        hit = new StringBuilder("WARN").toString();
+        miss = new StringBuilder("WARNING").toString();
+    }
+
+    @Benchmark
+    public Optional<LogLevel> enumValueHit() {
+        return SafeParser.enumValue(hit, LogLevel.class);
+    }
+
+    @Benchmark
+    public Optional<LogLevel> enumValueMiss() {
+        return SafeParser.enumValue(miss, LogLevel.class);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends EnumValueBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends EnumValueBenchmark {
+    }
+}
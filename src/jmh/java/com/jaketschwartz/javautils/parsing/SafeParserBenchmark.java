@@ -0,0 +1,109 @@
+package com.jaketschwartz.javautils.parsing;
+
+import com.jaketschwartz.javautils.logging.QuietLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Measures every SafeParser *FromString method against well-formed input, input that requires decimal truncation, and
+ * malformed input that takes the exception path.  Run single-threaded and with one thread per core to expose any
+ * contention in the shared parsing and logging paths.
+ */
+@State(Scope.Benchmark)
+public abstract class SafeParserBenchmark {
+    /**
+     * The shape of input handed to each parse method.
+     */
+    public enum InputKind {
+        VALID, DECIMAL, MALFORMED
+    }
+
+    @Param
+    public InputKind inputKind;
+
+    private String byteInput;
+    private String shortInput;
+    private String integerInput;
+    private String longInput;
+    private String floatInput;
+    private String doubleInput;
+    private String bigDecimalInput;
+
+    @Setup
+    public void setup() {
+        QuietLogger.install();
+        byteInput = this.select("42", "42.75", "4x2");
+        shortInput = this.select("12345", "12345.75", "12x45");
+        integerInput = this.select("123456789", "123456789.75", "1234x6789");
+        longInput = this.select("1234567890123456", "1234567890123456.75", "12345678x0123456");
+        floatInput = this.select("1234.5", "1234.5678", "12x4.5");
+        doubleInput = this.select("1234567.891", "1234567.8912345", "1234x67.891");
+        bigDecimalInput = this.select("1234567890.12", "1234567890.123456789", "12345x7890.12");
+    }
+
+    @Benchmark
+    public Optional<Byte> byteFromString() {
+        return SafeParser.byteFromString(byteInput);
+    }
+
+    @Benchmark
+    public Optional<Short> shortFromString() {
+        return SafeParser.shortFromString(shortInput);
+    }
+
+    @Benchmark
+    public Optional<Integer> integerFromString() {
+        return SafeParser.integerFromString(integerInput);
+    }
+
+    @Benchmark
+    public Optional<Long> longFromString() {
+        return SafeParser.longFromString(longInput);
+    }
+
+    @Benchmark
+    public Optional<Float> floatFromString() {
+        return SafeParser.floatFromString(floatInput);
+    }
+
+    @Benchmark
+    public Optional<Double> doubleFromString() {
+        return SafeParser.doubleFromString(doubleInput);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> bigDecimalFromString() {
+        return SafeParser.bigDecimalFromString(bigDecimalInput);
+    }
+
+    @Benchmark
+    public Optional<Integer> parseInteger() {
+        return SafeParser.parse(integerInput, Integer.class);
+    }
+
+    private String select(final String valid, final String decimal, final String malformed) {
+        switch (inputKind) {
+            case VALID:
+                return valid;
+            case DECIMAL:
+                return decimal;
+            default:
+                return malformed;
+        }
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends SafeParserBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends SafeParserBenchmark {
+    }
+}
@@ -0,0 +1,82 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.QuietLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Measures the Numeric conversion getters, both on a pre-built Numeric and including construction, for each kind of
+ * wrapped value.
+ */
+@State(Scope.Benchmark)
+public abstract class NumericBenchmark {
+    /**
+     * The Type wrapped by the Numeric under test.
+     */
+    public enum Source {
+        INTEGER, DOUBLE, BIG_DECIMAL
+    }
+
+    @Param
+    public Source source;
+
+    private Object rawValue;
+    private Numeric numeric;
+
+    @Setup
+    public void setup() {
+        QuietLogger.install();
+        switch (source) {
+            case INTEGER:
+                rawValue = 123_456;
+                break;
+            case DOUBLE:
+                rawValue = 123_456.789d;
+                break;
+            default:
+                rawValue = new BigDecimal("123456.789");
+                break;
+        }
+        numeric = Numeric.of(rawValue);
+    }
+
+    @Benchmark
+    public Optional<Integer> getInteger() {
+        return numeric.getInteger();
+    }
+
+    @Benchmark
+    public Optional<Double> getDouble() {
+        return numeric.getDouble();
+    }
+
+    @Benchmark
+    public Optional<Integer> ofThenGetInteger() {
+        return Numeric.of(rawValue).getInteger();
+    }
+
+    @Benchmark
+    public Optional<Double> ofThenGetDouble() {
+        return Numeric.of(rawValue).getDouble();
+    }
+
+    @Benchmark
+    public Numeric add() {
+        return numeric.add(rawValue);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends NumericBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends NumericBenchmark {
+    }
+}
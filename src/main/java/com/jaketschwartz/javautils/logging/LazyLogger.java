@@ -0,0 +1,73 @@
+package com.jaketschwartz.javautils.logging;
+
+/**
+ * A Logger that generates its delegate through LoggerProvider on first use, and again whenever the provider's
+ * generator has changed since.  Created with LoggerProvider.lazyLogger().
+ */
+final class LazyLogger implements Logger {
+    private final Class<?> loggerClass;
+    // Not volatile: a Binding is immutable, so a thread that sees a stale one only rebinds once more than it needed to
+    private Binding binding;
+
+    LazyLogger(final Class<?> loggerClass) {
+        this.loggerClass = loggerClass;
+    }
+
+    @Override
+    public void trace(final String text, final Object... args) {
+        this.delegate().trace(text, args);
+    }
+
+    @Override
+    public void debug(final String text, final Object... args) {
+        this.delegate().debug(text, args);
+    }
+
+    @Override
+    public void info(final String text, final Object... args) {
+        this.delegate().info(text, args);
+    }
+
+    @Override
+    public void warn(final String text, final Object... args) {
+        this.delegate().warn(text, args);
+    }
+
+    @Override
+    public void error(final String text, final Object... args) {
+        this.delegate().error(text, args);
+    }
+
+    /**
+     * Fetches the Logger for the current generation, generating it if the generator has changed.
+     * @return The Logger to delegate to.
+     */
+    Logger delegate() {
+        final int generation = LoggerProvider.generation();
+        final Binding current = binding;
+        if (current != null && current.generation == generation) {
+            return current.logger;
+        }
+        final Logger logger = LoggerProvider.logger(loggerClass);
+        binding = new Binding(logger, generation);
+        return logger;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyLogger{" + loggerClass.getName() + "}";
+    }
+
+    /**
+     * A generated Logger and the generation it was generated in.
+     */
+    private static final class Binding {
+        private final Logger logger;
+        private final int generation;
+
+        Binding(final Logger logger, final int generation) {
+            this.logger = logger;
+            this.generation = generation;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.jaketschwartz.javautils.logging;
 
+import com.jaketschwartz.javautils.metrics.Metrics;
+import com.jaketschwartz.javautils.metrics.Timer;
+
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Objects;
@@ -14,6 +17,8 @@ import java.util.regex.Matcher;
 public class LoggerI implements Logger {
     private static final String REPLACEMENT_SYMBOL = "{}";
     private static final Integer CLASS_NAME_DISPLAY_SIZE = 30;
+    // Times the logs that are displayed; filtered logs return before it starts
+    private static final Timer DISPLAY_TIMER = Metrics.timer(Metrics.DISPLAY_LOG);
     private Class loggingForClass;
     // Default to TRACE logs
     private LogLevel logLevel = LogLevel.TRACE;
@@ -80,6 +85,21 @@ public class LoggerI implements Logger {
         if (currentLevel.weight() < this.logLevel.weight()) {
             return;
         }
+        final long start = DISPLAY_TIMER.start();
+        try {
+            this.printLog(currentLevel, message, args);
+        } finally {
+            DISPLAY_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Formats and prints a log that has passed the log level check.
+     * @param currentLevel The LogLevel to display.
+     * @param message The text to format.
+     * @param args The arguments to format into the text.
+     */
+    private void printLog(final LogLevel currentLevel, String message, Object... args) {
         final StringBuilder logBuilder = new StringBuilder();
         // Ex: [ INFO][com.whatever.otherpac…YourClass] -
         logBuilder.append("[")
@@ -6,17 +6,22 @@ import java.util.function.Function;
  * Globally provides logs to external classes by allowing simple Function funneling for Logger creation.
  */
 public class LoggerProvider {
-    // The default Logger is just a new instance of LoggerI
-    private static Function<Class, ? extends Logger> loggerGenerator = LoggerI::new;
+    // Null means the default, which is just a new instance of LoggerI.  Left null so that neither LoggerI nor a lambda
+    // has to be loaded until the first Logger is actually created.
+    private static volatile Function<Class, ? extends Logger> loggerGenerator;
+    // Bumped whenever the generator changes, so that lazy Loggers know to rebind
+    private static volatile int generation;
 
     /**
      * Sets the default Logger generation function for all external classes.  Can be extended later for external
-     * frameworks, but for now it just acts as an entrypoint for subsequently created Loggers.
-     * @param loggerGenerator The Function that outputs a desired Logger.
+     * frameworks.  Loggers created by lazyLogger() switch to the new generator on their next call; Loggers created by
+     * logger() keep the one they were created with.
+     * @param loggerGenerator The Function that outputs a desired Logger, or null to go back to LoggerI.
      * @param <T> The Type of class to create that implements Logger.
      */
-    public static<T extends Logger> void setLoggerGenerator(final Function<Class, T> loggerGenerator) {
+    public static synchronized<T extends Logger> void setLoggerGenerator(final Function<Class, T> loggerGenerator) {
         LoggerProvider.loggerGenerator = loggerGenerator;
+        generation++;
     }
 
     /**
@@ -25,6 +30,25 @@ public class LoggerProvider {
      * @return The newly-generated Logger.
      */
     public static Logger logger(final Class loggerClass) {
-        return LoggerProvider.loggerGenerator.apply(loggerClass);
+        // Raw only because the field's type follows the public setLoggerGenerator() signature
+        @SuppressWarnings("rawtypes")
+        final Function<Class, ? extends Logger> generator = LoggerProvider.loggerGenerator;
+        return generator == null ? new LoggerI(loggerClass) : generator.apply(loggerClass);
+    }
+
+    /**
+     * Creates a handle that generates its Logger on first use instead of right away, and generates it again after
+     * setLoggerGenerator() is called.  Meant for static Loggers, which would otherwise load the logging stack during
+     * class initialization and keep whichever generator was set at that moment.  Once bound, each call costs one
+     * extra comparison against the current generation.
+     * @param loggerClass The Class to tie to the Logger.
+     * @return The handle.
+     */
+    public static Logger lazyLogger(final Class<?> loggerClass) {
+        return new LazyLogger(loggerClass);
+    }
+
+    static int generation() {
+        return generation;
     }
 }
@@ -0,0 +1,207 @@
+package com.jaketschwartz.javautils.manipulation;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+import com.jaketschwartz.javautils.metrics.Counter;
+import com.jaketschwartz.javautils.metrics.Metrics;
+import com.jaketschwartz.javautils.parsing.ConverterRegistry;
+import com.jaketschwartz.javautils.parsing.SafeParser;
+import com.jaketschwartz.javautils.wrapper.Numeric;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * The registry of direct conversions behind ObjectConversionUtil.convert(), and the search for chains of them.
+ * <p>
+ * Each registered conversion is an edge from a source Class, which also covers its subclasses, to a target Class.
+ * Parsing from any CharSequence to a Type with a Converter in the ConverterRegistry is an edge too.  The shortest chain
+ * from a source Class to a target Class is found with a breadth-first search and composed into a single Function,
+ * which is cached per pair in a ClassValue so that repeated conversions go straight to the composed Function.
+ * Registering a conversion discards every cached chain.
+ */
+final class ConversionGraph {
+    private static final Logger log = LoggerProvider.lazyLogger(ConversionGraph.class);
+    private static final Counter FAILURES = Metrics.counter(Metrics.CONVERSION_FAILURES);
+    // Longer chains than this are almost certainly not what the caller meant
+    private static final int MAX_STEPS = 4;
+    // Newest first, so that later registrations win over earlier ones and the built-in conversions
+    private static final List<Edge> EDGES = new CopyOnWriteArrayList<>();
+    private static final Function<Object, Object> IDENTITY = value -> value;
+    // Target Class -> source Class -> the composed chain, or empty if there is none.  Replaced on registration.
+    private static volatile ClassValue<ClassValue<Optional<Function<Object, Object>>>> chains =
+            ConversionGraph.newCache();
+    // Bumped on every registration, so that anything built from earlier chains, such as a FieldMapper, can rebuild
+    private static volatile int version;
+    static {
+        // Registered in reverse order of precedence, since each registration goes to the front
+        ConversionGraph.register(Object.class, String.class, String::valueOf);
+        ConversionGraph.register(CharSequence.class, Numeric.class,
+                value -> SafeParser.parse(value, BigDecimal.class).map(Numeric::of).orElse(null));
+        for (final Class<?> type : new Class<?>[]{Byte.class, Short.class, Integer.class, Long.class, Float.class,
+                Double.class, BigDecimal.class}) {
+            ConversionGraph.register(type, Numeric.class, value -> {
+                final Numeric numeric = Numeric.of(value);
+                return numeric.isPresent() ? numeric : null;
+            });
+        }
+        ConversionGraph.register(Numeric.class, String.class,
+                value -> value.getBigDecimal().map(BigDecimal::toPlainString).orElse(null));
+        ConversionGraph.register(Numeric.class, BigDecimal.class, value -> value.getBigDecimal().orElse(null));
+        ConversionGraph.register(Numeric.class, Double.class, value -> value.getDouble().orElse(null));
+        ConversionGraph.register(Numeric.class, Float.class, value -> value.getFloat().orElse(null));
+        ConversionGraph.register(Numeric.class, Long.class, value -> value.getLong().orElse(null));
+        ConversionGraph.register(Numeric.class, Integer.class, value -> value.getInteger().orElse(null));
+        ConversionGraph.register(Numeric.class, Short.class, value -> value.getShort().orElse(null));
+        ConversionGraph.register(Numeric.class, Byte.class, value -> value.getByte().orElse(null));
+    }
+
+    private ConversionGraph() {
+    }
+
+    /**
+     * Registers a direct conversion, taking precedence over any existing conversion between the same Classes.
+     * @param from The Class converted from, including its subclasses.
+     * @param to The Class converted to.
+     * @param converter The conversion, which may return null or throw to signal failure.
+     * @param <S> The source Type.
+     * @param <T> The target Type.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized<S, T> void register(final Class<S> from, final Class<T> to,
+                                            final Function<? super S, ? extends T> converter) {
+        final Function<Object, Object> step = (Function<Object, Object>)converter;
+        EDGES.add(0, new Edge(from, to, value -> {
+            try {
+                return step.apply(value);
+            } catch (final RuntimeException e) {
+                FAILURES.increment();
+                log.error("Failed to convert a/an [{}] to a/an [{}]!", value.getClass().getSimpleName(),
+                        to.getSimpleName(), e);
+                return null;
+            }
+        }));
+        chains = ConversionGraph.newCache();
+        version++;
+    }
+
+    /**
+     * Fetches the number of conversions registered so far, which changes whenever the chains do.
+     * @return The version.
+     */
+    static int version() {
+        return version;
+    }
+
+    /**
+     * Fetches the composed chain of conversions between two Classes.
+     * @param source The runtime Class of the value.
+     * @param target The Class to convert to, which must not be primitive.
+     * @return The chain, which returns null when any step fails, or an empty Optional if no chain exists.
+     */
+    static Optional<Function<Object, Object>> chain(final Class<?> source, final Class<?> target) {
+        return chains.get(target).get(source);
+    }
+
+    private static ClassValue<ClassValue<Optional<Function<Object, Object>>>> newCache() {
+        return new ClassValue<ClassValue<Optional<Function<Object, Object>>>>() {
+            @Override
+            protected ClassValue<Optional<Function<Object, Object>>> computeValue(final Class<?> target) {
+                return new ClassValue<Optional<Function<Object, Object>>>() {
+                    @Override
+                    protected Optional<Function<Object, Object>> computeValue(final Class<?> source) {
+                        return ConversionGraph.resolve(source, target);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Finds the shortest chain of conversions with a breadth-first search over Classes.
+     */
+    private static Optional<Function<Object, Object>> resolve(final Class<?> source, final Class<?> target) {
+        if (target.isAssignableFrom(source)) {
+            return Optional.of(IDENTITY);
+        }
+        final Map<Class<?>, Function<Object, Object>> reached = new HashMap<>();
+        reached.put(source, IDENTITY);
+        List<Class<?>> frontier = new ArrayList<>();
+        frontier.add(source);
+        for (int step = 0; step < MAX_STEPS && !frontier.isEmpty(); step++) {
+            final List<Class<?>> next = new ArrayList<>();
+            for (final Class<?> node : frontier) {
+                for (final Edge edge : ConversionGraph.edgesFrom(node, target)) {
+                    if (reached.containsKey(edge.to)) {
+                        continue;
+                    }
+                    final Function<Object, Object> composed = ConversionGraph.compose(reached.get(node), edge.convert);
+                    if (target.isAssignableFrom(edge.to)) {
+                        return Optional.of(composed);
+                    }
+                    reached.put(edge.to, composed);
+                    next.add(edge.to);
+                }
+            }
+            frontier = next;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the conversions that apply to a Class, keeping only the most specific source for each target Class.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Edge> edgesFrom(final Class<?> node, final Class<?> target) {
+        final Map<Class<?>, Edge> byTarget = new LinkedHashMap<>();
+        if (CharSequence.class.isAssignableFrom(node) && ConverterRegistry.converterFor(target).isPresent()) {
+            final Class<Object> parsed = (Class<Object>)target;
+            byTarget.put(target, new Edge(CharSequence.class, target,
+                    value -> SafeParser.parse((CharSequence)value, parsed).orElse(null)));
+        }
+        for (final Edge edge : EDGES) {
+            if (!edge.from.isAssignableFrom(node)) {
+                continue;
+            }
+            final Edge existing = byTarget.get(edge.to);
+            // A subclass's conversion is more specific; between equals the newest, which comes first, wins
+            if (existing == null || (existing.from != edge.from && existing.from.isAssignableFrom(edge.from))) {
+                byTarget.put(edge.to, edge);
+            }
+        }
+        return new ArrayList<>(byTarget.values());
+    }
+
+    private static Function<Object, Object> compose(final Function<Object, Object> first,
+                                                    final Function<Object, Object> second) {
+        if (first == IDENTITY) {
+            return second;
+        }
+        return value -> {
+            final Object intermediate = first.apply(value);
+            return intermediate == null ? null : second.apply(intermediate);
+        };
+    }
+
+    /**
+     * A direct conversion.
+     */
+    private static final class Edge {
+        private final Class<?> from;
+        private final Class<?> to;
+        private final Function<Object, Object> convert;
+
+        Edge(final Class<?> from, final Class<?> to, final Function<Object, Object> convert) {
+            this.from = from;
+            this.to = to;
+            this.convert = convert;
+        }
+    }
+}
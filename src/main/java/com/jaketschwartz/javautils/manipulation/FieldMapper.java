@@ -0,0 +1,427 @@
+package com.jaketschwartz.javautils.manipulation;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Copies matching properties from objects of one Class onto objects of another, such as from a DTO onto a domain
+ * object, converting each value on the way.
+ * <p>
+ * A source property is a public getter (getX() or isX()) or, failing that, an instance field; a target property is a
+ * public setter (setX()) or, failing that, a non-final instance field.  Properties are matched by name.  When a target
+ * property's Type is not assignable from the source property's, the value goes through the same conversion chain as
+ * ObjectConversionUtil.convert(), so a String can fill a Long and a BigDecimal can fill an int through Numeric.
+ * <p>
+ * Each pair of Classes is introspected once and the plan is cached.  Every accessor is bound as a MethodHandle and
+ * every conversion is resolved up front, so mapping an object is a straight run of handle invocations with no
+ * reflection or lookups.  Registering a conversion with ObjectConversionUtil.registerConversion() makes every mapper
+ * resolve its conversions again on its next use, so properties follow the new chains and properties that could not be
+ * converted before are picked up.  Mappers are thread-safe.
+ * @param <S> The Type mapped from.
+ * @param <T> The Type mapped to.
+ */
+public final class FieldMapper<S, T> {
+    private static final Logger log = LoggerProvider.lazyLogger(FieldMapper.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    // Source Class -> target Class -> the compiled mapper
+    private static final ClassValue<ClassValue<FieldMapper<?, ?>>> MAPPERS =
+            new ClassValue<ClassValue<FieldMapper<?, ?>>>() {
+                @Override
+                protected ClassValue<FieldMapper<?, ?>> computeValue(final Class<?> source) {
+                    return new ClassValue<FieldMapper<?, ?>>() {
+                        @Override
+                        protected FieldMapper<?, ?> computeValue(final Class<?> target) {
+                            return new FieldMapper<>(source, target);
+                        }
+                    };
+                }
+            };
+    private final Class<S> sourceClass;
+    private final Class<T> targetClass;
+    // Every property readable on the source and writable on the target, whether or not it can currently be converted
+    private final List<Pairing> pairings = new ArrayList<>();
+    // Bound as ()Object, or null when the target Class has no accessible no-argument constructor
+    private final MethodHandle constructor;
+    // Rebuilt whenever a conversion is registered, so that mappers follow the same chains as convert()
+    private volatile Plan plan;
+
+    /**
+     * Fetches the mapper for a pair of Classes, introspecting them the first time.
+     * @param sourceClass The Class to map from.
+     * @param targetClass The Class to map to.
+     * @param <S> The Type mapped from.
+     * @param <T> The Type mapped to.
+     * @return The mapper, or an empty Optional on null input.
+     */
+    @SuppressWarnings("unchecked")
+    public static<S, T> Optional<FieldMapper<S, T>> of(final Class<S> sourceClass, final Class<T> targetClass) {
+        if (sourceClass == null || targetClass == null) {
+            log.warn("A null source class [{}] or target class [{}] was passed in!", sourceClass, targetClass);
+            return Optional.empty();
+        }
+        // Every mapper was built for exactly this pair of Classes, so the cast is safe
+        return Optional.of((FieldMapper<S, T>)MAPPERS.get(sourceClass).get(targetClass));
+    }
+
+    private FieldMapper(final Class<S> sourceClass, final Class<T> targetClass) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final Map<String, Property> readers = FieldMapper.readers(sourceClass, lookup);
+        for (final Map.Entry<String, Property> writer : FieldMapper.writers(targetClass, lookup).entrySet()) {
+            final Property reader = readers.get(writer.getKey());
+            if (reader != null) {
+                pairings.add(new Pairing(writer.getKey(), reader, writer.getValue()));
+            }
+        }
+        this.constructor = FieldMapper.constructor(targetClass, lookup);
+        this.plan = this.buildPlan();
+    }
+
+    /**
+     * Copies every matched property from one object onto another.  A property whose value is null is copied as null,
+     * except onto a primitive, which is left unchanged.
+     * @param source The object to read from.
+     * @param target The object to write to.
+     * @return True if every property was copied, or false on null input or if any property failed to convert or copy.
+     */
+    public boolean copy(final S source, final T target) {
+        if (source == null || target == null) {
+            log.warn("A null source [{}] or target [{}] was passed in!", source, target);
+            return false;
+        }
+        boolean copiedAll = true;
+        for (final Step step : this.currentPlan().steps) {
+            try {
+                Object value = (Object)step.getter.invokeExact((Object)source);
+                if (value != null && step.conversion != null) {
+                    value = step.conversion.apply(value);
+                    if (value == null) {
+                        copiedAll = false;
+                        continue;
+                    }
+                }
+                if (value == null && step.primitiveTarget) {
+                    continue;
+                }
+                step.setter.invokeExact((Object)target, value);
+            } catch (final Throwable e) {
+                log.error("Failed to copy property [{}] from a/an [{}] to a/an [{}]!", step.name,
+                        sourceClass.getSimpleName(), targetClass.getSimpleName(), e);
+                copiedAll = false;
+            }
+        }
+        return copiedAll;
+    }
+
+    /**
+     * Creates a new target object with its no-argument constructor and copies every matched property onto it.
+     * @param source The object to read from.
+     * @return The new object, or an empty Optional on null input, if the target Class cannot be constructed, or if any
+     * property failed to convert or copy.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> map(final S source) {
+        if (constructor == null) {
+            log.error("[{}] has no accessible no-argument constructor to map into!", targetClass.getSimpleName());
+            return Optional.empty();
+        }
+        final T target;
+        try {
+            target = (T)(Object)constructor.invokeExact();
+        } catch (final Throwable e) {
+            log.error("Failed to construct a/an [{}]!", targetClass.getSimpleName(), e);
+            return Optional.empty();
+        }
+        return this.copy(source, target) ? Optional.of(target) : Optional.empty();
+    }
+
+    /**
+     * Fetches the names of the properties that are copied.
+     * @return An unmodifiable List of property names.
+     */
+    public List<String> getPropertyNames() {
+        final List<String> names = new ArrayList<>();
+        for (final Step step : this.currentPlan().steps) {
+            names.add(step.name);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldMapper{" + sourceClass.getSimpleName() + " -> " + targetClass.getSimpleName() + ", properties="
+                + this.getPropertyNames() + "}";
+    }
+
+    /**
+     * Fetches the plan for the current set of registered conversions, rebuilding it if one has been registered since.
+     */
+    private Plan currentPlan() {
+        final Plan current = plan;
+        if (current.version == ConversionGraph.version()) {
+            return current;
+        }
+        final Plan rebuilt = this.buildPlan();
+        plan = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Resolves the conversion for every paired property, skipping those that cannot be converted.
+     */
+    private Plan buildPlan() {
+        // Read first, so that a conversion registered while building causes another rebuild rather than being missed
+        final int version = ConversionGraph.version();
+        final List<Step> steps = new ArrayList<>();
+        for (final Pairing pairing : pairings) {
+            final Class<?> from = FieldMapper.wrapper(pairing.reader.type);
+            final Class<?> to = FieldMapper.wrapper(pairing.writer.type);
+            final Function<Object, Object> conversion;
+            if (to.isAssignableFrom(from)) {
+                conversion = null;
+            } else {
+                conversion = ConversionGraph.chain(from, to).orElseGet(() -> FieldMapper.runtimeConversion(from, to));
+                if (conversion == null) {
+                    log.warn("No conversion from [{}] to [{}] for property [{}] mapping [{}] to [{}]; skipping it",
+                            from.getSimpleName(), to.getSimpleName(), pairing.name, sourceClass.getSimpleName(),
+                            targetClass.getSimpleName());
+                    continue;
+                }
+            }
+            steps.add(new Step(pairing.name, pairing.reader.handle, pairing.writer.handle, conversion,
+                    pairing.writer.type.isPrimitive()));
+        }
+        return new Plan(version, steps.toArray(new Step[0]));
+    }
+
+    /**
+     * Finds the readable properties of a Class: public getters first, then instance fields.
+     */
+    private static Map<String, Property> readers(final Class<?> type, final MethodHandles.Lookup lookup) {
+        final Map<String, Property> readers = new LinkedHashMap<>();
+        for (final Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            final String name = method.getName();
+            final String property;
+            if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+                property = FieldMapper.decapitalize(name.substring(3));
+            } else if (name.startsWith("is") && name.length() > 2
+                    && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                property = FieldMapper.decapitalize(name.substring(2));
+            } else {
+                continue;
+            }
+            final MethodHandle handle = FieldMapper.unreflect(lookup, method);
+            if (handle != null) {
+                readers.putIfAbsent(property, new Property(method.getReturnType(), handle.asType(GETTER_TYPE)));
+            }
+        }
+        for (final Field field : FieldMapper.instanceFields(type)) {
+            if (!readers.containsKey(field.getName()) && FieldMapper.makeAccessible(field)) {
+                try {
+                    readers.put(field.getName(),
+                            new Property(field.getType(), lookup.unreflectGetter(field).asType(GETTER_TYPE)));
+                } catch (final IllegalAccessException e) {
+                    log.debug("Cannot read field [{}] of [{}]", field.getName(), type.getSimpleName());
+                }
+            }
+        }
+        return readers;
+    }
+
+    /**
+     * Finds the writable properties of a Class: public setters first, then non-final instance fields.
+     */
+    private static Map<String, Property> writers(final Class<?> type, final MethodHandles.Lookup lookup) {
+        final Map<String, Property> writers = new LinkedHashMap<>();
+        for (final Method method : type.getMethods()) {
+            final String name = method.getName();
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1
+                    || !name.startsWith("set") || name.length() <= 3) {
+                continue;
+            }
+            final MethodHandle handle = FieldMapper.unreflect(lookup, method);
+            if (handle != null) {
+                // Any return value, as from a fluent setter, is dropped
+                writers.putIfAbsent(FieldMapper.decapitalize(name.substring(3)), new Property(
+                        method.getParameterTypes()[0], handle.asType(handle.type().changeReturnType(void.class))
+                        .asType(SETTER_TYPE)));
+            }
+        }
+        for (final Field field : FieldMapper.instanceFields(type)) {
+            if (!writers.containsKey(field.getName()) && !Modifier.isFinal(field.getModifiers())
+                    && FieldMapper.makeAccessible(field)) {
+                try {
+                    writers.put(field.getName(),
+                            new Property(field.getType(), lookup.unreflectSetter(field).asType(SETTER_TYPE)));
+                } catch (final IllegalAccessException e) {
+                    log.debug("Cannot write field [{}] of [{}]", field.getName(), type.getSimpleName());
+                }
+            }
+        }
+        return writers;
+    }
+
+    /**
+     * Collects the instance fields of a Class and its superclasses, nearest first.
+     */
+    private static List<Field> instanceFields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Falls back to resolving the conversion from each value's runtime Class, for declared Types such as Object or
+     * Number whose subclasses may convert where the declared Type does not.  Final Types have no such subclasses.
+     */
+    private static Function<Object, Object> runtimeConversion(final Class<?> from, final Class<?> to) {
+        if (Modifier.isFinal(from.getModifiers())) {
+            return null;
+        }
+        return value -> ConversionGraph.chain(value.getClass(), to).map(chain -> chain.apply(value)).orElse(null);
+    }
+
+    private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (final IllegalAccessException e) {
+            // Public methods of non-public classes, for example
+            if (FieldMapper.makeAccessible(method)) {
+                try {
+                    return lookup.unreflect(method);
+                } catch (final IllegalAccessException stillInaccessible) {
+                    log.debug("Cannot bind method [{}]", method);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static MethodHandle constructor(final Class<?> type, final MethodHandles.Lookup lookup) {
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            if (!FieldMapper.makeAccessible(constructor)) {
+                return null;
+            }
+            return lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens a member to reflection.  Fails for members of modules that are not open to this library.
+     */
+    private static boolean makeAccessible(final AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+            return true;
+        } catch (final RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static String decapitalize(final String name) {
+        // Matches the JavaBeans convention, where URL stays URL but Name becomes name
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Class<?> wrapper(final Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * A property readable on the source Class and writable on the target Class.
+     */
+    private static final class Pairing {
+        private final String name;
+        private final Property reader;
+        private final Property writer;
+
+        Pairing(final String name, final Property reader, final Property writer) {
+            this.name = name;
+            this.reader = reader;
+            this.writer = writer;
+        }
+    }
+
+    /**
+     * The properties to copy, resolved against one version of the registered conversions.
+     */
+    private static final class Plan {
+        private final int version;
+        private final Step[] steps;
+
+        Plan(final int version, final Step[] steps) {
+            this.version = version;
+            this.steps = steps;
+        }
+    }
+
+    /**
+     * Copies one property.
+     */
+    private static final class Step {
+        private final String name;
+        // Bound as (Object)Object
+        private final MethodHandle getter;
+        // Bound as (Object, Object)void
+        private final MethodHandle setter;
+        // Null where the value can be set as-is
+        private final Function<Object, Object> conversion;
+        private final boolean primitiveTarget;
+
+        Step(final String name, final MethodHandle getter, final MethodHandle setter,
+             final Function<Object, Object> conversion, final boolean primitiveTarget) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.conversion = conversion;
+            this.primitiveTarget = primitiveTarget;
+        }
+    }
+
+    /**
+     * A property's declared Type and its bound accessor.
+     */
+    private static final class Property {
+        private final Class<?> type;
+        private final MethodHandle handle;
+
+        Property(final Class<?> type, final MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+}
@@ -2,14 +2,53 @@ package com.jaketschwartz.javautils.manipulation;
 
 import com.jaketschwartz.javautils.logging.Logger;
 import com.jaketschwartz.javautils.logging.LoggerProvider;
+import com.jaketschwartz.javautils.metrics.Metrics;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Manipulates objects at a class level.
+ * Casts never throw: whether a source Class can be cast to a target Class is worked out once per pair and cached, and
+ * a mismatch is an empty Optional.  Mismatches are routine when filtering mixed streams, so they are counted rather
+ * than logged unless verbose misses are switched on.
+ * The bulk casts return lazy views instead of a list of Optionals: castAll() for elements that are all expected to be
+ * of the target Type, where any that are not are skipped and counted as misses, and filterCast() for picking out the
+ * elements of one Type from a mix, where the rest are skipped silently.  Neither wraps or copies any element.
+ * convert() goes beyond casting, chaining registered conversions such as String to Numeric to Long.
  */
 public class ObjectConversionUtil {
-    private static final Logger log = LoggerProvider.logger(ObjectConversionUtil.class);
+    private static final Logger log = LoggerProvider.lazyLogger(ObjectConversionUtil.class);
+    // Target Class -> source Class -> whether instances of the source can be cast to the target
+    private static final ClassValue<ClassValue<Boolean>> ASSIGNABLE = new ClassValue<ClassValue<Boolean>>() {
+        @Override
+        protected ClassValue<Boolean> computeValue(final Class<?> target) {
+            return new ClassValue<Boolean>() {
+                @Override
+                protected Boolean computeValue(final Class<?> source) {
+                    return target.isAssignableFrom(source);
+                }
+            };
+        }
+    };
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_WRAPPERS = ObjectConversionUtil.primitiveWrappers();
+    private static final LongAdder MISSES = new LongAdder();
+    static {
+        // MISSES is kept whether or not Metrics are enabled, so it is exported as a gauge rather than a second counter
+        Metrics.gauge(Metrics.CAST_MISSES, MISSES::sum);
+    }
+    private static volatile boolean verboseMisses = false;
 
     /**
      * A safe way to cast an object to its superclass.
@@ -43,17 +82,311 @@ public class ObjectConversionUtil {
      * @param <U> Any other Type of object that T can be cast to.
      * @return The Optionally-warpped cast object, or an empty Optional on null or bad input.
      */
+    @SuppressWarnings("unchecked")
     public static<T, U> Optional<U> cast(final T object, final Class<U> castClass) {
         if (object == null || castClass == null) {
             log.warn("A null object [{}] or superclass was passed in!", object, castClass);
             return Optional.empty();
         }
-        try {
-            return Optional.of(castClass.cast(object));
-        } catch (ClassCastException e) {
-            log.error("Failed to cast a/an [{}] to a/an [{}]", object.getClass().getSimpleName(),
-                    castClass.getSimpleName(), e);
+        if (!ObjectConversionUtil.isCastable(object.getClass(), castClass)) {
+            ObjectConversionUtil.recordMiss(object.getClass(), castClass);
+            return Optional.empty();
+        }
+        // Already checked, so this unchecked cast cannot fail
+        return Optional.of((U)object);
+    }
+
+    /**
+     * Converts a value to another Type through the shortest chain of registered conversions, such as Integer to
+     * Numeric to Long, or parsing a String with SafeParser.  A value that is already of the Type is returned as-is.
+     * The chain for each pair of Classes is found once and cached as a single composed Function.
+     * @param value The value to convert.
+     * @param type The Class to convert to.  Primitive Classes convert to their wrapper.
+     * @param <T> Any Type.
+     * @return The converted value, or an empty Optional on null input, if no chain exists, or if a step fails.
+     */
+    @SuppressWarnings("unchecked")
+    public static<T> Optional<T> convert(final Object value, final Class<T> type) {
+        if (value == null || type == null) {
+            log.warn("A null value [{}] or class [{}] was passed in!", value, type);
+            return Optional.empty();
+        }
+        final Class<?> target = ObjectConversionUtil.wrapper(type);
+        final Function<Object, Object> chain = ConversionGraph.chain(value.getClass(), target).orElse(null);
+        if (chain == null) {
+            log.error("No conversion from a/an [{}] to a/an [{}] is registered!", value.getClass().getSimpleName(),
+                    type.getSimpleName());
             return Optional.empty();
         }
+        return Optional.ofNullable((T)chain.apply(value));
+    }
+
+    /**
+     * Registers a direct conversion for convert() to use, alone or as a step in a chain.  It takes precedence over any
+     * existing conversion between the same Classes, and applies to subclasses of the source Class too.
+     * @param from The Class to convert from.
+     * @param to The Class to convert to.
+     * @param converter The conversion, which may return null or throw a RuntimeException to signal failure.
+     * @param <S> The source Type.
+     * @param <T> The target Type.
+     * @return True if the conversion was registered, or false on null input.
+     */
+    public static<S, T> boolean registerConversion(final Class<S> from, final Class<T> to,
+                                                  final Function<? super S, ? extends T> converter) {
+        if (from == null || to == null || converter == null) {
+            log.warn("A null class [{}] or [{}], or a null converter, was passed in!", from, to);
+            return false;
+        }
+        ConversionGraph.register(ObjectConversionUtil.wrapper(from), ObjectConversionUtil.wrapper(to), converter);
+        return true;
+    }
+
+    /**
+     * Lazily casts every element of an Iterable.  Elements that cannot be cast are skipped and counted as misses, as
+     * cast() would count them; null elements are skipped.
+     * @param source The elements to cast.  Changes to it show through the view.
+     * @param castClass The Class every element is expected to be.
+     * @param <U> The Type to cast to.
+     * @return A view of the cast elements, which is empty on null input.
+     */
+    public static<U> Iterable<U> castAll(final Iterable<?> source, final Class<U> castClass) {
+        return ObjectConversionUtil.view(source, castClass, true, false);
+    }
+
+    /**
+     * Lazily casts every element of an array.  When the array's component Type is already castable, such as a
+     * String[] cast to CharSequence, no element is checked.  Otherwise elements that cannot be cast are skipped and
+     * counted as misses; null elements are skipped.
+     * @param source The elements to cast.  Changes to it show through the view.
+     * @param castClass The Class every element is expected to be.
+     * @param <T> The component Type of the array.
+     * @param <U> The Type to cast to.
+     * @return A view of the cast elements, which is empty on null input.
+     */
+    public static<T, U> Iterable<U> castAll(final T[] source, final Class<U> castClass) {
+        return ObjectConversionUtil.view(source, castClass, true);
+    }
+
+    /**
+     * Lazily casts every element of a Stream.  Elements that cannot be cast are dropped and counted as misses; null
+     * elements are dropped.  Works with parallel Streams.
+     * @param source The elements to cast.
+     * @param castClass The Class every element is expected to be.
+     * @param <U> The Type to cast to.
+     * @return The Stream of cast elements, which is empty on null input.
+     */
+    public static<U> Stream<U> castAll(final Stream<?> source, final Class<U> castClass) {
+        return ObjectConversionUtil.castStream(source, castClass, true);
+    }
+
+    /**
+     * Lazily picks out the elements of an Iterable that are of a Type.  Other elements and nulls are skipped without
+     * being counted as misses.
+     * @param source The elements to filter.  Changes to it show through the view.
+     * @param castClass The Class to pick out.
+     * @param <U> The Type to cast to.
+     * @return A view of the matching elements, which is empty on null input.
+     */
+    public static<U> Iterable<U> filterCast(final Iterable<?> source, final Class<U> castClass) {
+        return ObjectConversionUtil.view(source, castClass, false, false);
+    }
+
+    /**
+     * Lazily picks out the elements of an array that are of a Type.  When the array's component Type is already
+     * castable only nulls are skipped; otherwise other elements are skipped too, without being counted as misses.
+     * @param source The elements to filter.  Changes to it show through the view.
+     * @param castClass The Class to pick out.
+     * @param <T> The component Type of the array.
+     * @param <U> The Type to cast to.
+     * @return A view of the matching elements, which is empty on null input.
+     */
+    public static<T, U> Iterable<U> filterCast(final T[] source, final Class<U> castClass) {
+        return ObjectConversionUtil.view(source, castClass, false);
+    }
+
+    /**
+     * Lazily picks out the elements of a Stream that are of a Type.  Other elements and nulls are dropped without
+     * being counted as misses.  Works with parallel Streams.
+     * @param source The elements to filter.
+     * @param castClass The Class to pick out.
+     * @param <U> The Type to cast to.
+     * @return The Stream of matching elements, which is empty on null input.
+     */
+    public static<U> Stream<U> filterCast(final Stream<?> source, final Class<U> castClass) {
+        return ObjectConversionUtil.castStream(source, castClass, false);
+    }
+
+    /**
+     * Sorts the elements of a Stream by Type in a single pass.  Each element goes to the first of the Types it can be
+     * cast to, in the order given, or to the unmatched elements.  Works with parallel Streams, keeping encounter order.
+     * @param types The Types to sort elements into.  Null Types are ignored.
+     * @return A Collector producing the partition.
+     */
+    public static Collector<Object, ?, TypePartition> partitioningByType(final Class<?>... types) {
+        final List<Class<?>> targets = types == null
+                ? Collections.emptyList()
+                : Arrays.stream(types).filter(type -> type != null).distinct().collect(Collectors.toList());
+        return Collector.of(() -> new TypePartition(targets), TypePartition::accept, TypePartition::combine);
+    }
+
+    /**
+     * Fetches the number of casts that failed because the object was of the wrong Type, since startup or the last
+     * reset.
+     * @return The number of mismatched casts.
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Resets the number of mismatched casts to zero.
+     */
+    public static void resetMissCount() {
+        MISSES.reset();
+    }
+
+    /**
+     * Switches logging of every mismatched cast on or off.  Off by default, since mismatches are expected when
+     * filtering; useful while debugging unexpected empty results.
+     * @param verbose True to log each mismatched cast.
+     */
+    public static void setVerboseMisses(final boolean verbose) {
+        verboseMisses = verbose;
+    }
+
+    /**
+     * Determines if instances of one Class can be cast to another, from a cache keyed by both Classes.
+     * @param source The runtime Class of an object.
+     * @param target The Class to cast to.
+     * @return True if the cast would succeed.
+     */
+    static boolean isCastable(final Class<?> source, final Class<?> target) {
+        return source == target || ASSIGNABLE.get(target).get(source);
+    }
+
+    /**
+     * Counts a mismatched cast, logging it only in verbose mode.
+     * @param source The runtime Class of the object.
+     * @param target The Class it could not be cast to.
+     */
+    static void recordMiss(final Class<?> source, final Class<?> target) {
+        MISSES.increment();
+        if (verboseMisses) {
+            log.warn("Failed to cast a/an [{}] to a/an [{}]", source.getSimpleName(), target.getSimpleName());
+        }
+    }
+
+    private static Map<Class<?>, Class<?>> primitiveWrappers() {
+        final Map<Class<?>, Class<?>> wrappers = new HashMap<>();
+        wrappers.put(boolean.class, Boolean.class);
+        wrappers.put(byte.class, Byte.class);
+        wrappers.put(char.class, Character.class);
+        wrappers.put(short.class, Short.class);
+        wrappers.put(int.class, Integer.class);
+        wrappers.put(long.class, Long.class);
+        wrappers.put(float.class, Float.class);
+        wrappers.put(double.class, Double.class);
+        wrappers.put(void.class, Void.class);
+        return Collections.unmodifiableMap(wrappers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static<T> Class<T> wrapper(final Class<T> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return (Class<T>)PRIMITIVE_WRAPPERS.get(type);
+    }
+
+    private static<T, U> Iterable<U> view(final T[] source, final Class<U> castClass, final boolean countMisses) {
+        if (source == null) {
+            log.warn("A null array was passed in!");
+            return Collections.emptyList();
+        }
+        // The array's own Type guarantees every element, so only nulls need checking
+        final boolean alreadyCast = castClass != null
+                && ObjectConversionUtil.isCastable(source.getClass().getComponentType(), castClass);
+        return ObjectConversionUtil.view(Arrays.asList(source), castClass, countMisses, alreadyCast);
+    }
+
+    private static<U> Iterable<U> view(final Iterable<?> source, final Class<U> castClass, final boolean countMisses,
+                                       final boolean alreadyCast) {
+        if (source == null || castClass == null) {
+            log.warn("A null source [{}] or cast class [{}] was passed in!", source, castClass);
+            return Collections.emptyList();
+        }
+        return () -> new CastingIterator<>(source.iterator(), castClass, countMisses, alreadyCast);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static<U> Stream<U> castStream(final Stream<?> source, final Class<U> castClass,
+                                           final boolean countMisses) {
+        if (source == null || castClass == null) {
+            log.warn("A null source [{}] or cast class [{}] was passed in!", source, castClass);
+            return Stream.empty();
+        }
+        return source.filter(element -> ObjectConversionUtil.accepts(element, castClass, countMisses, false))
+                .map(element -> (U)element);
+    }
+
+    /**
+     * Determines if an element belongs in a view, counting it as a miss when it should have been cast but cannot be.
+     */
+    private static boolean accepts(final Object element, final Class<?> castClass, final boolean countMisses,
+                                   final boolean alreadyCast) {
+        if (element == null) {
+            return false;
+        }
+        if (alreadyCast || ObjectConversionUtil.isCastable(element.getClass(), castClass)) {
+            return true;
+        }
+        if (countMisses) {
+            ObjectConversionUtil.recordMiss(element.getClass(), castClass);
+        }
+        return false;
+    }
+
+    /**
+     * Walks a source Iterator, holding the next element that belongs in the view.
+     */
+    private static final class CastingIterator<U> implements Iterator<U> {
+        private final Iterator<?> source;
+        private final Class<U> castClass;
+        private final boolean countMisses;
+        private final boolean alreadyCast;
+        private Object next;
+        private boolean hasNext;
+
+        CastingIterator(final Iterator<?> source, final Class<U> castClass, final boolean countMisses,
+                        final boolean alreadyCast) {
+            this.source = source;
+            this.castClass = castClass;
+            this.countMisses = countMisses;
+            this.alreadyCast = alreadyCast;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!hasNext && source.hasNext()) {
+                final Object candidate = source.next();
+                if (ObjectConversionUtil.accepts(candidate, castClass, countMisses, alreadyCast)) {
+                    next = candidate;
+                    hasNext = true;
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public U next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = false;
+            final Object result = next;
+            next = null;
+            return (U)result;
+        }
     }
 }
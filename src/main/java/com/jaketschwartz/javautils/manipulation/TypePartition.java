@@ -0,0 +1,74 @@
+package com.jaketschwartz.javautils.manipulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The elements of a Stream sorted by Type, as produced by ObjectConversionUtil.partitioningByType().  Each element is
+ * held under the first Type it could be cast to.
+ */
+public final class TypePartition {
+    private final List<Class<?>> types;
+    private final List<List<Object>> matched;
+    private final List<Object> unmatched = new ArrayList<>();
+
+    TypePartition(final List<Class<?>> types) {
+        this.types = types;
+        this.matched = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            matched.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Fetches the elements held under a Type.
+     * @param type One of the Types the partition was created with.
+     * @param <U> The Type of the elements.
+     * @return An unmodifiable List of the elements, which is empty for any other Type.
+     */
+    @SuppressWarnings("unchecked")
+    public<U> List<U> get(final Class<U> type) {
+        final int index = types.indexOf(type);
+        return index < 0
+                ? Collections.emptyList()
+                : (List<U>)Collections.unmodifiableList(matched.get(index));
+    }
+
+    /**
+     * Fetches the elements that could not be cast to any of the Types, including nulls.
+     * @return An unmodifiable List of the elements.
+     */
+    public List<Object> unmatched() {
+        return Collections.unmodifiableList(unmatched);
+    }
+
+    void accept(final Object element) {
+        if (element != null) {
+            for (int i = 0; i < types.size(); i++) {
+                if (ObjectConversionUtil.isCastable(element.getClass(), types.get(i))) {
+                    matched.get(i).add(element);
+                    return;
+                }
+            }
+        }
+        unmatched.add(element);
+    }
+
+    TypePartition combine(final TypePartition other) {
+        for (int i = 0; i < matched.size(); i++) {
+            matched.get(i).addAll(other.matched.get(i));
+        }
+        unmatched.addAll(other.unmatched);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("TypePartition{");
+        for (int i = 0; i < types.size(); i++) {
+            builder.append(types.get(i).getSimpleName()).append('=').append(matched.get(i).size()).append(", ");
+        }
+        return builder.append("unmatched=").append(unmatched.size()).append('}').toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.jaketschwartz.javautils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named count of events.  Backed by a LongAdder, whose cells are striped across threads, so concurrent increments
+ * from hot paths do not contend on a single field.  Increments are dropped while Metrics are disabled, which costs a
+ * single read of the enabled flag.
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts one event, if Metrics are enabled.
+     */
+    public void increment() {
+        if (Metrics.enabled) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Counts a number of events, if Metrics are enabled.
+     * @param events The number of events.
+     */
+    public void add(final long events) {
+        if (Metrics.enabled) {
+            count.add(events);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Fetches the count.  Not an atomic snapshot while other threads are incrementing.
+     * @return The number of events counted since creation or the last reset.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Counter{" + name + "=" + this.getCount() + "}";
+    }
+}
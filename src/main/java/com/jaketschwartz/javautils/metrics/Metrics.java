@@ -0,0 +1,184 @@
+package com.jaketschwartz.javautils.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The registry of counters, timers and gauges shared by every package in the library, such as parse failures in
+ * SafeParser, cast misses in ObjectConversionUtil, slow-path arithmetic in Numeric and time spent in LoggerI.
+ * <p>
+ * Metrics are disabled by default, and enabled either with the javautils.metrics system property or setEnabled().
+ * While disabled, every counter and timer call costs a single read of a volatile flag and records nothing.  Values can
+ * be pulled with snapshot() or exported over JMX with registerMBean().  Metric names are dotted, starting with the
+ * package that records them.  This package never logs, so that the logging package can be instrumented too.
+ */
+public final class Metrics {
+    /**
+     * The JMX name the MXBean is registered under.
+     */
+    public static final String OBJECT_NAME = "com.jaketschwartz.javautils:type=Metrics";
+    /**
+     * How many calls a Timer counts for each one it times, unless told otherwise.
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+    // The library's own metrics, registered up front so that every snapshot reports them before their owners load
+    public static final String PARSING_FAILURES = "parsing.failures";
+    public static final String CAST_MISSES = "manipulation.castMisses";
+    public static final String CONVERSION_FAILURES = "manipulation.conversionFailures";
+    public static final String INT128_FALLBACKS = "wrapper.int128Fallbacks";
+    public static final String DECIMAL_FALLBACKS = "wrapper.decimalFallbacks";
+    public static final String DISPLAY_LOG = "logging.displayLog";
+    // Read by every Counter and Timer call
+    static volatile boolean enabled = Boolean.getBoolean("javautils.metrics");
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    // Stands in for a library gauge until its owning class loads; nothing can have been counted before then
+    private static final LongSupplier UNLOADED = () -> 0L;
+    static {
+        for (final String name : new String[]{PARSING_FAILURES, CONVERSION_FAILURES, INT128_FALLBACKS,
+                DECIMAL_FALLBACKS}) {
+            Metrics.counter(name);
+        }
+        Metrics.timer(DISPLAY_LOG);
+        GAUGES.put(CAST_MISSES, UNLOADED);
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off for every metric.  Values recorded so far are kept.
+     * @param enabled True to record.
+     */
+    public static void setEnabled(final boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Fetches the counter with a name, creating it the first time.  Meant to be called once and held in a static field.
+     * @param name The counter's name.
+     * @return The counter.
+     */
+    public static Counter counter(final String name) {
+        Objects.requireNonNull(name, "You must provide a non-null name to create a Counter!");
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Fetches the timer with a name, creating it with the default sample interval the first time.
+     * @param name The timer's name.
+     * @return The timer.
+     */
+    public static Timer timer(final String name) {
+        return Metrics.timer(name, DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Fetches the timer with a name, creating it the first time.  Meant to be called once and held in a static field.
+     * @param name The timer's name.
+     * @param sampleInterval How many calls to count for each one timed, rounded up to a power of two.  One times every
+     * call.  Ignored if the timer already exists.
+     * @return The timer.
+     */
+    public static Timer timer(final String name, final int sampleInterval) {
+        Objects.requireNonNull(name, "You must provide a non-null name to create a Timer!");
+        final int interval = sampleInterval <= 1 ? 1
+                : Integer.highestOneBit(Math.min(sampleInterval, 1 << 30) - 1) << 1;
+        return TIMERS.computeIfAbsent(name, key -> new Timer(key, interval));
+    }
+
+    /**
+     * Registers a value that is read when a snapshot is taken, such as a count a class already keeps.  Gauges cost
+     * nothing until read and are reported whether or not Metrics are enabled.
+     * @param name The gauge's name.
+     * @param value Reads the value.
+     * @return True if the gauge was registered, or false on null input or if a counter or gauge already has the name.
+     */
+    public static boolean gauge(final String name, final LongSupplier value) {
+        if (name == null || value == null || COUNTERS.containsKey(name)) {
+            return false;
+        }
+        return GAUGES.replace(name, UNLOADED, value) || GAUGES.putIfAbsent(name, value) == null;
+    }
+
+    /**
+     * Captures the current value of every metric.
+     * @return The snapshot.
+     */
+    public static MetricsSnapshot snapshot() {
+        final Map<String, Long> counts = new HashMap<>();
+        COUNTERS.forEach((name, counter) -> counts.put(name, counter.getCount()));
+        GAUGES.forEach((name, gauge) -> counts.put(name, gauge.getAsLong()));
+        final Map<String, TimerSnapshot> timers = new HashMap<>();
+        TIMERS.forEach((name, timer) -> timers.put(name, timer.snapshot()));
+        return new MetricsSnapshot(enabled, counts, timers);
+    }
+
+    /**
+     * Resets every counter and timer to zero.  Gauges report values owned elsewhere and are left alone.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        TIMERS.values().forEach(Timer::reset);
+    }
+
+    /**
+     * Registers the MetricsMXBean with the platform MBeanServer under OBJECT_NAME.
+     * @return True if the MXBean is registered, including by an earlier call, or false if registration failed.
+     */
+    public static boolean registerMBean() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new Bean(), objectName);
+            }
+            return true;
+        } catch (final JMException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The MetricsMXBean, a view over the static registry.
+     */
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(final boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public Map<String, Long> getCounts() {
+            return Metrics.snapshot().getCounts();
+        }
+
+        @Override
+        public Map<String, TimerSnapshot> getTimers() {
+            return Metrics.snapshot().getTimers();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
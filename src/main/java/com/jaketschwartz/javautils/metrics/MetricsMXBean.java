@@ -0,0 +1,29 @@
+package com.jaketschwartz.javautils.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of Metrics, registered with Metrics.registerMBean().
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Fetches the current value of every counter and gauge.
+     * @return The value of every counter and gauge, by name.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * Fetches the current values of every timer.
+     * @return The values of every timer, by name.
+     */
+    Map<String, TimerSnapshot> getTimers();
+
+    /**
+     * Resets every counter and timer to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,63 @@
+package com.jaketschwartz.javautils.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * The values of every registered metric at one point in time, sorted by name.  Counters and gauges share a namespace
+ * and are both reported as counts.
+ */
+public final class MetricsSnapshot {
+    private final boolean enabled;
+    private final Map<String, Long> counts;
+    private final Map<String, TimerSnapshot> timers;
+
+    MetricsSnapshot(final boolean enabled, final Map<String, Long> counts, final Map<String, TimerSnapshot> timers) {
+        this.enabled = enabled;
+        this.counts = Collections.unmodifiableMap(new TreeMap<>(counts));
+        this.timers = Collections.unmodifiableMap(new TreeMap<>(timers));
+    }
+
+    /**
+     * Determines if Metrics were collecting when the snapshot was taken.
+     * @return True if Metrics were enabled when the snapshot was taken.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fetches the value of a counter or gauge.
+     * @param name The metric's name.
+     * @return The value, or an empty OptionalLong if no such metric is registered.
+     */
+    public OptionalLong getCount(final String name) {
+        final Long count = counts.get(name);
+        return count == null ? OptionalLong.empty() : OptionalLong.of(count);
+    }
+
+    /**
+     * Fetches the values of a timer.
+     * @param name The timer's name.
+     * @return The values, or an empty Optional if no such timer is registered.
+     */
+    public Optional<TimerSnapshot> getTimer(final String name) {
+        return Optional.ofNullable(timers.get(name));
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public Map<String, TimerSnapshot> getTimers() {
+        return timers;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{enabled=" + enabled + ", counts=" + counts + ", timers=" + timers + "}";
+    }
+}
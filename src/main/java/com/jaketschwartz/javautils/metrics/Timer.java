@@ -0,0 +1,96 @@
+package com.jaketschwartz.javautils.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named, sampled timer.  Every call is counted, but only one call in every sampleInterval, chosen at random, is
+ * actually timed, so the two System.nanoTime() calls are paid for rarely enough to leave the timed path's cost
+ * unchanged.  Nothing is counted or timed while Metrics are disabled.
+ * <p>
+ * Usage is a start/stop pair around the timed work:
+ * <pre>
+ *     final long start = TIMER.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         TIMER.stop(start);
+ *     }
+ * </pre>
+ */
+public final class Timer {
+    // Returned by start() for calls that are not timed; System.nanoTime() will not produce it in practice
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private final String name;
+    private final int sampleInterval;
+    // sampleInterval is a power of two, so a random int is sampled when its low bits are all zero
+    private final int sampleMask;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    Timer(final String name, final int sampleInterval) {
+        this.name = name;
+        this.sampleInterval = sampleInterval;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /**
+     * Starts a call, deciding whether to time it.
+     * @return The start time to pass to stop(), or a marker saying the call is not timed.
+     */
+    public long start() {
+        if (!Metrics.enabled) {
+            return NOT_SAMPLED;
+        }
+        calls.increment();
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes a call, recording its duration if it was timed.
+     * @param start The value returned by start().
+     */
+    public void stop(final long start) {
+        if (start == NOT_SAMPLED) {
+            return;
+        }
+        final long elapsed = System.nanoTime() - start;
+        samples.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulate(elapsed);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Captures the timer's current values.
+     * @return The values, which are not an atomic snapshot while other threads are timing calls.
+     */
+    public TimerSnapshot snapshot() {
+        return new TimerSnapshot(calls.sum(), samples.sum(), totalNanos.sum(), maxNanos.get());
+    }
+
+    void reset() {
+        calls.reset();
+        samples.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Timer{" + name + "=" + this.snapshot() + "}";
+    }
+}
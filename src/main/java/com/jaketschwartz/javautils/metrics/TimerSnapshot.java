@@ -0,0 +1,65 @@
+package com.jaketschwartz.javautils.metrics;
+
+/**
+ * The values of a Timer at one point in time.  Durations are measured from the sampled calls only, so the mean is an
+ * estimate of every call's duration and the maximum is a lower bound on the true maximum.
+ */
+public final class TimerSnapshot {
+    private final long calls;
+    private final long samples;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    TimerSnapshot(final long calls, final long samples, final long totalNanos, final long maxNanos) {
+        this.calls = calls;
+        this.samples = samples;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Fetches the number of calls, timed or not.
+     * @return Every call made while Metrics were enabled.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Fetches the number of calls that were sampled for timing.
+     * @return The calls that were timed.
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Fetches the time spent in the sampled calls, in nanoseconds.
+     * @return The total duration of the timed calls.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Fetches the duration of the slowest sampled call, in nanoseconds.
+     * @return The longest timed call.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Fetches the mean duration of the sampled calls, in nanoseconds.
+     * @return The mean duration of the timed calls, or zero if none were timed.
+     */
+    public double getMeanNanos() {
+        return samples == 0 ? 0.0 : (double)totalNanos / samples;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerSnapshot{calls=" + calls + ", samples=" + samples + ", meanNanos=" + this.getMeanNanos()
+                + ", maxNanos=" + maxNanos + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.jaketschwartz.javautils.parsing;
+
+/**
+ * Defines how a character sequence is converted to a specific Type.  Implementations are registered with the
+ * ConverterRegistry and are free to throw any RuntimeException on bad input; SafeParser catches those and hands back an
+ * empty Optional instead.
+ * @param <T> The Type produced by the conversion.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+    /**
+     * Converts the input to the target Type.
+     * @param value The non-null characters to convert.
+     * @return The converted value.  A null return is treated the same as a failed conversion.
+     */
+    T convert(CharSequence value);
+}
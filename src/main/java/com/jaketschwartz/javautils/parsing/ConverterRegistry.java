@@ -0,0 +1,194 @@
+package com.jaketschwartz.javautils.parsing;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of Converters keyed by their target Class.  Resolution for a Class is computed once and cached in a
+ * ClassValue, so repeated lookups for the same target are a single hash-free read, and each built-in Converter is its
+ * own small lambda that the JIT can inline at call sites that always parse to the same Type.
+ */
+public final class ConverterRegistry {
+    private static final Logger log = LoggerProvider.lazyLogger(ConverterRegistry.class);
+    // Converters supplied by external applications.  These take precedence over the built-in Converters.
+    private static final Map<Class<?>, Converter<?>> REGISTERED_CONVERTERS = new ConcurrentHashMap<>();
+    // Converters that ship with the library.  Never modified after class initialization.
+    private static final Map<Class<?>, Converter<?>> BUILT_IN_CONVERTERS = builtInConverters();
+    // A missing Converter is cached as an Optional.empty() so that misses are as cheap as hits
+    private static final ClassValue<Optional<Converter<?>>> RESOLVED_CONVERTERS =
+            new ClassValue<Optional<Converter<?>>>() {
+                @Override
+                protected Optional<Converter<?>> computeValue(final Class<?> type) {
+                    return ConverterRegistry.resolve(type);
+                }
+            };
+
+    private ConverterRegistry() {
+    }
+
+    /**
+     * Registers a Converter for a target Class, replacing any Converter (built-in or otherwise) that was previously
+     * resolved for that Class.
+     * @param type The Class that the Converter produces.
+     * @param converter The Converter to use when parsing to the Class.
+     * @param <T> Any Type.
+     * @return True if the Converter was registered, or false on null input.
+     */
+    public static<T> boolean register(final Class<T> type, final Converter<? extends T> converter) {
+        if (type == null || converter == null) {
+            log.warn("Null class [{}] or converter [{}] provided to register()", type, converter);
+            return false;
+        }
+        REGISTERED_CONVERTERS.put(type, converter);
+        // Drop the cached resolution so that the next lookup picks up the new Converter
+        RESOLVED_CONVERTERS.remove(type);
+        return true;
+    }
+
+    /**
+     * Removes an externally-registered Converter for a target Class, restoring the built-in Converter if one exists.
+     * @param type The Class to remove the Converter for.
+     * @return True if an externally-registered Converter was removed.
+     */
+    public static boolean unregister(final Class<?> type) {
+        if (type == null) {
+            log.warn("Null class provided to unregister()");
+            return false;
+        }
+        final boolean removed = REGISTERED_CONVERTERS.remove(type) != null;
+        RESOLVED_CONVERTERS.remove(type);
+        return removed;
+    }
+
+    /**
+     * Fetches the Converter currently resolved for a target Class.
+     * @param type The Class to fetch a Converter for.
+     * @param <T> Any Type.
+     * @return The Converter, or an empty Optional if no Converter exists for the Class.
+     */
+    @SuppressWarnings("unchecked")
+    public static<T> Optional<Converter<T>> converterFor(final Class<T> type) {
+        if (type == null) {
+            return Optional.empty();
+        }
+        // Every resolved Converter was registered against exactly this Class, so the cast is safe
+        return (Optional<Converter<T>>)(Optional<?>)RESOLVED_CONVERTERS.get(type);
+    }
+
+    /**
+     * Determines which Converter should be used for a Class.  Externally-registered Converters win, followed by the
+     * built-in Converters, followed by a generated Converter for Enum types.
+     * @param type The Class to resolve a Converter for.
+     * @return The resolved Converter, or an empty Optional if none applies.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Optional<Converter<?>> resolve(final Class<?> type) {
+        final Converter<?> registered = REGISTERED_CONVERTERS.get(type);
+        if (registered != null) {
+            return Optional.of(registered);
+        }
+        final Converter<?> builtIn = BUILT_IN_CONVERTERS.get(type);
+        if (builtIn != null) {
+            return Optional.of(builtIn);
+        }
+        if (type.isEnum()) {
+            final Class<? extends Enum> enumClass = (Class<? extends Enum>)type;
+            return Optional.of(value -> Enum.valueOf(enumClass, value.toString()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Builds the Converters that ship with the library.  Integral types shave off any decimals to mirror the existing
+     * SafeParser *FromString methods.
+     * @return An unmodifiable Map of target Class to Converter.
+     */
+    private static Map<Class<?>, Converter<?>> builtInConverters() {
+        final Map<Class<?>, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, CharSequence::toString);
+        converters.put(Byte.class, value -> Byte.valueOf(integralPart(value)));
+        converters.put(Short.class, value -> Short.valueOf(integralPart(value)));
+        converters.put(Integer.class, value -> Integer.valueOf(integralPart(value)));
+        converters.put(Long.class, value -> Long.valueOf(integralPart(value)));
+        converters.put(Float.class, value -> Float.valueOf(value.toString()));
+        converters.put(Double.class, value -> Double.valueOf(value.toString()));
+        converters.put(BigDecimal.class, value -> new BigDecimal(value.toString()));
+        converters.put(BigInteger.class, value -> new BigInteger(integralPart(value)));
+        converters.put(Boolean.class, ConverterRegistry::strictBoolean);
+        converters.put(UUID.class, value -> UUID.fromString(value.toString()));
+        converters.put(Instant.class, ConverterRegistry::instant);
+        converters.put(LocalDate.class, ConverterRegistry::localDate);
+        converters.put(Duration.class, Duration::parse);
+        return Collections.unmodifiableMap(converters);
+    }
+
+    /**
+     * Shaves off everything from the first decimal point onwards.  Matches the behavior of splitting on "." and taking
+     * the first element, without compiling a regex.
+     * @param value The non-null characters to trim.
+     * @return The characters before the first decimal point.
+     */
+    private static String integralPart(final CharSequence value) {
+        final String string = value.toString();
+        final int decimalIndex = string.indexOf('.');
+        return decimalIndex < 0 ? string : string.substring(0, decimalIndex);
+    }
+
+    /**
+     * Parses an Instant through the fixed-layout ISO-8601 fast path, deferring to Instant.parse() for anything the
+     * fast path does not recognize so that its errors are reported as usual.
+     * @param value The non-null characters to convert.
+     * @return The parsed Instant.
+     */
+    private static Instant instant(final CharSequence value) {
+        final int length = value.length();
+        final long localEpochSecond = IsoDateTimeParser.localEpochSecond(value, null, 0, length, true);
+        final int offsetSeconds = localEpochSecond == IsoDateTimeParser.INVALID
+                ? IsoDateTimeParser.INVALID_INT
+                : IsoDateTimeParser.offsetSeconds(value, null, 0, length);
+        if (offsetSeconds == IsoDateTimeParser.INVALID_INT) {
+            return Instant.parse(value);
+        }
+        return Instant.ofEpochSecond(localEpochSecond - offsetSeconds,
+                IsoDateTimeParser.nanoOfSecond(value, null, 0, length));
+    }
+
+    /**
+     * Parses a LocalDate through the fixed-layout ISO-8601 fast path, deferring to LocalDate.parse() for anything the
+     * fast path does not recognize, such as expanded years.
+     * @param value The non-null characters to convert.
+     * @return The parsed LocalDate.
+     */
+    private static LocalDate localDate(final CharSequence value) {
+        final long epochDay = IsoDateTimeParser.epochDay(value, null, 0, value.length());
+        return epochDay == IsoDateTimeParser.INVALID ? LocalDate.parse(value) : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Parses a Boolean without Boolean.valueOf's habit of treating every unknown value as false.
+     * @param value The non-null characters to convert.
+     * @return TRUE or FALSE, ignoring case.
+     */
+    private static Boolean strictBoolean(final CharSequence value) {
+        final String string = value.toString();
+        if ("true".equalsIgnoreCase(string)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(string)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean value: " + string);
+    }
+}
@@ -0,0 +1,234 @@
+package com.jaketschwartz.javautils.parsing;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.OptionalLong;
+
+/**
+ * Parses fixed-width, zero-padded, unsigned ASCII digit fields (8-digit dates, 10-digit ids, padded amounts) eight
+ * bytes at a time.  Each group of eight digits is loaded as a single little-endian long, validated, and converted with
+ * SIMD-within-a-register arithmetic rather than a per-character loop.  Results match SafeParser.longFromString() for
+ * every field made up solely of digits.
+ */
+public final class FixedWidthParser {
+    private static final Logger log = LoggerProvider.lazyLogger(FixedWidthParser.class);
+    // Written to column output for fields that are not all digits.  Never a legitimate unsigned result.
+    public static final long INVALID = -1L;
+    // The widest field that can be parsed; 19 digits is the most that can fit in a long
+    public static final int MAX_WIDTH = 19;
+    private static final int CHUNK_WIDTH = 8;
+    private static final long CHUNK_MULTIPLIER = 100_000_000L;
+    private static final long ASCII_ZEROS = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long ALL_THREES = 0x3333333333333333L;
+    private static final long SIXES = 0x0606060606060606L;
+
+    private FixedWidthParser() {
+    }
+
+    /**
+     * Converts a single fixed-width digit field held in a byte array.
+     * @param bytes The array holding the field.
+     * @param offset The index of the first digit.
+     * @param width The number of digits in the field, from 1 to MAX_WIDTH.
+     * @return The parsed value, or an empty OptionalLong on bad input.
+     */
+    public static OptionalLong digitsFromBytes(final byte[] bytes, final int offset, final int width) {
+        if (bytes == null
+                || !FixedWidthParser.validLayout(bytes.length, offset, width, width, 1, "digitsFromBytes()")) {
+            return OptionalLong.empty();
+        }
+        return FixedWidthParser.toOptional(FixedWidthParser.littleEndian(ByteBuffer.wrap(bytes)), offset, width,
+                "digitsFromBytes()");
+    }
+
+    /**
+     * Converts a single fixed-width digit field held in a ByteBuffer.  Uses absolute indexing, so the position, limit
+     * and byte order of the buffer are left untouched.
+     * @param buffer The buffer holding the field.
+     * @param index The absolute index of the first digit.
+     * @param width The number of digits in the field, from 1 to MAX_WIDTH.
+     * @return The parsed value, or an empty OptionalLong on bad input.
+     */
+    public static OptionalLong digitsFromBuffer(final ByteBuffer buffer, final int index, final int width) {
+        if (buffer == null || !FixedWidthParser.validLayout(buffer.limit(), index, width, width, 1,
+                "digitsFromBuffer()")) {
+            return OptionalLong.empty();
+        }
+        return FixedWidthParser.toOptional(FixedWidthParser.littleEndian(buffer), index, width, "digitsFromBuffer()");
+    }
+
+    /**
+     * Converts a column of fixed-width digit fields, one per record, from a byte array of fixed-length records.
+     * @param records The array holding the records.
+     * @param offset The index of the first digit of the field in the first record.
+     * @param stride The distance in bytes from one record's field to the next record's field.
+     * @param width The number of digits in each field, from 1 to MAX_WIDTH.
+     * @param output The array to write values to; fields that are not all digits are written as INVALID.
+     * @param count The number of records to convert.
+     * @return The number of fields that were not all digits, or -1 if the layout falls outside the input or output.
+     */
+    public static int digitColumn(final byte[] records, final int offset, final int stride, final int width,
+                                  final long[] output, final int count) {
+        if (records == null || output == null || output.length < count
+                || !FixedWidthParser.validLayout(records.length, offset, width, stride, count, "digitColumn()")) {
+            return -1;
+        }
+        return FixedWidthParser.parseColumn(FixedWidthParser.littleEndian(ByteBuffer.wrap(records)), offset, stride,
+                width, output, count);
+    }
+
+    /**
+     * Converts a column of fixed-width digit fields, one per record, from a ByteBuffer of fixed-length records.  Uses
+     * absolute indexing, so the position, limit and byte order of the buffer are left untouched.
+     * @param records The buffer holding the records.
+     * @param index The absolute index of the first digit of the field in the first record.
+     * @param stride The distance in bytes from one record's field to the next record's field.
+     * @param width The number of digits in each field, from 1 to MAX_WIDTH.
+     * @param output The array to write values to; fields that are not all digits are written as INVALID.
+     * @param count The number of records to convert.
+     * @return The number of fields that were not all digits, or -1 if the layout falls outside the input or output.
+     */
+    public static int digitColumn(final ByteBuffer records, final int index, final int stride, final int width,
+                                  final long[] output, final int count) {
+        if (records == null || output == null || output.length < count
+                || !FixedWidthParser.validLayout(records.limit(), index, width, stride, count, "digitColumn()")) {
+            return -1;
+        }
+        return FixedWidthParser.parseColumn(FixedWidthParser.littleEndian(records), index, stride, width, output,
+                count);
+    }
+
+    /**
+     * Converts every field in an already-validated column layout.
+     * @param buffer A little-endian view over the input.
+     * @param index The absolute index of the first digit of the field in the first record.
+     * @param stride The distance in bytes from one record's field to the next record's field.
+     * @param width The number of digits in each field.
+     * @param output The array to write values to.
+     * @param count The number of records to convert.
+     * @return The number of fields that were not all digits.
+     */
+    private static int parseColumn(final ByteBuffer buffer, final int index, final int stride, final int width,
+                                   final long[] output, final int count) {
+        int invalid = 0;
+        int fieldIndex = index;
+        for (int record = 0; record < count; record++, fieldIndex += stride) {
+            final long value = FixedWidthParser.parseField(buffer, fieldIndex, width);
+            output[record] = value;
+            if (value == INVALID) {
+                invalid++;
+            }
+        }
+        if (invalid > 0) {
+            log.warn("{} of {} fields in the column were not {}-digit numbers", invalid, count, width);
+        }
+        return invalid;
+    }
+
+    /**
+     * Converts one field.  The leading width % 8 digits are handled as a zero-padded partial chunk, and every
+     * remaining group of eight digits is handled as a single long load.
+     * @param buffer A little-endian view over the input.
+     * @param index The absolute index of the first digit.
+     * @param width The number of digits.
+     * @return The parsed value, or INVALID.
+     */
+    static long parseField(final ByteBuffer buffer, final int index, final int width) {
+        final int headWidth = width & (CHUNK_WIDTH - 1);
+        long value = 0;
+        int chunkIndex = index;
+        if (headWidth != 0) {
+            long chunk = 0;
+            for (int i = headWidth - 1; i >= 0; i--) {
+                chunk = (chunk << 8) | (buffer.get(index + i) & 0xFFL);
+            }
+            // Slide the digits up so the first digit lines up as the most significant, and fill in zeros below
+            chunk = (chunk << ((CHUNK_WIDTH - headWidth) << 3)) | (ASCII_ZEROS >>> (headWidth << 3));
+            if (!FixedWidthParser.isEightDigits(chunk)) {
+                return INVALID;
+            }
+            value = FixedWidthParser.eightDigitValue(chunk);
+            chunkIndex += headWidth;
+        }
+        final int end = index + width;
+        for (; chunkIndex < end; chunkIndex += CHUNK_WIDTH) {
+            final long chunk = buffer.getLong(chunkIndex);
+            if (!FixedWidthParser.isEightDigits(chunk)) {
+                return INVALID;
+            }
+            final long chunkValue = FixedWidthParser.eightDigitValue(chunk);
+            // Only a 19-digit field can overflow, and only on its last chunk
+            if (width == MAX_WIDTH && value > (Long.MAX_VALUE - chunkValue) / CHUNK_MULTIPLIER) {
+                return INVALID;
+            }
+            value = value * CHUNK_MULTIPLIER + chunkValue;
+        }
+        return value;
+    }
+
+    /**
+     * Checks that all eight bytes of the chunk are between '0' and '9'.  A digit has 0x3 as its high nibble, and
+     * adding six to it does not carry into the high nibble.
+     */
+    static boolean isEightDigits(final long chunk) {
+        return ((chunk & HIGH_NIBBLES) | (((chunk + SIXES) & HIGH_NIBBLES) >>> 4)) == ALL_THREES;
+    }
+
+    /**
+     * Converts eight validated ASCII digits, first digit in the lowest byte, to their value.  Adjacent digits are
+     * combined into pairs, pairs into fours, and fours into the final eight with three multiplies.
+     */
+    static long eightDigitValue(final long chunk) {
+        long value = chunk - ASCII_ZEROS;
+        value = value * 10 + (value >>> 8);
+        return (((value & 0x000000FF000000FFL) * (100 + (1_000_000L << 32)))
+                + (((value >>> 16) & 0x000000FF000000FFL) * (1 + (10_000L << 32)))) >>> 32;
+    }
+
+    private static OptionalLong toOptional(final ByteBuffer buffer, final int index, final int width,
+                                           final String methodName) {
+        final long value = FixedWidthParser.parseField(buffer, index, width);
+        if (value == INVALID) {
+            log.error("Failed to convert a {}-digit field at index {} to a/an [Long] using {}!", width, index,
+                    methodName);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(value);
+    }
+
+    /**
+     * Produces a little-endian view of the buffer so that the first byte of each long load is the lowest byte.  The
+     * caller's buffer keeps its own byte order.
+     */
+    private static ByteBuffer littleEndian(final ByteBuffer buffer) {
+        return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Ensures that every field of a column falls within the input and that the width is supported.
+     * @param limit The number of readable bytes in the input.
+     * @param index The absolute index of the first digit of the field in the first record.
+     * @param width The number of digits in each field.
+     * @param stride The distance in bytes from one record's field to the next record's field.
+     * @param count The number of records to convert.
+     * @param methodName The method being used for this conversion. Only used for logging.
+     * @return True if the layout is readable.
+     */
+    private static boolean validLayout(final int limit, final int index, final int width, final int stride,
+                                       final int count, final String methodName) {
+        if (width < 1 || width > MAX_WIDTH || index < 0 || count < 0 || (count > 1 && stride < 1)) {
+            log.warn("Invalid index [{}], width [{}], stride [{}] or count [{}] provided to {}!", index, width,
+                    stride, count, methodName);
+            return false;
+        }
+        if (count > 0 && index + (long)(count - 1) * stride + width > limit) {
+            log.warn("The fields requested from {} run past the end of the input!", methodName);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,242 @@
+package com.jaketschwartz.javautils.parsing;
+
+/**
+ * Fixed-layout parsing for the ISO-8601 forms that make up the bulk of timestamp input:
+ * <ul>
+ *     <li>yyyy-MM-dd</li>
+ *     <li>yyyy-MM-ddTHH:mm[:ss[.fffffffff]]</li>
+ *     <li>yyyy-MM-ddTHH:mm[:ss[.fffffffff]](Z|+HH:mm[:ss]|-HH:mm[:ss])</li>
+ * </ul>
+ * Every method works on either a CharSequence or an ASCII byte range, never allocates, and never throws on bad input.
+ * The date-time methods each locate the end of the time portion again, which re-reads the separators and any fraction
+ * digits; that is a few positions per call, and keeps the methods independent.  Failures are reported through the
+ * INVALID sentinels so that the public wrappers in SafeParser can decide how to surface them.  Both sources share one
+ * code path: when chars is non-null it is read, otherwise the byte range is read.
+ */
+final class IsoDateTimeParser {
+    // Returned by the long-valued methods on bad input.  Never a legitimate result for four-digit years.
+    static final long INVALID = Long.MIN_VALUE;
+    // Returned by the int-valued methods on bad input.
+    static final int INVALID_INT = Integer.MIN_VALUE;
+    static final long SECONDS_PER_DAY = 86_400L;
+    private static final int DATE_LENGTH = 10;
+    private static final int MINUTE_END = 16;
+    private static final int SECOND_END = 19;
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int[] NANO_SCALE = {
+            0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private IsoDateTimeParser() {
+    }
+
+    /**
+     * Parses a complete yyyy-MM-dd date.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param length The number of characters to read.
+     * @return The number of days since 1970-01-01, or INVALID.
+     */
+    static long epochDay(final CharSequence chars, final byte[] bytes, final int offset, final int length) {
+        if (length != DATE_LENGTH) {
+            return INVALID;
+        }
+        return epochDayPrefix(chars, bytes, offset);
+    }
+
+    /**
+     * Parses the date and time portions of a date-time as if it were in UTC, ignoring any fraction.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param length The number of characters to read.
+     * @param requireOffset If true, the input must end in an offset; if false, it must not have one.
+     * @return The number of seconds since 1970-01-01T00:00:00 in local time, or INVALID.
+     */
+    static long localEpochSecond(final CharSequence chars, final byte[] bytes, final int offset, final int length,
+                                 final boolean requireOffset) {
+        final int timeEnd = timeEnd(chars, bytes, offset, length);
+        if (timeEnd < 0 || (timeEnd < length) != requireOffset) {
+            return INVALID;
+        }
+        final long epochDay = epochDayPrefix(chars, bytes, offset);
+        if (epochDay == INVALID || charAt(chars, bytes, offset, DATE_LENGTH) != 'T') {
+            return INVALID;
+        }
+        final int hour = twoDigits(chars, bytes, offset, 11);
+        final int minute = twoDigits(chars, bytes, offset, 14);
+        if (hour < 0 || hour > 23 || charAt(chars, bytes, offset, 13) != ':' || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+        int second = 0;
+        if (timeEnd >= SECOND_END) {
+            second = twoDigits(chars, bytes, offset, 17);
+            if (second < 0 || second > 59) {
+                return INVALID;
+            }
+        }
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Parses the optional fraction of a date-time.  Only meaningful once localEpochSecond has accepted the input.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param length The number of characters to read.
+     * @return The nano-of-second, or zero when there is no fraction.
+     */
+    static int nanoOfSecond(final CharSequence chars, final byte[] bytes, final int offset, final int length) {
+        final int timeEnd = timeEnd(chars, bytes, offset, length);
+        int nanos = 0;
+        for (int index = SECOND_END + 1; index < timeEnd; index++) {
+            nanos = nanos * 10 + (charAt(chars, bytes, offset, index) - '0');
+        }
+        final int fractionDigits = timeEnd - SECOND_END - 1;
+        return fractionDigits > 0 ? nanos * NANO_SCALE[fractionDigits] : 0;
+    }
+
+    /**
+     * Parses the trailing offset of a date-time.  Only meaningful once localEpochSecond has accepted the input.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param length The number of characters to read.
+     * @return The offset from UTC in seconds, or INVALID_INT.
+     */
+    static int offsetSeconds(final CharSequence chars, final byte[] bytes, final int offset, final int length) {
+        final int start = timeEnd(chars, bytes, offset, length);
+        if (start < 0 || start >= length) {
+            return INVALID_INT;
+        }
+        final int sign = charAt(chars, bytes, offset, start);
+        final int remaining = length - start;
+        if (sign == 'Z') {
+            return remaining == 1 ? 0 : INVALID_INT;
+        }
+        // +HH:mm or +HH:mm:ss
+        if ((sign != '+' && sign != '-') || (remaining != 6 && remaining != 9)
+                || charAt(chars, bytes, offset, start + 3) != ':') {
+            return INVALID_INT;
+        }
+        final int hours = twoDigits(chars, bytes, offset, start + 1);
+        final int minutes = twoDigits(chars, bytes, offset, start + 4);
+        int seconds = 0;
+        if (remaining == 9) {
+            if (charAt(chars, bytes, offset, start + 6) != ':') {
+                return INVALID_INT;
+            }
+            seconds = twoDigits(chars, bytes, offset, start + 7);
+        }
+        if (hours < 0 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return INVALID_INT;
+        }
+        final int total = hours * 3600 + minutes * 60 + seconds;
+        if (total > MAX_OFFSET_SECONDS) {
+            return INVALID_INT;
+        }
+        return sign == '-' ? -total : total;
+    }
+
+    /**
+     * Locates the end of the time portion (the start of the offset, or the end of input) while validating the
+     * positions of the time separators and the fraction digits.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param length The number of characters to read.
+     * @return The index just past the time portion, or -1 if the layout is wrong.
+     */
+    private static int timeEnd(final CharSequence chars, final byte[] bytes, final int offset, final int length) {
+        if (length < MINUTE_END || charAt(chars, bytes, offset, 13) != ':') {
+            return -1;
+        }
+        if (length == MINUTE_END || charAt(chars, bytes, offset, MINUTE_END) != ':') {
+            return MINUTE_END;
+        }
+        if (length < SECOND_END) {
+            return -1;
+        }
+        if (length == SECOND_END || charAt(chars, bytes, offset, SECOND_END) != '.') {
+            return SECOND_END;
+        }
+        int index = SECOND_END + 1;
+        while (index < length && isDigit(charAt(chars, bytes, offset, index))) {
+            index++;
+        }
+        final int fractionDigits = index - SECOND_END - 1;
+        return fractionDigits < 1 || fractionDigits > MAX_FRACTION_DIGITS ? -1 : index;
+    }
+
+    /**
+     * Parses the yyyy-MM-dd prefix of the input, which the caller has already length-checked.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @return The number of days since 1970-01-01, or INVALID.
+     */
+    private static long epochDayPrefix(final CharSequence chars, final byte[] bytes, final int offset) {
+        final int yearHigh = twoDigits(chars, bytes, offset, 0);
+        final int yearLow = twoDigits(chars, bytes, offset, 2);
+        final int month = twoDigits(chars, bytes, offset, 5);
+        final int day = twoDigits(chars, bytes, offset, 8);
+        if (yearHigh < 0 || yearLow < 0 || month < 1 || month > 12 || day < 1
+                || charAt(chars, bytes, offset, 4) != '-' || charAt(chars, bytes, offset, 7) != '-') {
+            return INVALID;
+        }
+        final int year = yearHigh * 100 + yearLow;
+        final boolean leapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (day > monthLength(month, leapYear)) {
+            return INVALID;
+        }
+        // Same day-counting as LocalDate.toEpochDay(), restricted to non-negative years
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            total -= leapYear ? 1 : 2;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int monthLength(final int month, final boolean leapYear) {
+        switch (month) {
+            case 2:
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Reads two ASCII digits starting at the index.
+     * @param chars The characters to read, or null to read the bytes.
+     * @param bytes The ASCII bytes to read when chars is null.
+     * @param offset The position of the first character, which is 0 for a CharSequence.
+     * @param index The position of the first digit, relative to offset.
+     * @return The two-digit value, or a negative number if either position is not a digit.
+     */
+    private static int twoDigits(final CharSequence chars, final byte[] bytes, final int offset, final int index) {
+        final int tens = charAt(chars, bytes, offset, index) - '0';
+        final int ones = charAt(chars, bytes, offset, index + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static boolean isDigit(final int character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static int charAt(final CharSequence chars, final byte[] bytes, final int offset, final int index) {
+        return chars != null ? chars.charAt(offset + index) : bytes[offset + index] & 0xFF;
+    }
+}
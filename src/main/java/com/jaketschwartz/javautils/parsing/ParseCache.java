@@ -0,0 +1,214 @@
+package com.jaketschwartz.javautils.parsing;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An opt-in, bounded memo of parse results for highly repetitive input.  A hit hands back the exact Optional produced
+ * by the first parse of the same String, so repeated amounts, statuses and ids cost a single map lookup with no
+ * allocation.  Failed parses are remembered too, which means a malformed value is only logged the first time it is
+ * seen.  Only cache Types that are immutable, since every hit shares the same instance.
+ * <p>
+ * Eviction uses the CLOCK policy: each entry carries a referenced bit that hits set without locking, and when the
+ * cache is full an insert sweeps a hand over the entries, clearing bits until it finds one that has not been used
+ * since the last sweep.  Hits are lock-free; every insert is serialized on the cache, so a miss costs a lock on top
+ * of the parse itself.
+ * @param <T> The Type produced by the parse.
+ */
+public final class ParseCache<T> {
+    private static final Logger log = LoggerProvider.lazyLogger(ParseCache.class);
+    private final Function<String, Optional<T>> parser;
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry<T>> entries;
+    // The CLOCK ring.  Guarded by this.
+    private final Entry<T>[] ring;
+    private int size;
+    private int hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache in front of SafeParser.parse() for a Type with a registered Converter.
+     * @param type The Class to parse to.
+     * @param capacity The maximum number of distinct inputs to remember.
+     * @param <T> Any immutable Type with a registered Converter.
+     * @return The new, empty cache.
+     */
+    public static<T> ParseCache<T> forType(final Class<T> type, final int capacity) {
+        Objects.requireNonNull(type, "You must provide a non-null class to create a ParseCache!");
+        return new ParseCache<>(value -> SafeParser.parse(value, type), capacity);
+    }
+
+    /**
+     * Creates a cache in front of any parsing Function, such as SafeParser::bigDecimalFromString.
+     * @param parser The Function to memoize.  Must never return null.
+     * @param capacity The maximum number of distinct inputs to remember.
+     * @param <T> Any immutable Type.
+     * @return The new, empty cache.
+     */
+    public static<T> ParseCache<T> of(final Function<String, Optional<T>> parser, final int capacity) {
+        return new ParseCache<>(parser, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ParseCache(final Function<String, Optional<T>> parser, final int capacity) {
+        Objects.requireNonNull(parser, "You must provide a non-null parser to create a ParseCache!");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A ParseCache must have a capacity of at least one, not " + capacity);
+        }
+        this.parser = parser;
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = (Entry<T>[])new Entry<?>[capacity];
+    }
+
+    /**
+     * Parses the String, or hands back the result of a previous parse of an equal String.
+     * @param value The String to parse.
+     * @return The shared parse result, or an empty Optional on null or bad input.
+     */
+    public Optional<T> parse(final String value) {
+        if (value == null) {
+            log.warn("Null string provided to ParseCache.parse()!");
+            return Optional.empty();
+        }
+        final Entry<T> entry = entries.get(value);
+        if (entry != null) {
+            // Avoid dirtying the cache line when the bit is already set
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.result;
+        }
+        misses.increment();
+        final Optional<T> result = parser.apply(value);
+        if (result == null) {
+            log.error("The parser behind this ParseCache returned null for [{}]!", value);
+            return Optional.empty();
+        }
+        this.insert(new Entry<>(value, result));
+        return result;
+    }
+
+    /**
+     * Forgets every remembered parse result.  Statistics are left untouched.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        for (int i = 0; i < size; i++) {
+            ring[i] = null;
+        }
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Takes a snapshot of how well the cache is paying off.
+     * @return The current statistics.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), capacity);
+    }
+
+    /**
+     * Adds a freshly-parsed entry, evicting the first entry the CLOCK hand finds unreferenced if the cache is full.
+     * @param entry The entry to add.
+     */
+    private synchronized void insert(final Entry<T> entry) {
+        // Another thread may have parsed the same value while this one was parsing
+        if (entries.containsKey(entry.key)) {
+            return;
+        }
+        if (size < capacity) {
+            ring[size++] = entry;
+        } else {
+            while (ring[hand].referenced) {
+                ring[hand].referenced = false;
+                hand = (hand + 1) % capacity;
+            }
+            entries.remove(ring[hand].key);
+            ring[hand] = entry;
+            hand = (hand + 1) % capacity;
+            evictions.increment();
+        }
+        entries.put(entry.key, entry);
+    }
+
+    /**
+     * A remembered parse result and its CLOCK referenced bit.
+     */
+    private static final class Entry<T> {
+        private final String key;
+        private final Optional<T> result;
+        // Racy by design; a lost update only costs an entry one extra trip around the clock
+        private volatile boolean referenced;
+
+        private Entry(final String key, final Optional<T> result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+
+    /**
+     * A point-in-time view of a ParseCache's hit and miss counts.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+        private final int capacity;
+
+        private Stats(final long hitCount, final long missCount, final long evictionCount, final int size,
+                      final int capacity) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Calculates the fraction of lookups that were served from the cache.
+         * @return A value between 0 and 1, or 0 if there have been no lookups.
+         */
+        public double getHitRate() {
+            final long requests = hitCount + missCount;
+            return requests == 0 ? 0d : (double)hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ParseCache.Stats[hits=%d, misses=%d, evictions=%d, size=%d/%d, hitRate=%.4f]",
+                    hitCount, missCount, evictionCount, size, capacity, this.getHitRate());
+        }
+    }
+}
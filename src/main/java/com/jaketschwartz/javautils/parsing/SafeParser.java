@@ -2,16 +2,31 @@ package com.jaketschwartz.javautils.parsing;
 
 import com.jaketschwartz.javautils.logging.Logger;
 import com.jaketschwartz.javautils.logging.LoggerProvider;
+import com.jaketschwartz.javautils.metrics.Counter;
+import com.jaketschwartz.javautils.metrics.Metrics;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
 
+import static com.jaketschwartz.javautils.parsing.IsoDateTimeParser.INVALID;
+import static com.jaketschwartz.javautils.parsing.IsoDateTimeParser.INVALID_INT;
+
 /**
  * This class safely parses values from one type to another, giving empty Optional output when bad input is encountered.
  */
 public class SafeParser {
-    private static final Logger log = LoggerProvider.logger(SafeParser.class);
+    private static final Logger log = LoggerProvider.lazyLogger(SafeParser.class);
+    // Every conversion of bad input; null input is not counted
+    private static final Counter FAILURES = Metrics.counter(Metrics.PARSING_FAILURES);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
 
     /**
      * Converts a String to its Enum value counterpart.
@@ -28,6 +43,7 @@ public class SafeParser {
         try {
             return Optional.of(Enum.valueOf(enumClass, value));
         } catch (IllegalArgumentException e) {
+            FAILURES.increment();
             log.error("Failed to convert [{}] to a/an [{}]", value, enumClass.getSimpleName(), e);
             return Optional.empty();
         }
@@ -96,6 +112,398 @@ public class SafeParser {
         return SafeParser.fromString(BigDecimal.class, BigDecimal::new, "bigDecimalFromString()", string);
     }
 
+    /**
+     * Converts an ISO-8601 date (yyyy-MM-dd) to a LocalDate without going through a DateTimeFormatter.
+     * @param chars The characters to attempt to convert.
+     * @return The LocalDate, or an empty Optional on bad input or errors.
+     */
+    public static Optional<LocalDate> localDateFromIso(final CharSequence chars) {
+        return SafeParser.localDateFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 date (yyyy-MM-dd) held as ASCII bytes to a LocalDate.
+     * @param bytes The array holding the date.
+     * @param offset The index of the first byte of the date.
+     * @param length The number of bytes in the date.
+     * @return The LocalDate, or an empty Optional on bad input or errors.
+     */
+    public static Optional<LocalDate> localDateFromIso(final byte[] bytes, final int offset, final int length) {
+        return SafeParser.localDateFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 date (yyyy-MM-dd) to the number of days since 1970-01-01.
+     * @param chars The characters to attempt to convert.
+     * @return The epoch day, or an empty OptionalLong on bad input or errors.
+     */
+    public static OptionalLong epochDayFromIso(final CharSequence chars) {
+        return SafeParser.epochDayFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 date (yyyy-MM-dd) held as ASCII bytes to the number of days since 1970-01-01.
+     * @param bytes The array holding the date.
+     * @param offset The index of the first byte of the date.
+     * @param length The number of bytes in the date.
+     * @return The epoch day, or an empty OptionalLong on bad input or errors.
+     */
+    public static OptionalLong epochDayFromIso(final byte[] bytes, final int offset, final int length) {
+        return SafeParser.epochDayFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 local date-time (yyyy-MM-ddTHH:mm[:ss[.fffffffff]]) to a LocalDateTime.
+     * @param chars The characters to attempt to convert.
+     * @return The LocalDateTime, or an empty Optional on bad input or errors.
+     */
+    public static Optional<LocalDateTime> localDateTimeFromIso(final CharSequence chars) {
+        return SafeParser.localDateTimeFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 local date-time (yyyy-MM-ddTHH:mm[:ss[.fffffffff]]) held as ASCII bytes to a LocalDateTime.
+     * @param bytes The array holding the date-time.
+     * @param offset The index of the first byte of the date-time.
+     * @param length The number of bytes in the date-time.
+     * @return The LocalDateTime, or an empty Optional on bad input or errors.
+     */
+    public static Optional<LocalDateTime> localDateTimeFromIso(final byte[] bytes, final int offset,
+                                                               final int length) {
+        return SafeParser.localDateTimeFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time (a local date-time followed by Z or +/-HH:mm[:ss]) to an OffsetDateTime.
+     * @param chars The characters to attempt to convert.
+     * @return The OffsetDateTime, or an empty Optional on bad input or errors.
+     */
+    public static Optional<OffsetDateTime> offsetDateTimeFromIso(final CharSequence chars) {
+        return SafeParser.offsetDateTimeFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time held as ASCII bytes to an OffsetDateTime.
+     * @param bytes The array holding the date-time.
+     * @param offset The index of the first byte of the date-time.
+     * @param length The number of bytes in the date-time.
+     * @return The OffsetDateTime, or an empty Optional on bad input or errors.
+     */
+    public static Optional<OffsetDateTime> offsetDateTimeFromIso(final byte[] bytes, final int offset,
+                                                                 final int length) {
+        return SafeParser.offsetDateTimeFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time (a local date-time followed by Z or +/-HH:mm[:ss]) to an Instant.
+     * @param chars The characters to attempt to convert.
+     * @return The Instant, or an empty Optional on bad input or errors.
+     */
+    public static Optional<Instant> instantFromIso(final CharSequence chars) {
+        return SafeParser.instantFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time held as ASCII bytes to an Instant.
+     * @param bytes The array holding the date-time.
+     * @param offset The index of the first byte of the date-time.
+     * @param length The number of bytes in the date-time.
+     * @return The Instant, or an empty Optional on bad input or errors.
+     */
+    public static Optional<Instant> instantFromIso(final byte[] bytes, final int offset, final int length) {
+        return SafeParser.instantFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time to milliseconds since the epoch without creating any java.time objects.
+     * Fractions finer than a millisecond are truncated, matching Instant.toEpochMilli().
+     * @param chars The characters to attempt to convert.
+     * @return The epoch millis, or an empty OptionalLong on bad input or errors.
+     */
+    public static OptionalLong epochMillisFromIso(final CharSequence chars) {
+        return SafeParser.epochMillisFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time held as ASCII bytes to milliseconds since the epoch.
+     * @param bytes The array holding the date-time.
+     * @param offset The index of the first byte of the date-time.
+     * @param length The number of bytes in the date-time.
+     * @return The epoch millis, or an empty OptionalLong on bad input or errors.
+     */
+    public static OptionalLong epochMillisFromIso(final byte[] bytes, final int offset, final int length) {
+        return SafeParser.epochMillisFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time to nanoseconds since the epoch without creating any java.time objects.
+     * Only instants between the years 1677 and 2262 fit in a long.
+     * @param chars The characters to attempt to convert.
+     * @return The epoch nanos, or an empty OptionalLong on bad input, errors, or overflow.
+     */
+    public static OptionalLong epochNanosFromIso(final CharSequence chars) {
+        return SafeParser.epochNanosFromIso(chars, null, 0, lengthOf(chars));
+    }
+
+    /**
+     * Converts an ISO-8601 offset date-time held as ASCII bytes to nanoseconds since the epoch.
+     * @param bytes The array holding the date-time.
+     * @param offset The index of the first byte of the date-time.
+     * @param length The number of bytes in the date-time.
+     * @return The epoch nanos, or an empty OptionalLong on bad input, errors, or overflow.
+     */
+    public static OptionalLong epochNanosFromIso(final byte[] bytes, final int offset, final int length) {
+        return SafeParser.epochNanosFromIso(null, bytes, offset, length);
+    }
+
+    /**
+     * Converts a character sequence to any Type that has a Converter in the ConverterRegistry.  Ships with support for
+     * every *FromString Type, plus String, Boolean, UUID, BigInteger, Instant, LocalDate, Duration and all Enums.
+     * @param value The characters to attempt to convert.
+     * @param type The Class to convert to.
+     * @param <T> Any Type with a registered Converter.
+     * @return The successfully-converted value, or an empty Optional on null input, bad input, or an unknown Type.
+     */
+    public static<T> Optional<T> parse(final CharSequence value, final Class<T> type) {
+        if (value == null || type == null) {
+            log.warn("Null value [{}] or class [{}] provided to parse()", value, type);
+            return Optional.empty();
+        }
+        final Converter<T> converter = ConverterRegistry.converterFor(type).orElse(null);
+        if (converter == null) {
+            FAILURES.increment();
+            log.error("No converter is registered for [{}]! Register one with ConverterRegistry.register()",
+                    type.getSimpleName());
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(converter.convert(value));
+        } catch (Exception e) {
+            FAILURES.increment();
+            log.error("Failed to convert a String[{}] to a/an [{}] using parse()!", value, type.getSimpleName(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parses an ISO-8601 date from either source.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The LocalDate, or an empty Optional on null or bad input.
+     */
+    private static Optional<LocalDate> localDateFromIso(final CharSequence chars, final byte[] bytes,
+                                                        final int offset, final int length) {
+        final long epochDay = SafeParser.isoEpochDay(chars, bytes, offset, length, "localDateFromIso()");
+        return epochDay == INVALID ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * Parses an ISO-8601 date from either source without creating a LocalDate.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The number of days since 1970-01-01, or an empty OptionalLong on null or bad input.
+     */
+    private static OptionalLong epochDayFromIso(final CharSequence chars, final byte[] bytes,
+                                                final int offset, final int length) {
+        final long epochDay = SafeParser.isoEpochDay(chars, bytes, offset, length, "epochDayFromIso()");
+        return epochDay == INVALID ? OptionalLong.empty() : OptionalLong.of(epochDay);
+    }
+
+    /**
+     * Parses an ISO-8601 date-time without an offset from either source.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The LocalDateTime, or an empty Optional on null or bad input.
+     */
+    private static Optional<LocalDateTime> localDateTimeFromIso(final CharSequence chars, final byte[] bytes,
+                                                                final int offset, final int length) {
+        final long epochSecond =
+                SafeParser.isoEpochSecond(chars, bytes, offset, length, false, "localDateTimeFromIso()");
+        if (epochSecond == INVALID) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalDateTime.ofEpochSecond(epochSecond,
+                IsoDateTimeParser.nanoOfSecond(chars, bytes, offset, length), ZoneOffset.UTC));
+    }
+
+    /**
+     * Parses an ISO-8601 date-time with an offset from either source, keeping the offset.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The OffsetDateTime, or an empty Optional on null or bad input.
+     */
+    private static Optional<OffsetDateTime> offsetDateTimeFromIso(final CharSequence chars, final byte[] bytes,
+                                                                  final int offset, final int length) {
+        final long epochSecond =
+                SafeParser.isoEpochSecond(chars, bytes, offset, length, true, "offsetDateTimeFromIso()");
+        if (epochSecond == INVALID) {
+            return Optional.empty();
+        }
+        final ZoneOffset zoneOffset =
+                ZoneOffset.ofTotalSeconds(IsoDateTimeParser.offsetSeconds(chars, bytes, offset, length));
+        return Optional.of(OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond,
+                IsoDateTimeParser.nanoOfSecond(chars, bytes, offset, length)), zoneOffset));
+    }
+
+    /**
+     * Parses an ISO-8601 date-time with an offset from either source, applying the offset.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The Instant, or an empty Optional on null or bad input.
+     */
+    private static Optional<Instant> instantFromIso(final CharSequence chars, final byte[] bytes,
+                                                    final int offset, final int length) {
+        final long epochSecond = SafeParser.isoEpochSecond(chars, bytes, offset, length, true, "instantFromIso()");
+        if (epochSecond == INVALID) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochSecond(epochSecond,
+                IsoDateTimeParser.nanoOfSecond(chars, bytes, offset, length)));
+    }
+
+    /**
+     * Parses an ISO-8601 date-time with an offset from either source, truncating any fraction below a millisecond.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The milliseconds since the epoch, or an empty OptionalLong on null or bad input.
+     */
+    private static OptionalLong epochMillisFromIso(final CharSequence chars, final byte[] bytes,
+                                                   final int offset, final int length) {
+        final long epochSecond =
+                SafeParser.isoEpochSecond(chars, bytes, offset, length, true, "epochMillisFromIso()");
+        if (epochSecond == INVALID) {
+            return OptionalLong.empty();
+        }
+        // Four-digit years keep epoch seconds far enough from the long limits that this can never overflow
+        return OptionalLong.of(epochSecond * 1_000L
+                + IsoDateTimeParser.nanoOfSecond(chars, bytes, offset, length) / 1_000_000);
+    }
+
+    /**
+     * Parses an ISO-8601 date-time with an offset from either source, rejecting values that overflow a long.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @return The nanoseconds since the epoch, or an empty OptionalLong on null, bad or overflowing input.
+     */
+    private static OptionalLong epochNanosFromIso(final CharSequence chars, final byte[] bytes,
+                                                  final int offset, final int length) {
+        final long epochSecond =
+                SafeParser.isoEpochSecond(chars, bytes, offset, length, true, "epochNanosFromIso()");
+        if (epochSecond == INVALID) {
+            return OptionalLong.empty();
+        }
+        final int nanoOfSecond = IsoDateTimeParser.nanoOfSecond(chars, bytes, offset, length);
+        if (epochSecond > (Long.MAX_VALUE - nanoOfSecond) / NANOS_PER_SECOND
+                || epochSecond < Long.MIN_VALUE / NANOS_PER_SECOND) {
+            FAILURES.increment();
+            log.error("Failed to convert a String[{}] to a/an [{}] using {}! The value overflows a long.",
+                    isoText(chars, bytes, offset, length), "long", "epochNanosFromIso()");
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(epochSecond * NANOS_PER_SECOND + nanoOfSecond);
+    }
+
+    /**
+     * Parses an ISO-8601 date from either source, logging on bad input.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @param methodName The method being used for this conversion. Only used for logging.
+     * @return The epoch day, or INVALID.
+     */
+    private static long isoEpochDay(final CharSequence chars, final byte[] bytes, final int offset,
+                                    final int length, final String methodName) {
+        if (!isoInputPresent(chars, bytes, offset, length, methodName)) {
+            return INVALID;
+        }
+        final long epochDay = IsoDateTimeParser.epochDay(chars, bytes, offset, length);
+        if (epochDay == INVALID) {
+            FAILURES.increment();
+            log.error("Failed to convert a String[{}] to a/an [{}] using {}!",
+                    isoText(chars, bytes, offset, length), "ISO-8601 date", methodName);
+        }
+        return epochDay;
+    }
+
+    /**
+     * Parses an ISO-8601 date-time from either source, logging on bad input.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @param requireOffset True if the input must end in an offset, which is then applied to the result.
+     * @param methodName The method being used for this conversion. Only used for logging.
+     * @return The epoch second (in UTC when an offset is required, in local time otherwise), or INVALID.
+     */
+    private static long isoEpochSecond(final CharSequence chars, final byte[] bytes, final int offset,
+                                       final int length, final boolean requireOffset, final String methodName) {
+        if (!isoInputPresent(chars, bytes, offset, length, methodName)) {
+            return INVALID;
+        }
+        long epochSecond = IsoDateTimeParser.localEpochSecond(chars, bytes, offset, length, requireOffset);
+        if (epochSecond != INVALID && requireOffset) {
+            final int offsetSeconds = IsoDateTimeParser.offsetSeconds(chars, bytes, offset, length);
+            epochSecond = offsetSeconds == INVALID_INT ? INVALID : epochSecond - offsetSeconds;
+        }
+        if (epochSecond == INVALID) {
+            FAILURES.increment();
+            log.error("Failed to convert a String[{}] to a/an [{}] using {}!", isoText(chars, bytes, offset, length),
+                    requireOffset ? "ISO-8601 offset date-time" : "ISO-8601 local date-time", methodName);
+        }
+        return epochSecond;
+    }
+
+    /**
+     * Ensures that an ISO-8601 parse has something to read, warning on null or out-of-bounds input.
+     * @param chars The characters to parse, or null to parse the bytes.
+     * @param bytes The ASCII bytes to parse when chars is null.
+     * @param offset The position of the first byte, which is 0 for a CharSequence.
+     * @param length The number of characters to parse.
+     * @param methodName The method being used for this conversion. Only used for logging.
+     * @return True if the CharSequence is non-null or the byte range is readable.
+     */
+    private static boolean isoInputPresent(final CharSequence chars, final byte[] bytes, final int offset,
+                                           final int length, final String methodName) {
+        if (chars != null) {
+            return true;
+        }
+        if (bytes == null || offset < 0 || length < 0 || offset > bytes.length - length) {
+            log.warn("Null or out-of-bounds input provided to {}!", methodName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Produces displayable text for a failed ISO-8601 parse.  Only called on failure, so the copy is never paid for
+     * on the happy path.
+     */
+    private static String isoText(final CharSequence chars, final byte[] bytes, final int offset, final int length) {
+        return chars != null ? chars.toString() : new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Measures a CharSequence that may be null, which the parse then reports as null input.
+     */
+    private static int lengthOf(final CharSequence chars) {
+        return chars == null ? 0 : chars.length();
+    }
+
     /**
      * Dynamically converts a String to a requested Object type by use of an input Function.
      * @param objectType The Class of the object to convert to. Only used for logging.
@@ -121,6 +529,7 @@ public class SafeParser {
         try {
             return Optional.ofNullable(converter.apply(string));
         } catch (Exception e) {
+            FAILURES.increment();
             log.error("Failed to convert a String[{}] to a/an [{}] using {}!", string, objectType.getSimpleName(),
                     methodName, e);
             return Optional.empty();
@@ -0,0 +1,375 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+/**
+ * A fixed-point decimal held as an unscaled long and a scale of 0 to 18 digits, so that money-like values with a
+ * handful of decimal places can be operated on with plain integer arithmetic instead of BigDecimal.  The value is
+ * unscaledValue / 10^scale, exactly as with BigDecimal.
+ * <p>
+ * Every operation is checked: results that do not fit in a long at the requested scale, division by zero, and
+ * inexact results under RoundingMode.UNNECESSARY are logged and produce an empty Optional rather than a wrapped-around
+ * value.  Intermediate products too large for a long are recalculated with BigDecimal, so a result is only ever
+ * rejected when the result itself does not fit.
+ */
+public final class FixedDecimal {
+    private static final Logger log = LoggerProvider.lazyLogger(FixedDecimal.class);
+    // The largest scale whose power of ten fits in a long
+    public static final int MAX_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    private final long unscaledValue;
+    private final int scale;
+
+    /**
+     * Creates a FixedDecimal directly from its parts.
+     * @param unscaledValue The value multiplied by 10^scale.
+     * @param scale The number of decimal places, from 0 to MAX_SCALE.
+     * @return The FixedDecimal, or an empty Optional if the scale is unsupported.
+     */
+    public static Optional<FixedDecimal> of(final long unscaledValue, final int scale) {
+        if (!FixedDecimal.validScale(scale)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FixedDecimal(unscaledValue, scale));
+    }
+
+    /**
+     * Converts any value that Numeric accepts, rounding it to the requested scale.
+     * @param value Any object that can be converted to a Numeric.
+     * @param scale The number of decimal places, from 0 to MAX_SCALE.
+     * @param roundingMode How to round away digits beyond the scale.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return The FixedDecimal, or an empty Optional on bad input or if the value does not fit.
+     */
+    public static<T> Optional<FixedDecimal> of(final T value, final int scale, final RoundingMode roundingMode) {
+        return FixedDecimal.fromNumeric(Numeric.of(value), scale, roundingMode);
+    }
+
+    private FixedDecimal(final long unscaledValue, final int scale) {
+        this.unscaledValue = unscaledValue;
+        this.scale = scale;
+    }
+
+    public long getUnscaledValue() {
+        return unscaledValue;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Wraps the value in a Numeric.  A scale of zero produces a long-backed Numeric without touching BigDecimal.
+     * @return The equivalent Numeric.
+     */
+    public Numeric toNumeric() {
+        return scale == 0 ? Numeric.ofLong(unscaledValue) : Numeric.ofDecimal(this.toBigDecimal());
+    }
+
+    /**
+     * Converts the value to a BigDecimal with the same scale.
+     * @return The equivalent BigDecimal.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+    /**
+     * Changes the number of decimal places.
+     * @param newScale The number of decimal places, from 0 to MAX_SCALE.
+     * @param roundingMode How to round away digits when the scale shrinks.
+     * @return The rescaled value, or an empty Optional if it does not fit or needs rounding under UNNECESSARY.
+     */
+    public Optional<FixedDecimal> setScale(final int newScale, final RoundingMode roundingMode) {
+        if (!FixedDecimal.validScale(newScale) || !FixedDecimal.validRoundingMode(roundingMode)) {
+            return Optional.empty();
+        }
+        if (newScale >= scale) {
+            final long rescaled = FixedDecimal.scaleUp(unscaledValue, newScale - scale);
+            return FixedDecimal.scaleUpOverflowed(rescaled, newScale - scale)
+                    ? this.overflow("setScale()")
+                    : Optional.of(new FixedDecimal(rescaled, newScale));
+        }
+        return this.rounded(unscaledValue, POWERS_OF_TEN[scale - newScale], newScale, roundingMode, "setScale()");
+    }
+
+    /**
+     * Adds two values.  The result takes the larger of the two scales, so no rounding is ever needed.
+     * @param augend The value to add.
+     * @return The sum, or an empty Optional on null input or overflow.
+     */
+    public Optional<FixedDecimal> add(final FixedDecimal augend) {
+        return this.addScaled(augend, false, "add()");
+    }
+
+    /**
+     * Subtracts a value.  The result takes the larger of the two scales, so no rounding is ever needed.
+     * @param subtrahend The value to subtract.
+     * @return The difference, or an empty Optional on null input or overflow.
+     */
+    public Optional<FixedDecimal> subtract(final FixedDecimal subtrahend) {
+        return this.addScaled(subtrahend, true, "subtract()");
+    }
+
+    /**
+     * Multiplies two values, keeping the scale of this.
+     * @param multiplicand The value to multiply by.
+     * @param roundingMode How to round away digits beyond the scale of this.
+     * @return The product, or an empty Optional on null input, overflow, or rounding under UNNECESSARY.
+     */
+    public Optional<FixedDecimal> multiply(final FixedDecimal multiplicand, final RoundingMode roundingMode) {
+        if (multiplicand == null) {
+            log.warn("Null value provided to FixedDecimal.multiply()!");
+            return Optional.empty();
+        }
+        if (!FixedDecimal.validRoundingMode(roundingMode)) {
+            return Optional.empty();
+        }
+        // The raw product carries both scales; dropping the multiplicand's brings it back to the scale of this
+        final long product = unscaledValue * multiplicand.unscaledValue;
+        if (FixedDecimal.multiplyOverflowed(unscaledValue, multiplicand.unscaledValue, product)) {
+            return FixedDecimal.convert(this.toBigDecimal().multiply(multiplicand.toBigDecimal()), scale, roundingMode,
+                    "multiply()");
+        }
+        return this.rounded(product, POWERS_OF_TEN[multiplicand.scale], scale, roundingMode, "multiply()");
+    }
+
+    /**
+     * Divides by a value, keeping the scale of this.
+     * @param divisor The value to divide by.
+     * @param roundingMode How to round away digits beyond the scale of this.
+     * @return The quotient, or an empty Optional on null input, division by zero, overflow, or rounding under
+     * UNNECESSARY.
+     */
+    public Optional<FixedDecimal> divide(final FixedDecimal divisor, final RoundingMode roundingMode) {
+        if (divisor == null) {
+            log.warn("Null value provided to FixedDecimal.divide()!");
+            return Optional.empty();
+        }
+        if (!FixedDecimal.validRoundingMode(roundingMode)) {
+            return Optional.empty();
+        }
+        if (divisor.unscaledValue == 0) {
+            log.error("Attempted to divide [{}] by zero!", this);
+            return Optional.empty();
+        }
+        // (u1 / 10^s1) / (u2 / 10^s2) at scale s1 is u1 * 10^s2 / u2
+        final long dividend = FixedDecimal.scaleUp(unscaledValue, divisor.scale);
+        if (FixedDecimal.scaleUpOverflowed(dividend, divisor.scale)
+                || (dividend == Long.MIN_VALUE && divisor.unscaledValue == -1)) {
+            // The quotient is rounded twice here, but the second rounding is to the same scale and so is exact
+            final BigDecimal quotient;
+            try {
+                quotient = this.toBigDecimal().divide(divisor.toBigDecimal(), scale, roundingMode);
+            } catch (final ArithmeticException e) {
+                log.error("FixedDecimal.divide() on [{}] requires rounding, but UNNECESSARY was requested!", this);
+                return Optional.empty();
+            }
+            return FixedDecimal.convert(quotient, scale, roundingMode, "divide()");
+        }
+        return this.rounded(dividend, divisor.unscaledValue, scale, roundingMode, "divide()");
+    }
+
+    /**
+     * Divides two longs, rounding the quotient as BigDecimal would.  The division must not be Long.MIN_VALUE / -1.
+     * @param dividend The value to divide.
+     * @param divisor The non-zero value to divide by.
+     * @param roundingMode How to round; UNNECESSARY is treated as an error by the caller before calling this.
+     * @return The rounded quotient.
+     */
+    static long divideRounded(final long dividend, final long divisor, final RoundingMode roundingMode) {
+        final long quotient = dividend / divisor;
+        final long remainder = dividend - quotient * divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // The sign of the exact quotient, which the truncated quotient may have lost if it is zero
+        final long signum = ((dividend ^ divisor) >> 63) | 1;
+        // Twice the remainder against the divisor, compared as unsigned magnitudes so Long.MIN_VALUE cannot overflow
+        final int half = Long.compareUnsigned(Math.abs(remainder) << 1, divisor < 0 ? -divisor : divisor);
+        final boolean increment;
+        switch (roundingMode) {
+            case UP:
+                increment = true;
+                break;
+            case CEILING:
+                increment = signum > 0;
+                break;
+            case FLOOR:
+                increment = signum < 0;
+                break;
+            case HALF_UP:
+                increment = half >= 0;
+                break;
+            case HALF_DOWN:
+                increment = half > 0;
+                break;
+            case HALF_EVEN:
+                increment = half > 0 || (half == 0 && (quotient & 1) != 0);
+                break;
+            default:
+                increment = false;
+                break;
+        }
+        return increment ? quotient + signum : quotient;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof FixedDecimal)) {
+            return false;
+        }
+        final FixedDecimal that = (FixedDecimal)other;
+        return unscaledValue == that.unscaledValue && scale == that.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaledValue) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return this.toBigDecimal().toPlainString();
+    }
+
+    /**
+     * Converts a Numeric, rounding it to the requested scale.
+     * @return The FixedDecimal, or an empty Optional on bad input or if the value does not fit.
+     */
+    static Optional<FixedDecimal> fromNumeric(final Numeric value, final int scale, final RoundingMode roundingMode) {
+        if (value == null || !value.isPresent() || !FixedDecimal.validScale(scale)
+                || !FixedDecimal.validRoundingMode(roundingMode)) {
+            log.warn("Empty value or bad scale [{}] provided to FixedDecimal!", scale);
+            return Optional.empty();
+        }
+        if (value.isLong()) {
+            final long unscaled = FixedDecimal.scaleUp(value.longValue(), scale);
+            if (!FixedDecimal.scaleUpOverflowed(unscaled, scale)) {
+                return Optional.of(new FixedDecimal(unscaled, scale));
+            }
+        }
+        return FixedDecimal.convert(value.decimalValue(), scale, roundingMode, "of()");
+    }
+
+    private Optional<FixedDecimal> addScaled(final FixedDecimal other, final boolean negate, final String methodName) {
+        if (other == null) {
+            log.warn("Null value provided to FixedDecimal.{}!", methodName);
+            return Optional.empty();
+        }
+        final int resultScale = Math.max(scale, other.scale);
+        final long left = FixedDecimal.scaleUp(unscaledValue, resultScale - scale);
+        final long right = FixedDecimal.scaleUp(other.unscaledValue, resultScale - other.scale);
+        if (FixedDecimal.scaleUpOverflowed(left, resultScale - scale)
+                || FixedDecimal.scaleUpOverflowed(right, resultScale - other.scale)) {
+            // An operand too large at the shared scale can still have a difference that fits
+            final BigDecimal exact = negate
+                    ? this.toBigDecimal().subtract(other.toBigDecimal())
+                    : this.toBigDecimal().add(other.toBigDecimal());
+            return FixedDecimal.convert(exact, resultScale, RoundingMode.UNNECESSARY, methodName);
+        }
+        final long result = negate ? left - right : left + right;
+        // Overflow iff the operands' effective signs agree and the result's sign does not
+        final boolean overflowed = negate
+                ? ((left ^ right) & (left ^ result)) < 0
+                : ((left ^ result) & (right ^ result)) < 0;
+        return overflowed ? this.overflow(methodName) : Optional.of(new FixedDecimal(result, resultScale));
+    }
+
+    /**
+     * Divides an unscaled value down to the target scale, honoring UNNECESSARY.
+     */
+    private Optional<FixedDecimal> rounded(final long dividend, final long divisor, final int resultScale,
+                                           final RoundingMode roundingMode, final String methodName) {
+        if (roundingMode == RoundingMode.UNNECESSARY && dividend % divisor != 0) {
+            log.error("FixedDecimal.{} on [{}] requires rounding, but UNNECESSARY was requested!", methodName, this);
+            return Optional.empty();
+        }
+        return Optional.of(new FixedDecimal(FixedDecimal.divideRounded(dividend, divisor, roundingMode), resultScale));
+    }
+
+    private static Optional<FixedDecimal> convert(final BigDecimal value, final int scale,
+                                                  final RoundingMode roundingMode, final String methodName) {
+        final BigInteger unscaled;
+        try {
+            unscaled = value.setScale(scale, roundingMode).unscaledValue();
+        } catch (final ArithmeticException e) {
+            log.error("FixedDecimal.{} on [{}] requires rounding, but UNNECESSARY was requested!", methodName, value);
+            return Optional.empty();
+        }
+        if (unscaled.bitLength() > 63) {
+            log.error("FixedDecimal.{} overflowed! [{}] does not fit at a scale of {}.", methodName, value, scale);
+            return Optional.empty();
+        }
+        return Optional.of(new FixedDecimal(unscaled.longValue(), scale));
+    }
+
+    private Optional<FixedDecimal> overflow(final String methodName) {
+        log.error("FixedDecimal.{} on [{}] overflowed!", methodName, this);
+        return Optional.empty();
+    }
+
+    /**
+     * Multiplies a value by a power of ten.
+     * @return The scaled value, or Long.MIN_VALUE on overflow.
+     */
+    private static long scaleUp(final long value, final int exponent) {
+        if (exponent == 0) {
+            return value;
+        }
+        final long power = POWERS_OF_TEN[exponent];
+        final long scaled = value * power;
+        return FixedDecimal.multiplyOverflowed(value, power, scaled) ? Long.MIN_VALUE : scaled;
+    }
+
+    /**
+     * Interprets the result of scaleUp().  No multiple of ten is Long.MIN_VALUE, so that result can only mean overflow
+     * when the exponent is non-zero.
+     */
+    private static boolean scaleUpOverflowed(final long scaled, final int exponent) {
+        return exponent != 0 && scaled == Long.MIN_VALUE;
+    }
+
+    /**
+     * Detects overflow in a long multiply without throwing, as Math.multiplyExact does internally.
+     */
+    private static boolean multiplyOverflowed(final long left, final long right, final long product) {
+        final long absLeft = Math.abs(left);
+        final long absRight = Math.abs(right);
+        if ((absLeft | absRight) >>> 31 == 0) {
+            return false;
+        }
+        return (right != 0 && product / right != left) || (left == Long.MIN_VALUE && right == -1);
+    }
+
+    private static boolean validScale(final int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            log.error("FixedDecimal supports scales from 0 to {}, not {}!", MAX_SCALE, scale);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean validRoundingMode(final RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            log.error("A RoundingMode is required!");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,251 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A signed 128-bit two's complement integer made of two longs, used by Numeric as the middle tier between primitive
+ * longs and BigDecimal.  Any sum, difference or product of two longs fits, so the results that overflow the long fast
+ * path are held here instead of allocating a BigDecimal, a BigInteger and its int[] magnitude.
+ * <p>
+ * Every operation is exact; anything that would overflow 128 bits returns null so that the caller can fall back to
+ * BigDecimal.  The high half of a 64x64-bit product comes from Math.multiplyHigh when the running JVM has it (Java 9
+ * and later, where it is an intrinsic), and from a portable implementation on Java 8.
+ */
+final class Int128 {
+    private static final MethodHandle MULTIPLY_HIGH = Int128.multiplyHighHandle();
+    private static final BigInteger TWO_TO_THE_64 = BigInteger.ONE.shiftLeft(64);
+    private final long high;
+    private final long low;
+
+    /**
+     * Sign-extends a long.
+     * @param value The value.
+     * @return The equivalent Int128.
+     */
+    static Int128 of(final long value) {
+        return new Int128(value >> 63, value);
+    }
+
+    /**
+     * Creates an Int128 from its two's complement halves.
+     * @param high The upper 64 bits.
+     * @param low The lower 64 bits.
+     * @return The Int128.
+     */
+    static Int128 of(final long high, final long low) {
+        return new Int128(high, low);
+    }
+
+    /**
+     * Converts a BigInteger.
+     * @param value The non-null value.
+     * @return The equivalent Int128, or null if the value needs more than 128 bits.
+     */
+    static Int128 of(final BigInteger value) {
+        if (value.bitLength() > 127) {
+            return null;
+        }
+        return new Int128(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    /**
+     * Multiplies two longs.  The product of two longs always fits in 128 bits.
+     * @param first The multiplier.
+     * @param second The multiplicand.
+     * @return The exact product.
+     */
+    static Int128 multiply(final long first, final long second) {
+        return new Int128(Int128.multiplyHigh(first, second), first * second);
+    }
+
+    private Int128(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    long high() {
+        return high;
+    }
+
+    long low() {
+        return low;
+    }
+
+    /**
+     * Determines if the value can be held by a long without losing information.
+     * @return True if the high half is only the sign extension of the low half.
+     */
+    boolean fitsInLong() {
+        return high == (low >> 63);
+    }
+
+    int signum() {
+        return high < 0 ? -1 : (high == 0 && low == 0 ? 0 : 1);
+    }
+
+    /**
+     * Adds two values.
+     * @param other The value to add.
+     * @return The exact sum, or null if it does not fit in 128 bits.
+     */
+    Int128 add(final Int128 other) {
+        final long resultLow = low + other.low;
+        final long carry = Long.compareUnsigned(resultLow, low) < 0 ? 1 : 0;
+        final long resultHigh = high + other.high + carry;
+        // Overflow iff both operands share a sign that the result does not
+        if (((high ^ resultHigh) & (other.high ^ resultHigh)) < 0) {
+            return null;
+        }
+        return new Int128(resultHigh, resultLow);
+    }
+
+    /**
+     * Subtracts a value.
+     * @param other The value to subtract.
+     * @return The exact difference, or null if it does not fit in 128 bits.
+     */
+    Int128 subtract(final Int128 other) {
+        final long resultLow = low - other.low;
+        final long borrow = Long.compareUnsigned(low, other.low) < 0 ? 1 : 0;
+        final long resultHigh = high - other.high - borrow;
+        // Overflow iff the operands' signs differ and the result's sign differs from the minuend's
+        if (((high ^ other.high) & (high ^ resultHigh)) < 0) {
+            return null;
+        }
+        return new Int128(resultHigh, resultLow);
+    }
+
+    /**
+     * Multiplies two values by multiplying their magnitudes as unsigned 128-bit integers and restoring the sign.
+     * @param other The value to multiply by.
+     * @return The exact product, or null if it does not fit in 128 bits.
+     */
+    Int128 multiply(final Int128 other) {
+        final boolean negative = (high ^ other.high) < 0;
+        // Magnitudes as unsigned 128-bit values; the magnitude of the minimum value is 2^127, which is still exact
+        long firstHigh = high < 0 ? ~high + (low == 0 ? 1 : 0) : high;
+        long firstLow = high < 0 ? -low : low;
+        long secondHigh = other.high < 0 ? ~other.high + (other.low == 0 ? 1 : 0) : other.high;
+        long secondLow = other.high < 0 ? -other.low : other.low;
+        if (firstHigh != 0 && secondHigh != 0) {
+            return null;
+        }
+        if (secondHigh != 0) {
+            final long swapHigh = firstHigh;
+            final long swapLow = firstLow;
+            firstHigh = secondHigh;
+            firstLow = secondLow;
+            secondHigh = swapHigh;
+            secondLow = swapLow;
+        }
+        // (firstHigh * 2^64 + firstLow) * secondLow, where the firstHigh term must stay within the upper 64 bits
+        if (Int128.unsignedMultiplyHigh(firstHigh, secondLow) != 0) {
+            return null;
+        }
+        final long cross = firstHigh * secondLow;
+        final long magnitudeHigh = Int128.unsignedMultiplyHigh(firstLow, secondLow) + cross;
+        final long magnitudeLow = firstLow * secondLow;
+        if (Long.compareUnsigned(magnitudeHigh, cross) < 0) {
+            return null;
+        }
+        if (!negative) {
+            return magnitudeHigh < 0 ? null : new Int128(magnitudeHigh, magnitudeLow);
+        }
+        // A negative result may reach exactly 2^127 in magnitude, which is the minimum value
+        if (magnitudeHigh < 0 && (magnitudeHigh != Long.MIN_VALUE || magnitudeLow != 0)) {
+            return null;
+        }
+        return new Int128(~magnitudeHigh + (magnitudeLow == 0 ? 1 : 0), -magnitudeLow);
+    }
+
+    BigInteger toBigInteger() {
+        if (this.fitsInLong()) {
+            return BigInteger.valueOf(low);
+        }
+        final BigInteger lowBits = BigInteger.valueOf(low);
+        // The low half is unsigned once the high half is present
+        return BigInteger.valueOf(high).shiftLeft(64).add(low < 0 ? lowBits.add(TWO_TO_THE_64) : lowBits);
+    }
+
+    BigDecimal toBigDecimal() {
+        return new BigDecimal(this.toBigInteger());
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Int128)) {
+            return false;
+        }
+        final Int128 that = (Int128)other;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(high) + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return this.toBigInteger().toString();
+    }
+
+    /**
+     * Calculates the upper 64 bits of the signed 128-bit product of two longs.
+     */
+    static long multiplyHigh(final long first, final long second) {
+        try {
+            return (long)MULTIPLY_HIGH.invokeExact(first, second);
+        } catch (final Throwable e) {
+            // Neither implementation throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Calculates the upper 64 bits of the unsigned 128-bit product of two longs.
+     */
+    static long unsignedMultiplyHigh(final long first, final long second) {
+        // Reinterpreting a negative operand as unsigned adds 2^64, which adds the other operand to the upper half
+        return Int128.multiplyHigh(first, second) + ((first >> 63) & second) + ((second >> 63) & first);
+    }
+
+    /**
+     * The Java 8 implementation of Math.multiplyHigh, multiplying 32-bit halves as described in Hacker's Delight.
+     */
+    static long portableMultiplyHigh(final long first, final long second) {
+        final long firstHigh = first >> 32;
+        final long firstLow = first & 0xFFFFFFFFL;
+        final long secondHigh = second >> 32;
+        final long secondLow = second & 0xFFFFFFFFL;
+        final long lowProduct = firstLow * secondLow;
+        final long middle = firstHigh * secondLow + (lowProduct >>> 32);
+        final long middleLow = (middle & 0xFFFFFFFFL) + firstLow * secondHigh;
+        return firstHigh * secondHigh + (middle >> 32) + (middleLow >> 32);
+    }
+
+    /**
+     * Resolves Math.multiplyHigh when the running JVM has it, and the portable implementation otherwise.  Held in a
+     * static final field so the JIT binds the call directly.
+     */
+    private static MethodHandle multiplyHighHandle() {
+        final MethodType type = MethodType.methodType(long.class, long.class, long.class);
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            return lookup.findStatic(Math.class, "multiplyHigh", type);
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            try {
+                return lookup.findStatic(Int128.class, "portableMultiplyHigh", type);
+            } catch (final NoSuchMethodException | IllegalAccessException impossible) {
+                throw new ExceptionInInitializerError(impossible);
+            }
+        }
+    }
+}
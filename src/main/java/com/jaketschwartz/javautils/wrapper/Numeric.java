@@ -2,29 +2,89 @@ package com.jaketschwartz.javautils.wrapper;
 
 import com.jaketschwartz.javautils.logging.Logger;
 import com.jaketschwartz.javautils.logging.LoggerProvider;
-import com.jaketschwartz.javautils.parsing.SafeParser;
+import com.jaketschwartz.javautils.metrics.Counter;
+import com.jaketschwartz.javautils.metrics.Metrics;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.math.RoundingMode;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 /**
  * An overarching wrapper class for numerous different numeric classes in Java.  Allows seamless conversions between
  * each other, where possible; attempts to be as similar to typecasting as possible.
+ * Integral values that fit in a long are held as a primitive long and operated on with overflow-checked long
+ * arithmetic.  Integral values that overflow a long but fit in 128 bits are held as a pair of longs and operated on
+ * with Int128 arithmetic, so the typical overflowing sum or product still avoids BigDecimal.  Everything else, and any
+ * operation that would overflow 128 bits or produce a fraction, is held and operated on as a BigDecimal.  Every path
+ * produces exactly the values that BigDecimal arithmetic alone would produce.
+ * Equality, hashing and ordering are numeric rather than representational: 1, 1.0 and 1.00 are equal and share a hash,
+ * unlike their BigDecimals, so Numerics can be used directly as map keys and sorted.
  * TODO: Home-grow our own mathematical operations instead of cheating by wrapping BigDecimal operations.
  */
-public final class Numeric {
-    private static final Logger log = LoggerProvider.logger(Numeric.class);
+public final class Numeric implements Comparable<Numeric> {
+    private static final Logger log = LoggerProvider.lazyLogger(Numeric.class);
+    // Arithmetic between longs that had to move up to 128 bits, and arithmetic between integral values that had to move
+    // up to BigDecimal.  Operands that were already in the slower representation are not counted.
+    private static final Counter INT128_FALLBACKS = Metrics.counter(Metrics.INT128_FALLBACKS);
+    private static final Counter DECIMAL_FALLBACKS = Metrics.counter(Metrics.DECIMAL_FALLBACKS);
     // Current registry of supported numeric classes
     private static final List<Class> NUMERIC_CLASSES = Arrays.asList(Byte.class, Integer.class, Short.class,
-            Float.class, Long.class, Double.class, BigDecimal.class);
+            Float.class, Long.class, Double.class, BigDecimal.class, Numeric.class);
     private static final String NUMERIC_CLASSES_MESSAGE =
             NUMERIC_CLASSES.stream().map(Class::getSimpleName).collect(Collectors.joining(","));
-    private Optional<BigDecimal> value = Optional.empty();
+    // The conversion for each input Class, resolved once per Class against NUMERIC_CLASSES
+    private static final ClassValue<Function<Object, Numeric>> INPUT_HANDLERS =
+            new ClassValue<Function<Object, Numeric>>() {
+                @Override
+                protected Function<Object, Numeric> computeValue(final Class<?> type) {
+                    return Numeric.inputHandler(type);
+                }
+            };
+    private static final int DECIMAL128_DIGITS = MathContext.DECIMAL128.getPrecision();
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    // Exclusive bounds for values that truncate toward zero into the range of a long
+    private static final BigDecimal BELOW_LONG_MIN = LONG_MIN.subtract(BigDecimal.ONE);
+    private static final BigDecimal ABOVE_LONG_MAX = LONG_MAX.add(BigDecimal.ONE);
+    private static final Numeric EMPTY = new Numeric(false, 0L, 0L, null);
+    // Canonical instances for the integral values that turn up most, analogous to the Integer cache
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final Numeric[] LONG_CACHE = new Numeric[CACHE_HIGH - CACHE_LOW + 1];
+    // Canonical instances for decimals with one or two places up to magnitude 1.00, such as 0.5, 0.25 and 0.01.
+    // Keyed by BigDecimal.equals(), so 0.5 and 0.50 remain distinct values just as they are for BigDecimal.
+    private static final int DECIMAL_CACHE_MAX_UNSCALED = 100;
+    private static final Map<BigDecimal, Numeric> DECIMAL_CACHE = new HashMap<>();
+    static {
+        for (int i = 0; i < LONG_CACHE.length; i++) {
+            final long value = i + CACHE_LOW;
+            LONG_CACHE[i] = new Numeric(true, value >> 63, value, null);
+        }
+        for (int scale = 1; scale <= 2; scale++) {
+            for (int unscaled = -DECIMAL_CACHE_MAX_UNSCALED; unscaled <= DECIMAL_CACHE_MAX_UNSCALED; unscaled++) {
+                final BigDecimal value = BigDecimal.valueOf(unscaled, scale);
+                DECIMAL_CACHE.put(value, new Numeric(true, 0L, 0L, value));
+            }
+        }
+    }
+    private final boolean present;
+    // The upper half of a 128-bit integral value.  Only the sign extension of longValue when the value fits in a long.
+    private final long high;
+    // The value when it is integral and fits in a long, or the lower half of a 128-bit integral value.  Only
+    // meaningful when decimal is null.
+    private final long longValue;
+    // The value when it cannot be held by longValue, or null when longValue holds it.
+    private final BigDecimal decimal;
+    // The numeric hash of a BigDecimal value, computed on first use as String does.  Zero until then.
+    private int decimalHash;
 
     /**
      * Statically creates an instance of a Numeric object for the provided value.
@@ -33,7 +93,11 @@ public final class Numeric {
      * @return The Numeric-wrapped value.
      */
     public static<T> Numeric of(final T value) {
-        return new Numeric(value);
+        if (value == null) {
+            log.warn("Null value supplied to Numeric! Please enter any of: [{}]", NUMERIC_CLASSES_MESSAGE);
+            return EMPTY;
+        }
+        return INPUT_HANDLERS.get(value.getClass()).apply(value);
     }
 
     /**
@@ -43,7 +107,7 @@ public final class Numeric {
      * @return A new Numeric representing the mathematical transformation.
      */
     public<T> Numeric add(final T augend) {
-        return this.applyMath(augend, BigDecimal::add);
+        return this.applyMath(augend, Operation.ADD);
     }
 
     /**
@@ -54,7 +118,7 @@ public final class Numeric {
      * @return A new Numeric representing the mathematical transformation.
      */
     public<T> Numeric subtract(final T subtrahend) {
-        return this.applyMath(subtrahend, BigDecimal::subtract);
+        return this.applyMath(subtrahend, Operation.SUBTRACT);
     }
 
     /**
@@ -65,7 +129,7 @@ public final class Numeric {
      * @return A new Numeric representing the mathematical transformation.
      */
     public<T> Numeric multiply(final T multiplicand) {
-        return this.applyMath(multiplicand, BigDecimal::multiply);
+        return this.applyMath(multiplicand, Operation.MULTIPLY);
     }
 
     /**
@@ -75,7 +139,7 @@ public final class Numeric {
      * @return A new Numeric representing the mathematical transformation.
      */
     public<T> Numeric divide(final T divisor) {
-        return this.applyMath(divisor, (first, second) -> first.divide(second, MathContext.DECIMAL128));
+        return this.applyMath(divisor, Operation.DIVIDE);
     }
 
     /**
@@ -83,7 +147,7 @@ public final class Numeric {
      * @return The Byte, or an empty Optional on errors.
      */
     public Optional<Byte> getByte() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::byteFromString);
+        return this.integral(Byte.class, Byte.MIN_VALUE, Byte.MAX_VALUE, value -> (byte)value);
     }
 
     /**
@@ -91,7 +155,7 @@ public final class Numeric {
      * @return The Integer, or an empty Optional on errors.
      */
     public Optional<Integer> getInteger() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::integerFromString);
+        return this.integral(Integer.class, Integer.MIN_VALUE, Integer.MAX_VALUE, value -> (int)value);
     }
 
     /**
@@ -99,7 +163,7 @@ public final class Numeric {
      * @return The Short, or an empty Optional on errors.
      */
     public Optional<Short> getShort() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::shortFromString);
+        return this.integral(Short.class, Short.MIN_VALUE, Short.MAX_VALUE, value -> (short)value);
     }
 
     /**
@@ -107,7 +171,11 @@ public final class Numeric {
      * @return The Float, or an empty Optional on errors.
      */
     public Optional<Float> getFloat() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::floatFromString);
+        if (!present) {
+            return Optional.empty();
+        }
+        // Both conversions round to nearest, exactly like parsing the value's digits
+        return Optional.of(this.isLong() ? (float)longValue : this.decimalValue().floatValue());
     }
 
     /**
@@ -115,7 +183,7 @@ public final class Numeric {
      * @return The Long, or an empty Optional on errors.
      */
     public Optional<Long> getLong() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::longFromString);
+        return this.integral(Long.class, Long.MIN_VALUE, Long.MAX_VALUE, value -> value);
     }
 
     /**
@@ -123,7 +191,11 @@ public final class Numeric {
      * @return The Double, or an empty Optional on errors.
      */
     public Optional<Double> getDouble() {
-        return value.map(BigDecimal::toString).flatMap(SafeParser::doubleFromString);
+        if (!present) {
+            return Optional.empty();
+        }
+        // Both conversions round to nearest, exactly like parsing the value's digits
+        return Optional.of(this.isLong() ? (double)longValue : this.decimalValue().doubleValue());
     }
 
     /**
@@ -131,7 +203,23 @@ public final class Numeric {
      * @return The BigDecimal, or an empty Optional on errors.
      */
     public Optional<BigDecimal> getBigDecimal() {
-        return value;
+        if (!present) {
+            return Optional.empty();
+        }
+        return Optional.of(this.decimalValue());
+    }
+
+    /**
+     * Attempts to safely convert the internalized value to a FixedDecimal, rounding away any extra decimal places.
+     * @param scale The number of decimal places, from 0 to FixedDecimal.MAX_SCALE.
+     * @param roundingMode How to round away digits beyond the scale.
+     * @return The FixedDecimal, or an empty Optional on errors.
+     */
+    public Optional<FixedDecimal> getFixedDecimal(final int scale, final RoundingMode roundingMode) {
+        if (!present) {
+            return Optional.empty();
+        }
+        return FixedDecimal.fromNumeric(this, scale, roundingMode);
     }
 
     /**
@@ -139,50 +227,526 @@ public final class Numeric {
      * @return True IF the Optionally-wrapped BigDecimal is present.
      */
     public boolean isPresent() {
-        return value.isPresent();
+        return present;
     }
 
     /**
-     * Constructs a new Numeric object with regards for null values and an input whitelist.
-     * @param value The value to attempt to convert to a Numeric.
-     * @param <T> Any object type, but hopefully something on the whitelist.
+     * Compares the values numerically, so 1, 1.0 and 1.00 are all equal even though their BigDecimals are not.
+     * Empty Numerics are equal to each other and sort before every present value.
+     * @param other The Numeric to compare against.
+     * @return A negative number, zero, or a positive number as this is less than, equal to, or greater than the other.
      */
-    private<T> Numeric(final T value) {
-        if (value == null) {
-            log.warn("Null value supplied to Numeric! Please enter any of: [{}]", NUMERIC_CLASSES_MESSAGE);
-            return;
+    @Override
+    public int compareTo(final Numeric other) {
+        if (!present || !other.present) {
+            return Boolean.compare(present, other.present);
         }
-        // If an unsupported class is provided, list the potential classes and throw an IAE
-        if (NUMERIC_CLASSES.stream().noneMatch(clazz -> clazz.isInstance(value))) {
-            log.error("Numeric does not support instances of {}! Please enter any of: [{}]",
-                    value.getClass().getSimpleName(), NUMERIC_CLASSES_MESSAGE);
-            return;
+        if (decimal == null && other.decimal == null) {
+            // A long's high half is its sign extension, so longs and 128-bit values compare alike
+            final int highComparison = Long.compare(high, other.high);
+            return highComparison != 0 ? highComparison : Long.compareUnsigned(longValue, other.longValue);
+        }
+        return this.decimalValue().compareTo(other.decimalValue());
+    }
+
+    /**
+     * Determines if another object is a Numeric with the same numeric value, ignoring scale.
+     * @param other The object to compare against.
+     * @return True if compareTo() would return zero.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Numeric)) {
+            return false;
+        }
+        final Numeric that = (Numeric)other;
+        if (decimal == null && that.decimal == null) {
+            return present == that.present && high == that.high && longValue == that.longValue;
+        }
+        return present == that.present && this.hashCode() == that.hashCode() && this.compareTo(that) == 0;
+    }
+
+    /**
+     * Hashes the numeric value.  A value held as a long hashes exactly as its Long does, without any allocation.  A
+     * BigDecimal value is hashed by its form without trailing zeros, or as an integer when it is integral, and the
+     * hash is cached.
+     * @return The hash, which is equal for Numerics that are equal.
+     */
+    @Override
+    public int hashCode() {
+        if (decimal == null) {
+            return present ? Numeric.integralHash(high, longValue) : 0;
+        }
+        int hash = decimalHash;
+        if (hash == 0) {
+            hash = this.computeDecimalHash();
+            decimalHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a Numeric that holds an integral value as a primitive long.
+     * @param value The value to hold.
+     * @return The new Numeric, or the canonical instance for small values.
+     */
+    static Numeric ofLong(final long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return LONG_CACHE[(int)value - CACHE_LOW];
+        }
+        return new Numeric(true, value >> 63, value, null);
+    }
+
+    /**
+     * Creates a Numeric that holds a 128-bit integral value, dropping down to a primitive long when it fits.
+     * @param value The non-null value to hold.
+     * @return The new Numeric.
+     */
+    static Numeric ofInt128(final Int128 value) {
+        return Numeric.ofInt128(value.high(), value.low());
+    }
+
+    /**
+     * Creates a Numeric that holds a 128-bit integral value from its two's complement halves.
+     * @param high The upper 64 bits.
+     * @param low The lower 64 bits.
+     * @return The new Numeric, or the canonical instance for small values.
+     */
+    static Numeric ofInt128(final long high, final long low) {
+        return high == (low >> 63) ? Numeric.ofLong(low) : new Numeric(true, high, low, null);
+    }
+
+    /**
+     * Creates a Numeric that holds a BigDecimal, dropping down to a primitive long when the BigDecimal is integral
+     * with a scale of zero and fits.  A BigDecimal with any other scale is kept as-is so that its scale survives.
+     * @param value The non-null value to hold.
+     * @return The new Numeric, or the canonical instance for common values.
+     */
+    static Numeric ofDecimal(final BigDecimal value) {
+        if (value.scale() == 0) {
+            if (value.precision() < 19 || (value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0)) {
+                return Numeric.ofLong(value.longValue());
+            }
+            final Int128 wide = Int128.of(value.unscaledValue());
+            if (wide != null) {
+                return Numeric.ofInt128(wide);
+            }
+        }
+        // precision() is cached by BigDecimal, so this screens out nearly every value before the hash lookup
+        if ((value.scale() == 1 || value.scale() == 2) && value.precision() <= 3) {
+            final Numeric cached = DECIMAL_CACHE.get(value);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return new Numeric(true, 0L, 0L, value);
+    }
+
+    /**
+     * Determines if the value is held as a primitive long.
+     * @return True if the Numeric is present and integral within the range of a long.
+     */
+    boolean isLong() {
+        return present && decimal == null && high == (longValue >> 63);
+    }
+
+    /**
+     * Determines if the value is held as a primitive long or a 128-bit integer.
+     * @return True if the Numeric is present and held without a BigDecimal.
+     */
+    boolean isIntegral() {
+        return present && decimal == null;
+    }
+
+    /**
+     * Fetches the upper half of the value as a 128-bit integer, so that it can be read without creating an Int128.
+     * Only meaningful when isIntegral() is true; longValue() holds the lower half.
+     * @return The upper 64 bits.
+     */
+    long highBits() {
+        return high;
+    }
+
+    /**
+     * Fetches the value as a 128-bit integer.  Only meaningful when isIntegral() is true.
+     * @return The Int128 value.
+     */
+    Int128 int128Value() {
+        return Int128.of(high, longValue);
+    }
+
+    /**
+     * Fetches the primitive value.  Only meaningful when isLong() is true.
+     * @return The long value.
+     */
+    long longValue() {
+        return longValue;
+    }
+
+    /**
+     * Fetches the BigDecimal value without wrapping it in an Optional.  Only meaningful when isPresent() is true.
+     * @return The value as a BigDecimal, created on demand when it is held as a long.
+     */
+    BigDecimal decimalValue() {
+        if (decimal != null) {
+            return decimal;
         }
-        this.value = SafeParser.bigDecimalFromString(value.toString());
+        return high == (longValue >> 63) ? BigDecimal.valueOf(longValue) : this.int128Value().toBigDecimal();
+    }
+
+    /**
+     * Determines if the value is held as exactly the given long, which also means it has a scale of zero.
+     */
+    private boolean isLongEqualTo(final long value) {
+        return this.isLong() && longValue == value;
+    }
+
+    /**
+     * Determines if adding a scale-zero value would leave the scale unchanged.  Only a BigDecimal with a negative
+     * scale, such as 1E+3, would have its scale raised to zero.
+     */
+    private boolean hasNonNegativeScale() {
+        return decimal == null || decimal.scale() >= 0;
+    }
+
+    /**
+     * Hashes a 128-bit integer so that values in the range of a long hash exactly as their Long does.
+     */
+    private static int integralHash(final long high, final long low) {
+        return high == (low >> 63) ? Long.hashCode(low) : 31 * Long.hashCode(high) + Long.hashCode(low);
+    }
+
+    /**
+     * Hashes a BigDecimal value consistently with the integral values it may equal.
+     */
+    private int computeDecimalHash() {
+        final BigDecimal stripped = decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        // Only integers of up to 39 digits can equal a 128-bit value, which also avoids expanding values like 1E+999
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 39) {
+            final Int128 integral = Int128.of(stripped.toBigInteger());
+            if (integral != null) {
+                return Numeric.integralHash(integral.high(), integral.low());
+            }
+        }
+        return stripped.hashCode();
+    }
+
+    /**
+     * Fetches the shared empty Numeric without logging.
+     * @return The empty Numeric.
+     */
+    static Numeric empty() {
+        return EMPTY;
+    }
+
+    private Numeric(final boolean present, final long high, final long longValue, final BigDecimal decimal) {
+        this.present = present;
+        this.high = high;
+        this.longValue = longValue;
+        this.decimal = decimal;
     }
 
     /**
      * Transforms the input into a Numeric, attempts to apply a math function to its internal value in relation to the
      * currently-encapsulated value for this, and ships the completed computation out as a new Numeric, maintaining
-     * immutability.
+     * immutability.  When both values are held as longs the long arithmetic is tried first, then the 128-bit arithmetic
+     * for integral values, and the BigDecimal arithmetic is only used if neither can produce the exact result.  An
+     * operation that is known to leave an operand unchanged, such as adding zero, hands back that operand.
      * @param manipulation The input value to transform into a Numeric.
-     * @param manipulator The Function describing how to transform the value of this.
+     * @param operation The Operation describing how to transform the value of this.
      * @param <T> Any Type that can be converted to a Numeric from the whitelist.
      * @return A new Numeric representing the mathematical transformation.
      */
-    private<T> Numeric applyMath(final T manipulation,
-                                 final BiFunction<BigDecimal, BigDecimal, BigDecimal> manipulator) {
-        if (manipulator == null) {
-            log.error("This is a bug! An internal call to applyMath supplied a null manipulation function!");
+    private<T> Numeric applyMath(final T manipulation, final Operation operation) {
+        if (operation == null) {
+            log.error("This is a bug! An internal call to applyMath supplied a null operation!");
             return this;
         }
-        if (!this.value.isPresent()) {
+        if (!this.present) {
             return this;
         }
-        final BigDecimal input = new Numeric(manipulation).getBigDecimal().orElse(null);
-        if (input == null) {
+        final Numeric input = Numeric.of(manipulation);
+        if (!input.present) {
             return this;
         }
-        return new Numeric(manipulator.apply(this.value.get(), input));
+        final Numeric identity = operation.identity(this, input);
+        if (identity != null) {
+            return identity;
+        }
+        if (this.isLong() && input.isLong()) {
+            final Numeric result = operation.applyLong(this.longValue, input.longValue);
+            if (result != null) {
+                return result;
+            }
+            if (operation.hasInt128()) {
+                INT128_FALLBACKS.increment();
+            }
+        }
+        if (this.isIntegral() && input.isIntegral()) {
+            if (operation.hasInt128()) {
+                final Int128 result = operation.applyInt128(this.int128Value(), input.int128Value());
+                if (result != null) {
+                    return Numeric.ofInt128(result);
+                }
+            }
+            DECIMAL_FALLBACKS.increment();
+        }
+        return Numeric.ofDecimal(operation.apply(this.decimalValue(), input.decimalValue()));
+    }
+
+    /**
+     * Truncates the value toward zero, the same way a decimal cast to an integral type would, and checks it against the
+     * range of the target Type.
+     * @param type The Type being converted to.
+     * @param min The smallest value of the Type.
+     * @param max The largest value of the Type.
+     * @param boxer Narrows and boxes the truncated value.
+     * @param <T> Any integral Type.
+     * @return The converted value, or an empty Optional if absent or out of range.
+     */
+    private<T> Optional<T> integral(final Class<T> type, final long min, final long max,
+                                    final LongFunction<T> boxer) {
+        if (!present) {
+            return Optional.empty();
+        }
+        final long truncated;
+        if (this.isLong()) {
+            truncated = longValue;
+        } else if (decimal == null) {
+            return this.outOfRange(type);
+        } else if (decimal.compareTo(BELOW_LONG_MIN) > 0 && decimal.compareTo(ABOVE_LONG_MAX) < 0) {
+            truncated = decimal.longValue();
+        } else {
+            return this.outOfRange(type);
+        }
+        if (truncated < min || truncated > max) {
+            return this.outOfRange(type);
+        }
+        return Optional.of(boxer.apply(truncated));
+    }
+
+    /**
+     * Logs and produces an empty result for a conversion that falls outside of the target Type's range.
+     * @param type The Type being converted to.
+     * @param <T> Any numeric Type.
+     * @return An empty Optional.
+     */
+    private<T> Optional<T> outOfRange(final Class<T> type) {
+        log.error("Failed to convert [{}] to a/an [{}]! The value is out of range.",
+                this.decimalValue(), type.getSimpleName());
+        return Optional.empty();
+    }
+
+    /**
+     * Resolves how values of a Class are converted to a Numeric.  Only called once per Class; the result is cached in
+     * INPUT_HANDLERS.
+     * @param type The Class of an input value.
+     * @return The conversion for the Class.  Unsupported Classes get a conversion that logs and returns empty.
+     */
+    private static Function<Object, Numeric> inputHandler(final Class<?> type) {
+        if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+            return value -> Numeric.ofLong(((Number)value).longValue());
+        }
+        if (type == Double.class) {
+            // BigDecimal.valueOf uses Double.toString's digits, matching how doubles have always been read
+            return value -> Numeric.ofFloatingPoint((Double)value, BigDecimal::valueOf);
+        }
+        if (type == Float.class) {
+            // Float.toString's digits are shorter than the widened double's, and are the digits users expect
+            return value -> Numeric.ofFloatingPoint((Float)value, floatValue -> new BigDecimal(floatValue.toString()));
+        }
+        if (type == BigDecimal.class) {
+            return value -> Numeric.ofDecimal((BigDecimal)value);
+        }
+        if (BigDecimal.class.isAssignableFrom(type)) {
+            // Copy subclasses into a plain BigDecimal so that no overridden behavior leaks in
+            return value -> Numeric.ofDecimal(new BigDecimal(((BigDecimal)value).unscaledValue(),
+                    ((BigDecimal)value).scale()));
+        }
+        if (type == Numeric.class) {
+            return value -> (Numeric)value;
+        }
+        return value -> {
+            log.error("Numeric does not support instances of {}! Please enter any of: [{}]",
+                    type.getSimpleName(), NUMERIC_CLASSES_MESSAGE);
+            return EMPTY;
+        };
+    }
+
+    /**
+     * Converts a Float or Double, rejecting the values that have no decimal representation.
+     * @param value The floating-point value.
+     * @param converter Produces the BigDecimal for a finite value.
+     * @param <T> Float or Double.
+     * @return The Numeric, or an empty Numeric for NaN and infinities.
+     */
+    private static<T extends Number> Numeric ofFloatingPoint(final T value, final Function<T, BigDecimal> converter) {
+        final double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            log.error("Numeric cannot represent [{}]!", value);
+            return EMPTY;
+        }
+        return Numeric.ofDecimal(converter.apply(value));
+    }
+
+    /**
+     * The supported arithmetic, each with an exact long implementation and the BigDecimal implementation that defines
+     * its semantics.
+     */
+    enum Operation {
+        ADD {
+            @Override
+            Numeric identity(final Numeric first, final Numeric second) {
+                if (second.isLongEqualTo(0) && first.hasNonNegativeScale()) {
+                    return first;
+                }
+                return first.isLongEqualTo(0) && second.hasNonNegativeScale() ? second : null;
+            }
+
+            @Override
+            Numeric applyLong(final long first, final long second) {
+                final long result = first + second;
+                // The same check Math.addExact makes, without throwing: overflow flips the sign of both operands
+                return ((first ^ result) & (second ^ result)) < 0 ? null : Numeric.ofLong(result);
+            }
+
+            @Override
+            Int128 applyInt128(final Int128 first, final Int128 second) {
+                return first.add(second);
+            }
+
+            @Override
+            BigDecimal apply(final BigDecimal first, final BigDecimal second) {
+                return first.add(second);
+            }
+        },
+        SUBTRACT {
+            @Override
+            Numeric identity(final Numeric first, final Numeric second) {
+                return second.isLongEqualTo(0) && first.hasNonNegativeScale() ? first : null;
+            }
+
+            @Override
+            Numeric applyLong(final long first, final long second) {
+                final long result = first - second;
+                // The same check Math.subtractExact makes, without throwing
+                return ((first ^ second) & (first ^ result)) < 0 ? null : Numeric.ofLong(result);
+            }
+
+            @Override
+            Int128 applyInt128(final Int128 first, final Int128 second) {
+                return first.subtract(second);
+            }
+
+            @Override
+            BigDecimal apply(final BigDecimal first, final BigDecimal second) {
+                return first.subtract(second);
+            }
+        },
+        MULTIPLY {
+            @Override
+            Numeric identity(final Numeric first, final Numeric second) {
+                // Multiplying by a scale-zero one adds nothing to the scale, so the result is exactly the other operand
+                if (second.isLongEqualTo(1)) {
+                    return first;
+                }
+                return first.isLongEqualTo(1) ? second : null;
+            }
+
+            @Override
+            Numeric applyLong(final long first, final long second) {
+                final long result = first * second;
+                // The same check Math.multiplyExact makes, without throwing
+                if (((Math.abs(first) | Math.abs(second)) >>> 31) != 0
+                        && ((second != 0 && result / second != first)
+                        || (first == Long.MIN_VALUE && second == -1))) {
+                    return null;
+                }
+                return Numeric.ofLong(result);
+            }
+
+            @Override
+            Int128 applyInt128(final Int128 first, final Int128 second) {
+                return first.multiply(second);
+            }
+
+            @Override
+            BigDecimal apply(final BigDecimal first, final BigDecimal second) {
+                return first.multiply(second);
+            }
+        },
+        DIVIDE {
+            @Override
+            Numeric identity(final Numeric first, final Numeric second) {
+                // DECIMAL128 would round a dividend with more than 34 digits, so only shorter values are returned as-is
+                if (second.isLongEqualTo(1) && (first.isLong()
+                        || (first.decimal != null && first.decimal.precision() <= DECIMAL128_DIGITS))) {
+                    return first;
+                }
+                return null;
+            }
+
+            @Override
+            Numeric applyLong(final long first, final long second) {
+                // An exact quotient of two scale-zero values has a preferred scale of zero, so it is a long too.
+                // Anything else (fractions, division by zero, MIN_VALUE / -1) is left to BigDecimal.
+                if (second == 0 || (first == Long.MIN_VALUE && second == -1) || first % second != 0) {
+                    return null;
+                }
+                return Numeric.ofLong(first / second);
+            }
+
+            @Override
+            boolean hasInt128() {
+                // Quotients of values this large are rare enough to leave to BigDecimal
+                return false;
+            }
+
+            @Override
+            Int128 applyInt128(final Int128 first, final Int128 second) {
+                return null;
+            }
+
+            @Override
+            BigDecimal apply(final BigDecimal first, final BigDecimal second) {
+                return first.divide(second, MathContext.DECIMAL128);
+            }
+        };
+
+        /**
+         * Applies the operation to two longs.
+         * @return The exact result, or null if the result is not an exact long.
+         */
+        abstract Numeric applyLong(long first, long second);
+
+        /**
+         * Recognizes operations that leave an operand unchanged, such as adding zero or multiplying by one, in the
+         * cases where BigDecimal would produce a value with the same scale as that operand.
+         * @return The unchanged operand, or null if the operation must be carried out.
+         */
+        abstract Numeric identity(Numeric first, Numeric second);
+
+        /**
+         * Whether applyInt128 can produce a result, so that arithmetic it cannot handle goes straight to BigDecimal.
+         * @return True unless the operation has no 128-bit implementation.
+         */
+        boolean hasInt128() {
+            return true;
+        }
+
+        /**
+         * Applies the operation to two 128-bit integers.
+         * @return The exact result, or null if the result is not an exact 128-bit integer.
+         */
+        abstract Int128 applyInt128(Int128 first, Int128 second);
+
+        /**
+         * Applies the operation to two BigDecimals.
+         * @return The result.
+         */
+        abstract BigDecimal apply(BigDecimal first, BigDecimal second);
     }
 }
@@ -0,0 +1,288 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * The mutable state behind NumericCollectors.  Each stream segment fills its own accumulator and segments are merged
+ * with combine(), which is associative in both modes, so parallel streams split and join without sharing state.
+ * <p>
+ * EXACT mode keeps integral values in primitive longs, only promoting a running total to BigDecimal once it overflows
+ * or a fractional value arrives.  FAST mode converts every value to a double and sums with Neumaier's compensated
+ * summation, tracking the mean and squared deviations with Welford's method and merging them with Chan's formula.
+ */
+final class NumericAccumulator {
+    // The largest magnitude whose square fits in a long
+    private static final long MAX_SQUARABLE = 3_037_000_499L;
+    private final NumericCollectors.Mode mode;
+    // Whether sums of squares are needed.  Skipping them keeps plain sums free of the extra multiply.
+    private final boolean moments;
+    // Whether the minimum and maximum are needed.  Skipping them saves two comparisons per value, which allocate when
+    // longs and decimals are mixed.
+    private final boolean extremes;
+    private long count;
+    private Numeric min = Numeric.empty();
+    private Numeric max = Numeric.empty();
+    // EXACT mode: the total is longSum + decimalSum, with decimalSum null until it is needed
+    private long longSum;
+    private BigDecimal decimalSum;
+    private long longSquares;
+    private BigDecimal decimalSquares;
+    // FAST mode: Neumaier sum and its running compensation, plus the Welford mean and squared deviations
+    private double doubleSum;
+    private double compensation;
+    private double mean;
+    private double squaredDeviations;
+
+    NumericAccumulator(final NumericCollectors.Mode mode, final boolean moments, final boolean extremes) {
+        this.mode = mode;
+        this.moments = moments;
+        this.extremes = extremes;
+    }
+
+    /**
+     * Adds a value.  Null and empty Numerics are skipped.
+     * @param value The value to add.
+     */
+    void accept(final Numeric value) {
+        if (value == null || !value.isPresent()) {
+            return;
+        }
+        count++;
+        if (extremes) {
+            this.acceptExtremes(value);
+        }
+        if (mode == NumericCollectors.Mode.FAST) {
+            this.acceptDouble(value.isLong() ? (double)value.longValue() : value.decimalValue().doubleValue());
+        } else if (value.isLong()) {
+            this.acceptLong(value.longValue());
+        } else {
+            this.acceptDecimal(value.decimalValue());
+        }
+    }
+
+    /**
+     * Merges another accumulator of the same mode into this one.
+     * @param other The accumulator to merge.
+     * @return This accumulator.
+     */
+    NumericAccumulator combine(final NumericAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        if (extremes) {
+            this.acceptExtremes(other.min);
+            this.acceptExtremes(other.max);
+        }
+        if (mode == NumericCollectors.Mode.FAST) {
+            this.neumaierAdd(other.doubleSum);
+            compensation += other.compensation;
+            final double delta = other.mean - mean;
+            final double total = count + other.count;
+            squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / total;
+            mean += delta * other.count / total;
+        } else {
+            this.addLongSum(other.longSum);
+            if (other.decimalSum != null) {
+                decimalSum = decimalSum == null ? other.decimalSum : decimalSum.add(other.decimalSum);
+            }
+            this.addLongSquares(other.longSquares);
+            if (other.decimalSquares != null) {
+                decimalSquares = decimalSquares == null
+                        ? other.decimalSquares
+                        : decimalSquares.add(other.decimalSquares);
+            }
+        }
+        count += other.count;
+        return this;
+    }
+
+    long count() {
+        return count;
+    }
+
+    Numeric min() {
+        return min;
+    }
+
+    Numeric max() {
+        return max;
+    }
+
+    /**
+     * Calculates the total of every value.
+     * @return The sum, which is zero when no values were added, or empty if a FAST sum is not finite.
+     */
+    Numeric sum() {
+        if (mode == NumericCollectors.Mode.FAST) {
+            return Numeric.of(doubleSum + compensation);
+        }
+        return decimalSum == null ? Numeric.ofLong(longSum) : Numeric.ofDecimal(this.exactSum());
+    }
+
+    /**
+     * Calculates the arithmetic mean.
+     * @return The mean, or an empty Numeric when no values were added.
+     */
+    Numeric average() {
+        if (count == 0) {
+            return Numeric.empty();
+        }
+        if (mode == NumericCollectors.Mode.FAST) {
+            return Numeric.of((doubleSum + compensation) / count);
+        }
+        return Numeric.ofDecimal(this.exactSum().divide(BigDecimal.valueOf(count), MathContext.DECIMAL128));
+    }
+
+    /**
+     * Calculates the population variance.  EXACT mode works out n * sum(x^2) - sum(x)^2 exactly and divides once, so
+     * there is none of the cancellation that makes the textbook formula unreliable with doubles.
+     * @return The variance, or an empty Numeric when no values were added.
+     */
+    Numeric variance() {
+        if (count == 0) {
+            return Numeric.empty();
+        }
+        if (mode == NumericCollectors.Mode.FAST) {
+            return Numeric.of(squaredDeviations / count);
+        }
+        return Numeric.ofDecimal(this.exactVariance());
+    }
+
+    /**
+     * Calculates the population standard deviation.
+     * @return The standard deviation, or an empty Numeric when no values were added.
+     */
+    Numeric standardDeviation() {
+        if (count == 0) {
+            return Numeric.empty();
+        }
+        if (mode == NumericCollectors.Mode.FAST) {
+            return Numeric.of(Math.sqrt(squaredDeviations / count));
+        }
+        return Numeric.ofDecimal(NumericAccumulator.squareRoot(this.exactVariance()));
+    }
+
+    private void acceptExtremes(final Numeric value) {
+        if (!min.isPresent() || value.compareTo(min) < 0) {
+            min = value;
+        }
+        if (!max.isPresent() || value.compareTo(max) > 0) {
+            max = value;
+        }
+    }
+
+    private void acceptLong(final long value) {
+        this.addLongSum(value);
+        if (moments) {
+            if (value > MAX_SQUARABLE || value < -MAX_SQUARABLE) {
+                this.addDecimalSquare(BigDecimal.valueOf(value));
+            } else {
+                this.addLongSquares(value * value);
+            }
+        }
+    }
+
+    private void acceptDecimal(final BigDecimal value) {
+        decimalSum = decimalSum == null ? value : decimalSum.add(value);
+        if (moments) {
+            this.addDecimalSquare(value);
+        }
+    }
+
+    private void acceptDouble(final double value) {
+        this.neumaierAdd(value);
+        if (moments) {
+            final double delta = value - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (value - mean);
+        }
+    }
+
+    /**
+     * Adds to the running double sum, carrying the low-order bits lost to rounding in the compensation term.  Unlike
+     * Kahan's original, this stays accurate when the value being added is larger than the running sum.
+     */
+    private void neumaierAdd(final double value) {
+        final double total = doubleSum + value;
+        if (Math.abs(doubleSum) >= Math.abs(value)) {
+            compensation += (doubleSum - total) + value;
+        } else {
+            compensation += (value - total) + doubleSum;
+        }
+        doubleSum = total;
+    }
+
+    private void addLongSum(final long value) {
+        final long total = longSum + value;
+        // Overflow iff both operands share a sign that the result does not
+        if (((longSum ^ total) & (value ^ total)) < 0) {
+            decimalSum = decimalSum == null ? BigDecimal.valueOf(longSum) : decimalSum.add(BigDecimal.valueOf(longSum));
+            longSum = value;
+        } else {
+            longSum = total;
+        }
+    }
+
+    private void addLongSquares(final long value) {
+        final long total = longSquares + value;
+        // Squares are never negative, so any wrap shows up as a negative total
+        if (total < 0) {
+            final BigDecimal squares = BigDecimal.valueOf(longSquares).add(BigDecimal.valueOf(value));
+            decimalSquares = decimalSquares == null ? squares : decimalSquares.add(squares);
+            longSquares = 0;
+        } else {
+            longSquares = total;
+        }
+    }
+
+    private void addDecimalSquare(final BigDecimal value) {
+        final BigDecimal square = value.multiply(value);
+        decimalSquares = decimalSquares == null ? square : decimalSquares.add(square);
+    }
+
+    private BigDecimal exactSum() {
+        final BigDecimal longPart = BigDecimal.valueOf(longSum);
+        return decimalSum == null ? longPart : decimalSum.add(longPart);
+    }
+
+    private BigDecimal exactVariance() {
+        final BigDecimal squares = decimalSquares == null
+                ? BigDecimal.valueOf(longSquares)
+                : decimalSquares.add(BigDecimal.valueOf(longSquares));
+        final BigDecimal sum = this.exactSum();
+        final BigDecimal n = BigDecimal.valueOf(count);
+        final BigDecimal numerator = n.multiply(squares).subtract(sum.multiply(sum));
+        return numerator.divide(n.multiply(n), MathContext.DECIMAL128);
+    }
+
+    /**
+     * Newton's method square root to DECIMAL128 precision, since BigDecimal.sqrt() is not available on Java 8.
+     * @param value A non-negative value.
+     * @return The square root.
+     */
+    static BigDecimal squareRoot(final BigDecimal value) {
+        if (value.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        final BigDecimal two = BigDecimal.valueOf(2);
+        final double doubleEstimate = Math.sqrt(value.doubleValue());
+        // Outside the range of a double, start from a power of ten with the right magnitude instead
+        BigDecimal estimate = doubleEstimate > 0 && !Double.isInfinite(doubleEstimate)
+                ? BigDecimal.valueOf(doubleEstimate)
+                : BigDecimal.ONE.movePointRight((value.precision() - value.scale()) / 2);
+        // Each step doubles the number of correct digits, so this converges long before the limit
+        for (int i = 0; i < 16; i++) {
+            final BigDecimal next = estimate.add(value.divide(estimate, MathContext.DECIMAL128))
+                    .divide(two, MathContext.DECIMAL128);
+            if (next.compareTo(estimate) == 0) {
+                break;
+            }
+            estimate = next;
+        }
+        return estimate;
+    }
+}
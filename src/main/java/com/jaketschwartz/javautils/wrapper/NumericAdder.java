@@ -0,0 +1,283 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A running total that many threads can add to at once, in the style of LongAdder.  Uncontended adds go to a single
+ * base value; once two threads collide, adds are spread over a table of cells, each on its own cache line, so threads
+ * stop fighting over one memory location.  sum() walks the cells, which makes it more expensive than an add and means
+ * it is not an atomic snapshot while adds are in flight.
+ * <p>
+ * Every cell holds a primitive long for integral input, plus a BigDecimal that only comes into play for fractional
+ * input or once the long would overflow, so totals are exact and integral-only workloads never allocate.
+ */
+public final class NumericAdder {
+    private static final int MAX_CELLS = NumericAdder.tableSize(Runtime.getRuntime().availableProcessors());
+    // Each thread's preferred cell index, advanced whenever the thread collides with another in its cell
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{
+            NumericAdder.mix((int)Thread.currentThread().getId())});
+    private final Cell base = new Cell();
+    private volatile Cell[] cells;
+
+    /**
+     * Creates an adder with a total of zero.
+     */
+    public NumericAdder() {
+    }
+
+    /**
+     * Adds a value to the total.
+     * @param value Any value that can be converted to a Numeric.  Null and unsupported values are logged and ignored.
+     * @param <T> Any Type that can be converted to a Numeric.
+     */
+    public<T> void add(final T value) {
+        final Numeric numeric = Numeric.of(value);
+        if (!numeric.isPresent()) {
+            return;
+        }
+        if (numeric.isLong()) {
+            this.add(numeric.longValue());
+        } else {
+            this.addDecimal(numeric.decimalValue());
+        }
+    }
+
+    /**
+     * Adds an integral value to the total without creating a Numeric.
+     * @param value The value to add.
+     */
+    public void add(final long value) {
+        final Cell[] table = cells;
+        if (table == null) {
+            final long current = base.value();
+            final long total = current + value;
+            if (NumericAdder.overflowed(current, value, total)
+                    ? base.tryAddDecimal(BigDecimal.valueOf(value))
+                    : base.casValue(current, total)) {
+                return;
+            }
+        }
+        final int[] probe = PROBE.get();
+        while (true) {
+            final Cell cell = this.cellFor(probe);
+            final long current = cell.value();
+            final long total = current + value;
+            if (NumericAdder.overflowed(current, value, total)) {
+                cell.addDecimal(BigDecimal.valueOf(value));
+                return;
+            }
+            if (cell.casValue(current, total)) {
+                return;
+            }
+            probe[0] = NumericAdder.advance(probe[0]);
+        }
+    }
+
+    /**
+     * Calculates the current total.  Adds that happen while the sum is being calculated may or may not be included.
+     * @return The total, which is zero if nothing has been added.
+     */
+    public Numeric sum() {
+        final Accumulation accumulation = new Accumulation();
+        accumulation.add(base.value(), base.decimal());
+        final Cell[] table = cells;
+        if (table != null) {
+            for (final Cell cell : table) {
+                accumulation.add(cell.value(), cell.decimal());
+            }
+        }
+        return accumulation.toNumeric();
+    }
+
+    /**
+     * Calculates the current total and resets the adder to zero.  Adds that happen during the reset are either
+     * included in the returned total or kept in the adder, never lost.
+     * @return The total before the reset.
+     */
+    public Numeric sumThenReset() {
+        final Accumulation accumulation = new Accumulation();
+        base.drainInto(accumulation);
+        final Cell[] table = cells;
+        if (table != null) {
+            for (final Cell cell : table) {
+                cell.drainInto(accumulation);
+            }
+        }
+        return accumulation.toNumeric();
+    }
+
+    @Override
+    public String toString() {
+        return this.sum().decimalValue().toPlainString();
+    }
+
+    private void addDecimal(final BigDecimal value) {
+        final Cell[] table = cells;
+        if (table == null && base.tryAddDecimal(value)) {
+            return;
+        }
+        this.cellFor(PROBE.get()).addDecimal(value);
+    }
+
+    /**
+     * Whether adds have collided and are now spread over the cell table.
+     */
+    boolean isContended() {
+        return cells != null;
+    }
+
+    /**
+     * Fetches the cell for a thread, creating the table on first contention.
+     */
+    private Cell cellFor(final int[] probe) {
+        Cell[] table = cells;
+        if (table == null) {
+            synchronized (this) {
+                table = cells;
+                if (table == null) {
+                    table = new Cell[MAX_CELLS];
+                    for (int i = 0; i < table.length; i++) {
+                        table[i] = new Cell();
+                    }
+                    cells = table;
+                }
+            }
+        }
+        return table[probe[0] & (table.length - 1)];
+    }
+
+    private static boolean overflowed(final long current, final long value, final long total) {
+        // Overflow iff both operands share a sign that the result does not
+        return ((current ^ total) & (value ^ total)) < 0;
+    }
+
+    private static int mix(final int seed) {
+        final int hash = seed * 0x9E3779B9;
+        return hash == 0 ? 1 : hash;
+    }
+
+    // Marsaglia xorshift, as used by LongAdder to pick a new cell after a collision
+    private static int advance(final int probe) {
+        int next = probe ^ (probe << 13);
+        next ^= next >>> 17;
+        return next ^ (next << 5);
+    }
+
+    /**
+     * Rounds up to a power of two so that cell indexes can be masked rather than divided.
+     */
+    private static int tableSize(final int processors) {
+        int size = 1;
+        while (size < processors) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Padding laid out ahead of a cell's fields.  HotSpot groups a class's fields by type, with references last, so the
+     * padding on each side lives in its own class; a superclass's fields always come before a subclass's.  The int
+     * fills the gap after the object header, which newer JVMs would otherwise use for the decimal reference.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class CellPadding {
+        private int p;
+        private long p0, p1, p2, p3, p4, p5, p6;
+    }
+
+    /**
+     * The fields of a cell, kept between CellPadding and the padding in Cell.
+     */
+    private abstract static class CellFields extends CellPadding {
+        private static final AtomicLongFieldUpdater<CellFields> VALUE =
+                AtomicLongFieldUpdater.newUpdater(CellFields.class, "value");
+        private static final AtomicReferenceFieldUpdater<CellFields, BigDecimal> DECIMAL =
+                AtomicReferenceFieldUpdater.newUpdater(CellFields.class, BigDecimal.class, "decimal");
+        private volatile long value;
+        // The part of this cell's total that is fractional or too large for value.  Null until needed.
+        private volatile BigDecimal decimal;
+
+        final long value() {
+            return value;
+        }
+
+        final BigDecimal decimal() {
+            return decimal;
+        }
+
+        final boolean casValue(final long expected, final long update) {
+            return VALUE.compareAndSet(this, expected, update);
+        }
+
+        final boolean casDecimal(final BigDecimal expected, final BigDecimal update) {
+            return DECIMAL.compareAndSet(this, expected, update);
+        }
+
+        final long getAndResetValue() {
+            return VALUE.getAndSet(this, 0L);
+        }
+
+        final BigDecimal getAndResetDecimal() {
+            return DECIMAL.getAndSet(this, null);
+        }
+    }
+
+    /**
+     * One slot of the total.  Padded on both sides so that neighboring cells in the table never share a cache line.
+     */
+    @SuppressWarnings("unused")
+    private static final class Cell extends CellFields {
+        private long q0, q1, q2, q3, q4, q5, q6;
+
+        /**
+         * Makes a single attempt to add to the decimal part, which fails if another thread changed it first.
+         */
+        private boolean tryAddDecimal(final BigDecimal addend) {
+            final BigDecimal current = this.decimal();
+            return this.casDecimal(current, current == null ? addend : current.add(addend));
+        }
+
+        private void addDecimal(final BigDecimal addend) {
+            boolean added;
+            do {
+                added = this.tryAddDecimal(addend);
+            } while (!added);
+        }
+
+        private void drainInto(final Accumulation accumulation) {
+            accumulation.add(this.getAndResetValue(), this.getAndResetDecimal());
+        }
+    }
+
+    /**
+     * Totals cells on the reading thread, staying in a long until it overflows.
+     */
+    private static final class Accumulation {
+        private long longTotal;
+        private BigDecimal decimalTotal;
+
+        private void add(final long value, final BigDecimal decimal) {
+            final long total = longTotal + value;
+            if (NumericAdder.overflowed(longTotal, value, total)) {
+                this.addDecimal(BigDecimal.valueOf(value));
+            } else {
+                longTotal = total;
+            }
+            if (decimal != null) {
+                this.addDecimal(decimal);
+            }
+        }
+
+        private void addDecimal(final BigDecimal value) {
+            decimalTotal = decimalTotal == null ? value : decimalTotal.add(value);
+        }
+
+        private Numeric toNumeric() {
+            return decimalTotal == null
+                    ? Numeric.ofLong(longTotal)
+                    : Numeric.ofDecimal(decimalTotal.add(BigDecimal.valueOf(longTotal)));
+        }
+    }
+}
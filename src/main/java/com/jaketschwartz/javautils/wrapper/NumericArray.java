@@ -0,0 +1,628 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * A column of numeric values with the same arithmetic as Numeric, stored without a Numeric, Optional or BigDecimal per
+ * element.  Values are held as a long[] of unscaled values sharing one scale (a scale of zero being plain longs)
+ * whenever every value fits, and as a BigDecimal[] otherwise.  Doubles are read the same way Numeric reads them, so
+ * they land in the scaled storage rather than a double[] that would not match Numeric's decimal results.
+ * <p>
+ * Arithmetic on scaled storage runs as plain loops over long[]s, checking for overflow as it goes; if any element
+ * overflows, or an operation cannot be represented exactly (such as an inexact division), the whole operation is redone
+ * with BigDecimal arithmetic and then packed back into scaled storage if the results allow it.  Results are numerically
+ * equal to the Numeric results element by element, though every element of a column shares the column's scale.
+ * <p>
+ * Instances are immutable.  Calling parallel() produces a view whose operations split large columns across the common
+ * ForkJoinPool.
+ */
+public final class NumericArray {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericArray.class);
+    // Columns shorter than this are always processed on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int PARALLEL_CHUNK = 1 << 12;
+    // The largest power of ten that fits in a long
+    private static final int MAX_POWER_OF_TEN = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_POWER_OF_TEN + 1];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_POWER_OF_TEN; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    // Unscaled values when every value fits, or null when decimals holds the values
+    private final long[] unscaled;
+    // The scale shared by every unscaled value.  Only meaningful when unscaled is non-null.
+    private final int scale;
+    // The values when they cannot be held by unscaled, or null when unscaled holds them
+    private final BigDecimal[] decimals;
+    private final boolean parallel;
+
+    /**
+     * Creates a column of integral values.
+     * @param values The values to copy into the column.
+     * @return The new column, or an empty column on null input.
+     */
+    public static NumericArray of(final long... values) {
+        return new NumericArray(values == null ? new long[0] : values.clone(), 0, null, false);
+    }
+
+    /**
+     * Creates a column of integral values.
+     * @param values The values to copy into the column.
+     * @return The new column, or an empty column on null input.
+     */
+    public static NumericArray of(final int... values) {
+        final long[] longs = new long[values == null ? 0 : values.length];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = values[i];
+        }
+        return new NumericArray(longs, 0, null, false);
+    }
+
+    /**
+     * Creates a column of floating-point values, reading each value's digits the same way Numeric does.
+     * @param values The values to copy into the column.
+     * @return The new column, or an empty Optional on null input or if any value is NaN or infinite.
+     */
+    public static Optional<NumericArray> of(final double... values) {
+        if (values == null) {
+            log.warn("Null values supplied to NumericArray!");
+            return Optional.empty();
+        }
+        final BigDecimal[] decimals = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (Double.isNaN(values[i]) || Double.isInfinite(values[i])) {
+                log.error("NumericArray cannot represent [{}] at index {}!", values[i], i);
+                return Optional.empty();
+            }
+            decimals[i] = BigDecimal.valueOf(values[i]);
+        }
+        return Optional.of(NumericArray.pack(decimals, false));
+    }
+
+    /**
+     * Creates a column of decimal values.
+     * @param values The values to copy into the column.
+     * @return The new column, or an empty Optional on null input or if any value is null.
+     */
+    public static Optional<NumericArray> of(final BigDecimal... values) {
+        if (values == null || Arrays.stream(values).anyMatch(value -> value == null)) {
+            log.warn("Null values supplied to NumericArray!");
+            return Optional.empty();
+        }
+        return Optional.of(NumericArray.pack(values.clone(), false));
+    }
+
+    /**
+     * Creates a column from a Collection of Numerics.
+     * @param values The values to copy into the column.
+     * @return The new column, or an empty Optional on null input or if any Numeric is absent.
+     */
+    public static Optional<NumericArray> ofNumerics(final Collection<Numeric> values) {
+        if (values == null || values.stream().anyMatch(value -> value == null || !value.isPresent())) {
+            log.warn("Null or empty Numerics supplied to NumericArray!");
+            return Optional.empty();
+        }
+        if (values.stream().allMatch(Numeric::isLong)) {
+            return Optional.of(new NumericArray(values.stream().mapToLong(Numeric::longValue).toArray(), 0, null,
+                    false));
+        }
+        return Optional.of(NumericArray.pack(values.stream().map(Numeric::decimalValue).toArray(BigDecimal[]::new),
+                false));
+    }
+
+    private NumericArray(final long[] unscaled, final int scale, final BigDecimal[] decimals,
+                         final boolean parallel) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.decimals = decimals;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Fetches the number of values in the column.
+     * @return The length of the column.
+     */
+    public int length() {
+        return unscaled != null ? unscaled.length : decimals.length;
+    }
+
+    /**
+     * Fetches a single value from the column.
+     * @param index The index of the value.
+     * @return The value, or an empty Numeric if the index is out of bounds.
+     */
+    public Numeric get(final int index) {
+        if (index < 0 || index >= this.length()) {
+            log.error("Index {} is out of bounds for a NumericArray of length {}!", index, this.length());
+            return Numeric.empty();
+        }
+        if (unscaled == null) {
+            return Numeric.ofDecimal(decimals[index]);
+        }
+        return scale == 0 ? Numeric.ofLong(unscaled[index]) : Numeric.ofDecimal(BigDecimal.valueOf(unscaled[index],
+                scale));
+    }
+
+    /**
+     * Produces a view of the column whose operations run in parallel for large columns.
+     * @return The parallel view.  The values are shared, not copied.
+     */
+    public NumericArray parallel() {
+        return parallel ? this : new NumericArray(unscaled, scale, decimals, true);
+    }
+
+    /**
+     * Produces a view of the column whose operations always run on the calling thread.
+     * @return The sequential view.  The values are shared, not copied.
+     */
+    public NumericArray sequential() {
+        return parallel ? new NumericArray(unscaled, scale, decimals, false) : this;
+    }
+
+    /**
+     * Determines if operations on the column run in parallel for large columns.
+     * @return True for a parallel view.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Copies the column into a double[], rounding each value to the nearest double.
+     * @return The values as doubles.
+     */
+    public double[] toDoubleArray() {
+        final double[] doubles = new double[this.length()];
+        if (unscaled == null) {
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = decimals[i].doubleValue();
+            }
+        } else if (scale == 0) {
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = unscaled[i];
+            }
+        } else {
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = BigDecimal.valueOf(unscaled[i], scale).doubleValue();
+            }
+        }
+        return doubles;
+    }
+
+    /**
+     * Copies the column into a BigDecimal[].
+     * @return The values as BigDecimals.
+     */
+    public BigDecimal[] toBigDecimalArray() {
+        if (unscaled == null) {
+            return decimals.clone();
+        }
+        final BigDecimal[] copy = new BigDecimal[unscaled.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = BigDecimal.valueOf(unscaled[i], scale);
+        }
+        return copy;
+    }
+
+    /**
+     * Adds each value of another column to the value at the same index of this column.
+     * @param augends The column to add.  Must be the same length as this column.
+     * @return A new column of sums, or this column if the lengths differ.
+     */
+    public NumericArray add(final NumericArray augends) {
+        return this.applyMath(augends, Numeric.Operation.ADD);
+    }
+
+    /**
+     * Adds a single value to every value of this column.
+     * @param augend The value to add.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return A new column of sums, or this column if the value cannot be converted.
+     */
+    public<T> NumericArray add(final T augend) {
+        return this.applyScalar(augend, Numeric.Operation.ADD);
+    }
+
+    /**
+     * Subtracts each value of another column from the value at the same index of this column.
+     * @param subtrahends The column to subtract.  Must be the same length as this column.
+     * @return A new column of differences, or this column if the lengths differ.
+     */
+    public NumericArray subtract(final NumericArray subtrahends) {
+        return this.applyMath(subtrahends, Numeric.Operation.SUBTRACT);
+    }
+
+    /**
+     * Subtracts a single value from every value of this column.
+     * @param subtrahend The value to subtract.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return A new column of differences, or this column if the value cannot be converted.
+     */
+    public<T> NumericArray subtract(final T subtrahend) {
+        return this.applyScalar(subtrahend, Numeric.Operation.SUBTRACT);
+    }
+
+    /**
+     * Multiplies each value of this column by the value at the same index of another column.
+     * @param multiplicands The column to multiply by.  Must be the same length as this column.
+     * @return A new column of products, or this column if the lengths differ.
+     */
+    public NumericArray multiply(final NumericArray multiplicands) {
+        return this.applyMath(multiplicands, Numeric.Operation.MULTIPLY);
+    }
+
+    /**
+     * Multiplies every value of this column by a single value.
+     * @param multiplicand The value to multiply by.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return A new column of products, or this column if the value cannot be converted.
+     */
+    public<T> NumericArray multiply(final T multiplicand) {
+        return this.applyScalar(multiplicand, Numeric.Operation.MULTIPLY);
+    }
+
+    /**
+     * Divides each value of this column by the value at the same index of another column.
+     * @param divisors The column to divide by.  Must be the same length as this column.
+     * @return A new column of quotients, or this column if the lengths differ.
+     */
+    public NumericArray divide(final NumericArray divisors) {
+        return this.applyMath(divisors, Numeric.Operation.DIVIDE);
+    }
+
+    /**
+     * Divides every value of this column by a single value.
+     * @param divisor The value to divide by.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return A new column of quotients, or this column if the value cannot be converted.
+     */
+    public<T> NumericArray divide(final T divisor) {
+        return this.applyScalar(divisor, Numeric.Operation.DIVIDE);
+    }
+
+    /**
+     * Determines if the values are held as unscaled longs.
+     * @return True for scaled storage, false for BigDecimal storage.
+     */
+    boolean isScaled() {
+        return unscaled != null;
+    }
+
+    /**
+     * Fetches the unscaled values without copying them.  Callers must not modify the array.
+     * @return The unscaled values, or null for BigDecimal storage.
+     */
+    long[] unscaledValues() {
+        return unscaled;
+    }
+
+    /**
+     * Fetches the scale shared by the unscaled values.
+     * @return The scale.  Only meaningful for scaled storage.
+     */
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * Wraps already-scaled values without copying them.  The caller gives up ownership of the array.
+     */
+    static NumericArray ofUnscaled(final long[] unscaled, final int scale) {
+        return new NumericArray(unscaled, scale, null, false);
+    }
+
+    /**
+     * Wraps BigDecimals without copying them, packing them into scaled storage when they fit.  The caller gives up
+     * ownership of the array.
+     */
+    static NumericArray ofDecimals(final BigDecimal[] values) {
+        return NumericArray.pack(values, false);
+    }
+
+    /**
+     * Applies an operation element-wise between this column and another.
+     */
+    private NumericArray applyMath(final NumericArray other, final Numeric.Operation operation) {
+        if (other == null || other.length() != this.length()) {
+            log.error("Cannot apply {} between NumericArrays of lengths {} and {}!", operation, this.length(),
+                    other == null ? "null" : other.length());
+            return this;
+        }
+        if (unscaled != null && other.unscaled != null) {
+            final NumericArray result = this.applyScaled(other.unscaled, 0L, other.scale, operation);
+            if (result != null) {
+                return result;
+            }
+        }
+        return this.applyDecimal(other.toBigDecimalArray(), null, operation);
+    }
+
+    /**
+     * Applies an operation between every element of this column and a single value.
+     */
+    private<T> NumericArray applyScalar(final T value, final Numeric.Operation operation) {
+        final Numeric operand = Numeric.of(value);
+        if (!operand.isPresent()) {
+            return this;
+        }
+        if (unscaled != null) {
+            final BigDecimal decimal = operand.decimalValue();
+            final BigInteger packed = NumericArray.unscaledOf(decimal, Math.max(decimal.scale(), 0));
+            if (packed != null) {
+                final NumericArray result = this.applyScaled(null, packed.longValue(), Math.max(decimal.scale(), 0),
+                        operation);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return this.applyDecimal(null, operand.decimalValue(), operation);
+    }
+
+    /**
+     * Attempts an operation entirely on unscaled longs.
+     * @param others The other column's unscaled values, or null to use otherScalar for every element.
+     * @param otherScalar The unscaled value to use when others is null.
+     * @param otherScale The scale of the other values.
+     * @return The result, or null if any element overflows or the operation cannot be represented exactly.
+     */
+    private NumericArray applyScaled(final long[] others, final long otherScalar, final int otherScale,
+                                     final Numeric.Operation operation) {
+        final int length = unscaled.length;
+        final long[] result = new long[length];
+        switch (operation) {
+            case ADD:
+            case SUBTRACT: {
+                // Bring both sides to the larger scale, then add or subtract the aligned values
+                final int resultScale = Math.max(scale, otherScale);
+                final long[] left = this.rescale(unscaled, resultScale - scale);
+                final long[] right = others == null ? null : this.rescale(others, resultScale - otherScale);
+                final long rightScalar = others == null
+                        ? NumericArray.rescale(otherScalar, resultScale - otherScale) : 0L;
+                if (left == null || (others != null && right == null)
+                        || (others == null && rightScalar == Long.MIN_VALUE)) {
+                    return null;
+                }
+                final boolean subtract = operation == Numeric.Operation.SUBTRACT;
+                final boolean overflowed = this.run(length, (from, to) -> subtract
+                        ? NumericArray.subtractRange(left, right, rightScalar, result, from, to)
+                        : NumericArray.addRange(left, right, rightScalar, result, from, to));
+                return overflowed ? null : new NumericArray(result, resultScale, null, parallel);
+            }
+            case MULTIPLY: {
+                final boolean overflowed = this.run(length, (from, to) ->
+                        NumericArray.multiplyRange(unscaled, others, otherScalar, result, from, to));
+                return overflowed ? null : new NumericArray(result, scale + otherScale, null, parallel);
+            }
+            case DIVIDE: {
+                // Only exact quotients of plain longs keep the preferred scale of zero; everything else needs
+                // DECIMAL128 rounding, which is left to BigDecimal
+                if (scale != 0 || otherScale != 0) {
+                    return null;
+                }
+                final boolean inexact = this.run(length, (from, to) ->
+                        NumericArray.divideRange(unscaled, others, otherScalar, result, from, to));
+                return inexact ? null : new NumericArray(result, 0, null, parallel);
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Applies an operation with BigDecimal arithmetic and packs the results back into scaled storage if possible.
+     * @param others The other column's values, or null to use otherScalar for every element.
+     * @param otherScalar The value to use when others is null.
+     */
+    private NumericArray applyDecimal(final BigDecimal[] others, final BigDecimal otherScalar,
+                                      final Numeric.Operation operation) {
+        final BigDecimal[] values = this.toBigDecimalArray();
+        final BigDecimal[] result = new BigDecimal[values.length];
+        this.run(values.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = operation.apply(values[i], others == null ? otherScalar : others[i]);
+            }
+            return false;
+        });
+        return NumericArray.pack(result, parallel);
+    }
+
+    /**
+     * Multiplies every value by a power of ten.
+     * @return The rescaled values (the input itself for a zero exponent), or null on overflow.
+     */
+    private long[] rescale(final long[] values, final int exponent) {
+        if (exponent == 0) {
+            return values;
+        }
+        if (exponent > MAX_POWER_OF_TEN) {
+            return null;
+        }
+        final long factor = POWERS_OF_TEN[exponent];
+        final long limit = Long.MAX_VALUE / factor;
+        final long[] result = new long[values.length];
+        final boolean overflowed = this.run(values.length, (from, to) -> {
+            boolean outOfRange = false;
+            for (int i = from; i < to; i++) {
+                final long value = values[i];
+                outOfRange |= value > limit | value < -limit;
+                result[i] = value * factor;
+            }
+            return outOfRange;
+        });
+        return overflowed ? null : result;
+    }
+
+    /**
+     * Multiplies a single value by a power of ten.
+     * @return The rescaled value, or Long.MIN_VALUE on overflow.  A genuine Long.MIN_VALUE is also reported this way,
+     * which only costs that rare operand a trip through BigDecimal.
+     */
+    private static long rescale(final long value, final int exponent) {
+        if (exponent == 0) {
+            return value;
+        }
+        if (exponent > MAX_POWER_OF_TEN) {
+            return Long.MIN_VALUE;
+        }
+        final long factor = POWERS_OF_TEN[exponent];
+        final long limit = Long.MAX_VALUE / factor;
+        return value > limit || value < -limit ? Long.MIN_VALUE : value * factor;
+    }
+
+    /**
+     * The add kernel.  Overflow is accumulated into a sign bit instead of branching so that the loop stays simple
+     * enough for the JIT to vectorize.
+     * @return True if any element overflowed.
+     */
+    private static boolean addRange(final long[] left, final long[] right, final long rightScalar,
+                                    final long[] result, final int from, final int to) {
+        long overflow = 0;
+        if (right != null) {
+            for (int i = from; i < to; i++) {
+                final long sum = left[i] + right[i];
+                overflow |= (left[i] ^ sum) & (right[i] ^ sum);
+                result[i] = sum;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                final long sum = left[i] + rightScalar;
+                overflow |= (left[i] ^ sum) & (rightScalar ^ sum);
+                result[i] = sum;
+            }
+        }
+        return overflow < 0;
+    }
+
+    /**
+     * The subtract kernel.  Overflow is accumulated the same way as in addRange.
+     * @return True if any element overflowed.
+     */
+    private static boolean subtractRange(final long[] left, final long[] right, final long rightScalar,
+                                         final long[] result, final int from, final int to) {
+        long overflow = 0;
+        if (right != null) {
+            for (int i = from; i < to; i++) {
+                final long difference = left[i] - right[i];
+                overflow |= (left[i] ^ right[i]) & (left[i] ^ difference);
+                result[i] = difference;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                final long difference = left[i] - rightScalar;
+                overflow |= (left[i] ^ rightScalar) & (left[i] ^ difference);
+                result[i] = difference;
+            }
+        }
+        return overflow < 0;
+    }
+
+    /**
+     * The multiply kernel, using the same overflow check as Math.multiplyExact.
+     * @return True if any element overflowed.
+     */
+    private static boolean multiplyRange(final long[] left, final long[] right, final long rightScalar,
+                                         final long[] result, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final long first = left[i];
+            final long second = right == null ? rightScalar : right[i];
+            final long product = first * second;
+            if (((Math.abs(first) | Math.abs(second)) >>> 31) != 0
+                    && ((second != 0 && product / second != first) || (first == Long.MIN_VALUE && second == -1))) {
+                return true;
+            }
+            result[i] = product;
+        }
+        return false;
+    }
+
+    /**
+     * The divide kernel for plain longs.  Division by zero is reported as inexact so that BigDecimal raises the same
+     * ArithmeticException that Numeric does.
+     * @return True if any quotient is not an exact long.
+     */
+    private static boolean divideRange(final long[] left, final long[] right, final long rightScalar,
+                                       final long[] result, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final long dividend = left[i];
+            final long divisor = right == null ? rightScalar : right[i];
+            if (divisor == 0 || (dividend == Long.MIN_VALUE && divisor == -1) || dividend % divisor != 0) {
+                return true;
+            }
+            result[i] = dividend / divisor;
+        }
+        return false;
+    }
+
+    /**
+     * Runs a kernel over the whole column, splitting it into chunks across the common ForkJoinPool for a large
+     * parallel column.
+     * @return True if the kernel reported a failure for any chunk.
+     */
+    boolean run(final int length, final RangeKernel kernel) {
+        if (!parallel || length < PARALLEL_THRESHOLD) {
+            return kernel.apply(0, length);
+        }
+        final int chunks = (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        // Every chunk must finish writing its results, so the failures are counted rather than short-circuited
+        return IntStream.range(0, chunks).parallel()
+                .filter(chunk -> kernel.apply(chunk * PARALLEL_CHUNK, Math.min(length, (chunk + 1) * PARALLEL_CHUNK)))
+                .count() > 0;
+    }
+
+    /**
+     * Stores BigDecimals as unscaled longs at their largest scale when every value fits, and as-is otherwise.
+     * @param values The values, which the new column takes ownership of.
+     * @param parallel Whether the new column is a parallel view.
+     * @return The new column.
+     */
+    private static NumericArray pack(final BigDecimal[] values, final boolean parallel) {
+        int scale = 0;
+        for (final BigDecimal value : values) {
+            scale = Math.max(scale, value.scale());
+        }
+        final long[] unscaled = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final BigInteger packed = NumericArray.unscaledOf(values[i], scale);
+            if (packed == null) {
+                return new NumericArray(null, 0, values, parallel);
+            }
+            unscaled[i] = packed.longValue();
+        }
+        return new NumericArray(unscaled, scale, null, parallel);
+    }
+
+    /**
+     * Finds the unscaled long for a BigDecimal at a scale at least as large as its own.
+     * @return The unscaled value, or null if it does not fit in a long.
+     */
+    private static BigInteger unscaledOf(final BigDecimal value, final int scale) {
+        if (scale - value.scale() > MAX_POWER_OF_TEN) {
+            return null;
+        }
+        final BigInteger unscaledValue = value.setScale(scale).unscaledValue();
+        return unscaledValue.bitLength() > 63 ? null : unscaledValue;
+    }
+
+    /**
+     * A loop over a range of the column.
+     */
+    @FunctionalInterface
+    interface RangeKernel {
+        /**
+         * Processes the elements from the first index (inclusive) to the second (exclusive).
+         * @return True if the range failed and the whole operation must fall back.
+         */
+        boolean apply(int from, int to);
+    }
+}
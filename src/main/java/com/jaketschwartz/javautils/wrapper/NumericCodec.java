@@ -0,0 +1,590 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * A compact binary encoding for Numerics and NumericArrays that round-trips exactly, value and scale alike.
+ * <p>
+ * A single value is a tag byte followed by its payload: integral values as zig-zag varints (so small magnitudes of
+ * either sign take one or two bytes), 128-bit values as a varint upper half and a fixed lower half, decimals as a
+ * varint scale and unscaled value, and doubles as their raw IEEE 754 bits.  A column of scaled longs is written once as
+ * its scale and count followed by the values under whichever of delta, frame-of-reference bit packing or run-length
+ * encoding is smallest for that column.  Columns of BigDecimals are written value by value.
+ * <p>
+ * Everything is read and written at the buffer's position with single-byte operations, so the buffer's byte order
+ * does not matter.  Integral values and scaled columns are encoded and decoded without any intermediate objects.  A
+ * write that does not fit, or a read of malformed input, is logged and leaves the buffer's position where it was.
+ */
+public final class NumericCodec {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericCodec.class);
+    // Tags for single values
+    private static final byte EMPTY = 0;
+    private static final byte LONG = 1;
+    private static final byte INT128 = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte BIG_DECIMAL = 4;
+    private static final byte DOUBLE = 5;
+    // Tags for columns
+    private static final byte SCALED_COLUMN = 16;
+    private static final byte DECIMAL_COLUMN = 17;
+    private static final int MAX_VARINT_BYTES = 10;
+    // The largest array the VM will allocate
+    private static final int MAX_COLUMN_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * How a column of scaled longs is laid out.
+     */
+    public enum ColumnEncoding {
+        // The first value, then the difference from each value to the next.  Best for sorted or slowly-changing data.
+        DELTA,
+        // The minimum, then every value's offset from it packed into the fewest bits that hold the largest offset.
+        // Best for values clustered in a narrow range.
+        FRAME_OF_REFERENCE,
+        // Each distinct value once, with the number of times it repeats in a row.  Best for long runs.
+        RUN_LENGTH
+    }
+
+    private NumericCodec() {
+    }
+
+    /**
+     * Writes a single Numeric, including an empty one.
+     * @param value The value to write.
+     * @param buffer The buffer to write to, starting at its position.
+     * @return True if the value was written, or false on null input or if the buffer is too small.
+     */
+    public static boolean encode(final Numeric value, final ByteBuffer buffer) {
+        if (value == null || buffer == null) {
+            log.warn("Null value [{}] or buffer [{}] provided to NumericCodec.encode()!", value, buffer);
+            return false;
+        }
+        final int start = buffer.position();
+        try {
+            NumericCodec.putValue(value, buffer);
+            return true;
+        } catch (final BufferOverflowException e) {
+            return NumericCodec.overflow(buffer, start, "encode()");
+        }
+    }
+
+    /**
+     * Writes a double as its raw bits, which is shorter than its decimal form for most doubles with many digits.  It
+     * decodes to the same Numeric that Numeric.of() produces for the double.
+     * @param value The finite value to write.
+     * @param buffer The buffer to write to, starting at its position.
+     * @return True if the value was written, or false on null input, NaN, infinities or if the buffer is too small.
+     */
+    public static boolean encode(final double value, final ByteBuffer buffer) {
+        if (buffer == null || Double.isNaN(value) || Double.isInfinite(value)) {
+            log.warn("Null buffer or non-finite value [{}] provided to NumericCodec.encode()!", value);
+            return false;
+        }
+        final int start = buffer.position();
+        try {
+            buffer.put(DOUBLE);
+            NumericCodec.putFixedLong(Double.doubleToRawLongBits(value), buffer);
+            return true;
+        } catch (final BufferOverflowException e) {
+            return NumericCodec.overflow(buffer, start, "encode()");
+        }
+    }
+
+    /**
+     * Reads a single value written by encode().
+     * @param buffer The buffer to read from, starting at its position.
+     * @return The value, which may be an empty Numeric if one was written, or an empty Optional on malformed input.
+     */
+    public static Optional<Numeric> decode(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericCodec.decode()!");
+            return Optional.empty();
+        }
+        final int start = buffer.position();
+        try {
+            return Optional.of(NumericCodec.getValue(buffer));
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            return NumericCodec.malformed(buffer, start, "decode()", e);
+        }
+    }
+
+    /**
+     * Writes a column using whichever ColumnEncoding is smallest for its values.
+     * @param column The column to write.
+     * @param buffer The buffer to write to, starting at its position.
+     * @return True if the column was written, or false on null input or if the buffer is too small.
+     */
+    public static boolean encodeColumn(final NumericArray column, final ByteBuffer buffer) {
+        return NumericCodec.encodeColumn(column, buffer, null);
+    }
+
+    /**
+     * Writes a column with a particular ColumnEncoding.  Columns that are not held as scaled longs are always written
+     * value by value.
+     * @param column The column to write.
+     * @param buffer The buffer to write to, starting at its position.
+     * @param encoding How to lay out the values, or null to pick the smallest.
+     * @return True if the column was written, or false on null input or if the buffer is too small.
+     */
+    public static boolean encodeColumn(final NumericArray column, final ByteBuffer buffer,
+                                       final ColumnEncoding encoding) {
+        if (column == null || buffer == null) {
+            log.warn("Null column [{}] or buffer [{}] provided to NumericCodec.encodeColumn()!", column, buffer);
+            return false;
+        }
+        final int start = buffer.position();
+        try {
+            if (column.isScaled()) {
+                final long[] values = column.unscaledValues();
+                buffer.put(SCALED_COLUMN);
+                NumericCodec.putVarLong(column.scale(), buffer);
+                NumericCodec.putVarLong(values.length, buffer);
+                final ColumnEncoding chosen = encoding != null ? encoding : NumericCodec.smallestEncoding(values);
+                buffer.put((byte)chosen.ordinal());
+                NumericCodec.putLongs(values, chosen, buffer);
+            } else {
+                buffer.put(DECIMAL_COLUMN);
+                NumericCodec.putVarLong(column.length(), buffer);
+                for (int i = 0; i < column.length(); i++) {
+                    NumericCodec.putValue(column.get(i), buffer);
+                }
+            }
+            return true;
+        } catch (final BufferOverflowException e) {
+            return NumericCodec.overflow(buffer, start, "encodeColumn()");
+        }
+    }
+
+    /**
+     * Reads a column written by encodeColumn().
+     * @param buffer The buffer to read from, starting at its position.
+     * @return The column, or an empty Optional on malformed input.
+     */
+    public static Optional<NumericArray> decodeColumn(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericCodec.decodeColumn()!");
+            return Optional.empty();
+        }
+        final int start = buffer.position();
+        try {
+            final byte tag = buffer.get();
+            if (tag == SCALED_COLUMN) {
+                final int scale = NumericCodec.getInt(buffer);
+                if (scale < 0) {
+                    throw new IllegalArgumentException("Negative column scale " + scale);
+                }
+                final int count = NumericCodec.getCount(buffer);
+                final ColumnEncoding encoding = NumericCodec.getEncoding(buffer);
+                NumericCodec.checkCount(count, encoding, buffer);
+                final long[] values = new long[count];
+                NumericCodec.getLongs(values, encoding, buffer);
+                return Optional.of(NumericArray.ofUnscaled(values, scale));
+            }
+            if (tag == DECIMAL_COLUMN) {
+                final int count = NumericCodec.getCount(buffer);
+                // Every value takes at least its tag byte
+                if (count > buffer.remaining()) {
+                    throw new IllegalArgumentException("Count " + count + " exceeds the " + buffer.remaining()
+                            + " bytes left");
+                }
+                final BigDecimal[] values = new BigDecimal[count];
+                for (int i = 0; i < values.length; i++) {
+                    final Numeric value = NumericCodec.getValue(buffer);
+                    if (!value.isPresent()) {
+                        throw new IllegalArgumentException("Columns cannot hold empty values");
+                    }
+                    values[i] = value.decimalValue();
+                }
+                return Optional.of(NumericArray.ofDecimals(values));
+            }
+            throw new IllegalArgumentException("Unknown column tag " + tag);
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            return NumericCodec.malformed(buffer, start, "decodeColumn()", e);
+        }
+    }
+
+    private static void putValue(final Numeric value, final ByteBuffer buffer) {
+        if (!value.isPresent()) {
+            buffer.put(EMPTY);
+        } else if (value.isLong()) {
+            buffer.put(LONG);
+            NumericCodec.putZigZag(value.longValue(), buffer);
+        } else if (value.isIntegral()) {
+            buffer.put(INT128);
+            NumericCodec.putZigZag(value.highBits(), buffer);
+            NumericCodec.putFixedLong(value.longValue(), buffer);
+        } else {
+            final BigDecimal decimal = value.decimalValue();
+            final BigInteger unscaled = decimal.unscaledValue();
+            if (unscaled.bitLength() <= 63) {
+                buffer.put(DECIMAL);
+                NumericCodec.putZigZag(decimal.scale(), buffer);
+                NumericCodec.putZigZag(unscaled.longValue(), buffer);
+            } else {
+                final byte[] bytes = unscaled.toByteArray();
+                buffer.put(BIG_DECIMAL);
+                NumericCodec.putZigZag(decimal.scale(), buffer);
+                NumericCodec.putVarLong(bytes.length, buffer);
+                buffer.put(bytes);
+            }
+        }
+    }
+
+    private static Numeric getValue(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        switch (tag) {
+            case EMPTY:
+                return Numeric.empty();
+            case LONG:
+                return Numeric.ofLong(NumericCodec.getZigZag(buffer));
+            case INT128:
+                final long high = NumericCodec.getZigZag(buffer);
+                return Numeric.ofInt128(high, NumericCodec.getFixedLong(buffer));
+            case DECIMAL:
+                final int scale = NumericCodec.toInt(NumericCodec.getZigZag(buffer));
+                return Numeric.ofDecimal(BigDecimal.valueOf(NumericCodec.getZigZag(buffer), scale));
+            case BIG_DECIMAL:
+                final int bigScale = NumericCodec.toInt(NumericCodec.getZigZag(buffer));
+                final int length = NumericCodec.getInt(buffer);
+                if (length == 0 || length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Bad unscaled length " + length);
+                }
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return Numeric.ofDecimal(new BigDecimal(new BigInteger(bytes), bigScale));
+            case DOUBLE:
+                return Numeric.of(Double.longBitsToDouble(NumericCodec.getFixedLong(buffer)));
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    /**
+     * Works out the encoded size of the values under every ColumnEncoding in a single pass.
+     * @return The smallest encoding.
+     */
+    private static ColumnEncoding smallestEncoding(final long[] values) {
+        if (values.length == 0) {
+            return ColumnEncoding.DELTA;
+        }
+        long deltaSize = 0;
+        long runLengthSize = 0;
+        long min = values[0];
+        long max = values[0];
+        long previous = 0;
+        int run = 0;
+        for (int i = 0; i < values.length; i++) {
+            final long value = values[i];
+            deltaSize += NumericCodec.zigZagSize(value - previous);
+            if (i > 0 && value == previous) {
+                run++;
+            } else {
+                if (i > 0) {
+                    runLengthSize += NumericCodec.zigZagSize(previous) + NumericCodec.varLongSize(run);
+                }
+                run = 1;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            previous = value;
+        }
+        runLengthSize += NumericCodec.zigZagSize(previous) + NumericCodec.varLongSize(run);
+        final int width = NumericCodec.bitWidth(max - min);
+        final long frameSize = NumericCodec.zigZagSize(min) + 1 + ((long)values.length * width + 7) / 8;
+        if (frameSize <= deltaSize && frameSize <= runLengthSize) {
+            return ColumnEncoding.FRAME_OF_REFERENCE;
+        }
+        return runLengthSize < deltaSize ? ColumnEncoding.RUN_LENGTH : ColumnEncoding.DELTA;
+    }
+
+    private static void putLongs(final long[] values, final ColumnEncoding encoding, final ByteBuffer buffer) {
+        switch (encoding) {
+            case DELTA:
+                long previous = 0;
+                for (final long value : values) {
+                    // Wrapping subtraction is undone by wrapping addition, so even extreme deltas round-trip
+                    NumericCodec.putZigZag(value - previous, buffer);
+                    previous = value;
+                }
+                break;
+            case FRAME_OF_REFERENCE:
+                NumericCodec.putFrameOfReference(values, buffer);
+                break;
+            default:
+                int i = 0;
+                while (i < values.length) {
+                    final long value = values[i];
+                    int run = 1;
+                    while (i + run < values.length && values[i + run] == value) {
+                        run++;
+                    }
+                    NumericCodec.putZigZag(value, buffer);
+                    NumericCodec.putVarLong(run, buffer);
+                    i += run;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Checks a scaled column's count against the bytes left to read before anything is allocated for it, so that a
+     * corrupt count is refused instead of exhausting the heap.  Reads ahead on a duplicate, leaving the buffer alone.
+     */
+    private static void checkCount(final int count, final ColumnEncoding encoding, final ByteBuffer buffer) {
+        if (count > MAX_COLUMN_LENGTH) {
+            throw new IllegalArgumentException("Count " + count + " exceeds the largest possible column");
+        }
+        final ByteBuffer ahead = buffer.duplicate();
+        switch (encoding) {
+            case DELTA:
+                // Every value takes at least one byte
+                if (count > ahead.remaining()) {
+                    throw new IllegalArgumentException("Count " + count + " exceeds the " + ahead.remaining()
+                            + " bytes left");
+                }
+                break;
+            case FRAME_OF_REFERENCE:
+                NumericCodec.getZigZag(ahead);
+                final int width = ahead.get();
+                // A width of zero packs any number of equal values into no bytes at all, so only the limit above holds
+                if (width > 0 && ((long)count * width + 7) / 8 > ahead.remaining()) {
+                    throw new IllegalArgumentException("Count " + count + " at " + width + " bits exceeds the "
+                            + ahead.remaining() + " bytes left");
+                }
+                break;
+            default:
+                // A run covers any number of values, so the runs themselves are summed.  Each takes at least two bytes,
+                // so this reads no further than the buffer allows.
+                long covered = 0;
+                while (covered < count) {
+                    NumericCodec.getZigZag(ahead);
+                    final long run = NumericCodec.getVarLong(ahead);
+                    if (run < 1 || run > count - covered) {
+                        throw new IllegalArgumentException("Bad run length " + run);
+                    }
+                    covered += run;
+                }
+                break;
+        }
+    }
+
+    private static void getLongs(final long[] values, final ColumnEncoding encoding, final ByteBuffer buffer) {
+        switch (encoding) {
+            case DELTA:
+                long previous = 0;
+                for (int i = 0; i < values.length; i++) {
+                    previous += NumericCodec.getZigZag(buffer);
+                    values[i] = previous;
+                }
+                break;
+            case FRAME_OF_REFERENCE:
+                NumericCodec.getFrameOfReference(values, buffer);
+                break;
+            default:
+                int i = 0;
+                while (i < values.length) {
+                    final long value = NumericCodec.getZigZag(buffer);
+                    final int run = NumericCodec.getInt(buffer);
+                    if (run < 1 || run > values.length - i) {
+                        throw new IllegalArgumentException("Bad run length " + run);
+                    }
+                    for (int end = i + run; i < end; i++) {
+                        values[i] = value;
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the minimum and bit width, then every offset from the minimum packed little-endian into
+     * ceil(count * width / 8) bytes.
+     */
+    private static void putFrameOfReference(final long[] values, final ByteBuffer buffer) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (final long value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (values.length == 0) {
+            min = 0;
+            max = 0;
+        }
+        final int width = NumericCodec.bitWidth(max - min);
+        NumericCodec.putZigZag(min, buffer);
+        buffer.put((byte)width);
+        if (width == 0) {
+            return;
+        }
+        long pending = 0;
+        int pendingBits = 0;
+        for (final long value : values) {
+            // Offsets are unsigned; a range wider than Long.MAX_VALUE still fits in 64 bits
+            final long offset = value - min;
+            pending |= offset << pendingBits;
+            final int total = pendingBits + width;
+            if (total >= 64) {
+                NumericCodec.putFixedLong(pending, buffer);
+                pending = pendingBits == 0 ? 0 : offset >>> (64 - pendingBits);
+                pendingBits = total - 64;
+            } else {
+                pendingBits = total;
+            }
+        }
+        for (int shift = 0; shift < pendingBits; shift += 8) {
+            buffer.put((byte)(pending >>> shift));
+        }
+    }
+
+    private static void getFrameOfReference(final long[] values, final ByteBuffer buffer) {
+        final long min = NumericCodec.getZigZag(buffer);
+        final int width = buffer.get();
+        if (width < 0 || width > 64) {
+            throw new IllegalArgumentException("Bad bit width " + width);
+        }
+        final long mask = width == 64 ? -1L : (1L << width) - 1;
+        long bytesLeft = ((long)values.length * width + 7) / 8;
+        if (bytesLeft > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        long pending = 0;
+        int pendingBits = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (width == 0) {
+                values[i] = min;
+                continue;
+            }
+            long offset;
+            if (pendingBits >= width) {
+                offset = pending & mask;
+                pending = width == 64 ? 0 : pending >>> width;
+                pendingBits -= width;
+            } else {
+                // Refill with up to eight more bytes, taking the bits this value still needs from the bottom
+                final int chunkBytes = (int)Math.min(8, bytesLeft);
+                long next = 0;
+                for (int b = 0; b < chunkBytes; b++) {
+                    next |= (buffer.get() & 0xFFL) << (b << 3);
+                }
+                bytesLeft -= chunkBytes;
+                final int needed = width - pendingBits;
+                offset = (pending | (next << pendingBits)) & mask;
+                pending = needed == 64 ? 0 : next >>> needed;
+                pendingBits = (chunkBytes << 3) - needed;
+            }
+            values[i] = min + offset;
+        }
+    }
+
+    /**
+     * The number of bits needed to hold an unsigned offset.
+     */
+    private static int bitWidth(final long range) {
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+
+    static void putZigZag(final long value, final ByteBuffer buffer) {
+        NumericCodec.putVarLong((value << 1) ^ (value >> 63), buffer);
+    }
+
+    static long getZigZag(final ByteBuffer buffer) {
+        final long encoded = NumericCodec.getVarLong(buffer);
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    /**
+     * Writes seven bits per byte, least significant first, with the high bit marking that more bytes follow.
+     */
+    static void putVarLong(final long value, final ByteBuffer buffer) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte)((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte)remaining);
+    }
+
+    static long getVarLong(final ByteBuffer buffer) {
+        long result = 0;
+        for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+            final byte next = buffer.get();
+            result |= (next & 0x7FL) << (7 * i);
+            if (next >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than " + MAX_VARINT_BYTES + " bytes");
+    }
+
+    private static int zigZagSize(final long value) {
+        return NumericCodec.varLongSize((value << 1) ^ (value >> 63));
+    }
+
+    private static int varLongSize(final long value) {
+        // One byte per started group of seven bits, and at least one byte for zero
+        return Math.max(1, (63 - Long.numberOfLeadingZeros(value)) / 7 + 1);
+    }
+
+    static void putFixedLong(final long value, final ByteBuffer buffer) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            buffer.put((byte)(value >>> shift));
+        }
+    }
+
+    static long getFixedLong(final ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 8) {
+            value |= (buffer.get() & 0xFFL) << shift;
+        }
+        return value;
+    }
+
+    static int getInt(final ByteBuffer buffer) {
+        return NumericCodec.toInt(NumericCodec.getVarLong(buffer));
+    }
+
+    static int getCount(final ByteBuffer buffer) {
+        final int count = NumericCodec.getInt(buffer);
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count " + count);
+        }
+        return count;
+    }
+
+    private static ColumnEncoding getEncoding(final ByteBuffer buffer) {
+        final int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= ColumnEncoding.values().length) {
+            throw new IllegalArgumentException("Unknown column encoding " + ordinal);
+        }
+        return ColumnEncoding.values()[ordinal];
+    }
+
+    private static int toInt(final long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range for an int: " + value);
+        }
+        return (int)value;
+    }
+
+    private static boolean overflow(final ByteBuffer buffer, final int start, final String methodName) {
+        buffer.position(start);
+        log.error("The buffer provided to NumericCodec.{} is too small! Only {} bytes remain.", methodName,
+                buffer.remaining());
+        return false;
+    }
+
+    private static<T> Optional<T> malformed(final ByteBuffer buffer, final int start, final String methodName,
+                                            final RuntimeException cause) {
+        buffer.position(start);
+        log.error("Malformed input provided to NumericCodec.{}! {}", methodName, cause.getMessage());
+        return Optional.empty();
+    }
+}
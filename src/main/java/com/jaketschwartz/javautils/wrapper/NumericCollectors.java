@@ -0,0 +1,138 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Collectors for aggregating streams of Numerics.  Each stream segment accumulates into its own mutable accumulator and
+ * segments are combined associatively, so these scale with parallelStream() where a reduce(Numeric::add) would
+ * allocate a new Numeric per element and serialize on a chain of intermediate results.
+ * <p>
+ * Every Collector takes a Mode.  EXACT produces the same values BigDecimal arithmetic would, keeping integral values in
+ * primitive longs until a total overflows.  FAST works in doubles with compensated summation, trading exactness for
+ * speed on large floating-point data sets.  Null and empty Numerics in the stream are skipped.
+ */
+public final class NumericCollectors {
+
+    /**
+     * How a Collector should do its arithmetic.
+     */
+    public enum Mode {
+        // Exact decimal arithmetic; averages and deviations are rounded to MathContext.DECIMAL128
+        EXACT,
+        // Double arithmetic with Neumaier compensated summation and Welford's method for variance
+        FAST
+    }
+
+    private NumericCollectors() {
+    }
+
+    /**
+     * Counts the present Numerics in a stream.
+     * @return A Collector producing the count.
+     */
+    public static Collector<Numeric, ?, Long> counting() {
+        return NumericCollectors.collector(Mode.EXACT, false, false, NumericAccumulator::count);
+    }
+
+    /**
+     * Sums a stream of Numerics exactly.
+     * @return A Collector producing the sum, which is zero for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> summing() {
+        return NumericCollectors.summing(Mode.EXACT);
+    }
+
+    /**
+     * Sums a stream of Numerics.
+     * @param mode How to do the arithmetic.
+     * @return A Collector producing the sum, which is zero for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> summing(final Mode mode) {
+        return NumericCollectors.collector(mode, false, false, NumericAccumulator::sum);
+    }
+
+    /**
+     * Calculates the arithmetic mean of a stream of Numerics.
+     * @param mode How to do the arithmetic.
+     * @return A Collector producing the mean, or an empty Numeric for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> averaging(final Mode mode) {
+        return NumericCollectors.collector(mode, false, false, NumericAccumulator::average);
+    }
+
+    /**
+     * Finds the smallest value in a stream of Numerics.
+     * @return A Collector producing the minimum, or an empty Numeric for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> minimum() {
+        return NumericCollectors.collector(Mode.EXACT, false, true, NumericAccumulator::min);
+    }
+
+    /**
+     * Finds the largest value in a stream of Numerics.
+     * @return A Collector producing the maximum, or an empty Numeric for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> maximum() {
+        return NumericCollectors.collector(Mode.EXACT, false, true, NumericAccumulator::max);
+    }
+
+    /**
+     * Calculates the population variance of a stream of Numerics.
+     * @param mode How to do the arithmetic.
+     * @return A Collector producing the variance, or an empty Numeric for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> variance(final Mode mode) {
+        return NumericCollectors.collector(mode, true, false, NumericAccumulator::variance);
+    }
+
+    /**
+     * Calculates the population standard deviation of a stream of Numerics.
+     * @param mode How to do the arithmetic.
+     * @return A Collector producing the standard deviation, or an empty Numeric for an empty stream.
+     */
+    public static Collector<Numeric, ?, Numeric> standardDeviation(final Mode mode) {
+        return NumericCollectors.collector(mode, true, false, NumericAccumulator::standardDeviation);
+    }
+
+    /**
+     * Calculates every statistic in a single pass over a stream of Numerics.
+     * @param mode How to do the arithmetic.
+     * @return A Collector producing the statistics.
+     */
+    public static Collector<Numeric, ?, NumericSummaryStatistics> summarizing(final Mode mode) {
+        return NumericCollectors.collector(mode, true, true, NumericSummaryStatistics::new);
+    }
+
+    /**
+     * Records a stream of Numerics into a NumericHistogram of the default precision, for quantiles with a bounded
+     * relative error in value.
+     * @return A Collector producing the histogram.
+     */
+    public static Collector<Numeric, ?, NumericHistogram> histogram() {
+        return Collector.of(NumericHistogram::create, NumericHistogram::record, (left, right) -> {
+            left.merge(right);
+            return left;
+        }, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Records a stream of Numerics into a NumericQuantileSketch of the default accuracy, for quantiles with a bounded
+     * error in rank.
+     * @return A Collector producing the sketch.
+     */
+    public static Collector<Numeric, ?, NumericQuantileSketch> quantiles() {
+        return Collector.of(NumericQuantileSketch::create, NumericQuantileSketch::record, (left, right) -> {
+            left.merge(right);
+            return left;
+        }, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private static<R> Collector<Numeric, NumericAccumulator, R> collector(
+            final Mode mode, final boolean moments, final boolean extremes,
+            final Function<NumericAccumulator, R> finisher) {
+        final Mode resolvedMode = mode == null ? Mode.EXACT : mode;
+        return Collector.of(() -> new NumericAccumulator(resolvedMode, moments, extremes), NumericAccumulator::accept,
+                NumericAccumulator::combine, finisher, Collector.Characteristics.UNORDERED);
+    }
+}
@@ -0,0 +1,492 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * An append-only column of Numerics held outside of the Java heap, in a direct or memory-mapped ByteBuffer, for data
+ * sets too large to keep as Numeric objects.
+ * <p>
+ * The buffer holds a small header, then one tag byte per value, then one eight-byte slot per value, then an overflow
+ * region.  Longs, doubles and decimals of up to 18 places whose unscaled value fits in a long live entirely in their
+ * slot; the tag says which, and holds a decimal's scale.  Anything else, such as 128-bit integers and BigDecimals with
+ * more digits, is written to the overflow region with NumericCodec and its slot holds the offset.  The header records
+ * the size and the overflow used after every append, so a mapped store can be reopened with open().
+ * <p>
+ * Values are read through a Cursor, a reusable view over one position that reads longs, doubles and scales straight
+ * from the buffer without allocating; converting to a Numeric is an explicit call.  A single thread may append while
+ * any number of threads read with their own Cursors up to the size they observed.
+ */
+public final class NumericColumnStore {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericColumnStore.class);
+    private static final int MAGIC = 0x4E434F4C;
+    private static final int HEADER_BYTES = 16;
+    private static final int SIZE_OFFSET = 8;
+    private static final int OVERFLOW_USED_OFFSET = 12;
+    // Tags for the values of slots
+    private static final byte EMPTY = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte OVERFLOW = 3;
+    // A decimal with scale s is tagged SCALED + s
+    private static final byte SCALED = 16;
+    private static final int MAX_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int slotsStart;
+    private final int overflowStart;
+    private volatile int size;
+    private int overflowUsed;
+
+    /**
+     * Creates an empty store in a direct buffer.
+     * @param capacity The number of values the store can hold.
+     * @param overflowBytes The room for values that do not fit in a slot.
+     * @return The store, or an empty Optional if the sizes are negative or too large for a single buffer.
+     */
+    public static Optional<NumericColumnStore> allocateDirect(final int capacity, final int overflowBytes) {
+        final long bytes = NumericColumnStore.bytesFor(capacity, overflowBytes);
+        if (bytes < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(NumericColumnStore.initialize(ByteBuffer.allocateDirect((int)bytes), capacity));
+    }
+
+    /**
+     * Creates an empty store in a memory-mapped file, replacing anything already in the file.
+     * @param file The file to map.
+     * @param capacity The number of values the store can hold.
+     * @param overflowBytes The room for values that do not fit in a slot.
+     * @return The store, or an empty Optional if the sizes are invalid or the file cannot be mapped.
+     */
+    public static Optional<NumericColumnStore> create(final Path file, final int capacity, final int overflowBytes) {
+        final long bytes = NumericColumnStore.bytesFor(capacity, overflowBytes);
+        if (file == null || bytes < 0) {
+            log.warn("Null file provided to NumericColumnStore, or invalid sizes!");
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return Optional.of(NumericColumnStore.initialize(channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes),
+                    capacity));
+        } catch (final IOException e) {
+            log.error("Failed to map [{}] for a NumericColumnStore! {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reopens a store previously created in a memory-mapped file.
+     * @param file The file to map.
+     * @return The store with every value appended before, or an empty Optional if the file cannot be mapped or does
+     * not hold a store.
+     */
+    public static Optional<NumericColumnStore> open(final Path file) {
+        if (file == null) {
+            log.warn("Null file provided to NumericColumnStore!");
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long bytes = channel.size();
+            if (bytes < HEADER_BYTES || bytes > Integer.MAX_VALUE) {
+                log.error("[{}] is not a NumericColumnStore!", file);
+                return Optional.empty();
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            final int capacity = buffer.getInt(4);
+            final long required = NumericColumnStore.bytesFor(capacity, 0);
+            final NumericColumnStore store = buffer.getInt(0) == MAGIC && required >= 0 && required <= bytes
+                    ? new NumericColumnStore(buffer, capacity)
+                    : null;
+            if (store == null || store.size < 0 || store.size > capacity || store.overflowUsed < 0
+                    || store.overflowUsed > buffer.capacity() - store.overflowStart) {
+                log.error("[{}] is not a NumericColumnStore, or is corrupt!", file);
+                return Optional.empty();
+            }
+            return Optional.of(store);
+        } catch (final IOException e) {
+            log.error("Failed to map [{}] for a NumericColumnStore! {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private NumericColumnStore(final ByteBuffer buffer, final int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.slotsStart = HEADER_BYTES + capacity;
+        this.overflowStart = slotsStart + capacity * Long.BYTES;
+        this.size = buffer.getInt(SIZE_OFFSET);
+        this.overflowUsed = buffer.getInt(OVERFLOW_USED_OFFSET);
+    }
+
+    /**
+     * Appends a value.  Null and empty Numerics are stored as empty values, so that positions stay aligned with the
+     * input.
+     * @param value The value to append.
+     * @return True if the value was appended, or false if the store is full.
+     */
+    public boolean append(final Numeric value) {
+        if (value == null || !value.isPresent()) {
+            return this.appendSlot(EMPTY, 0L);
+        }
+        if (value.isLong()) {
+            return this.appendSlot(LONG, value.longValue());
+        }
+        if (!value.isIntegral()) {
+            final BigDecimal decimal = value.decimalValue();
+            final int scale = decimal.scale();
+            if (scale > 0 && scale <= MAX_SCALE) {
+                final BigInteger unscaled = decimal.unscaledValue();
+                if (unscaled.bitLength() <= 63) {
+                    return this.appendSlot((byte)(SCALED + scale), unscaled.longValue());
+                }
+            }
+        }
+        return this.appendOverflow(value);
+    }
+
+    /**
+     * Appends a value.
+     * @param value The value to append.
+     * @return True if the value was appended, or false if the store is full.
+     */
+    public boolean append(final long value) {
+        return this.appendSlot(LONG, value);
+    }
+
+    /**
+     * Appends a value as its raw bits.  It reads back as the same Numeric that Numeric.of() produces for the double.
+     * @param value The finite value to append.
+     * @return True if the value was appended, or false for NaN, infinities or if the store is full.
+     */
+    public boolean append(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            log.warn("NumericColumnStore cannot hold [{}]!", value);
+            return false;
+        }
+        return this.appendSlot(DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Fetches the number of values appended.
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Reads a single value.  Use a Cursor to read many values without allocating.
+     * @param index The position of the value.
+     * @return The value, or an empty Numeric for an empty value or an index out of range.
+     */
+    public Numeric get(final int index) {
+        if (index < 0 || index >= size) {
+            return Numeric.empty();
+        }
+        final byte tag = buffer.get(HEADER_BYTES + index);
+        final long slot = buffer.getLong(slotsStart + index * Long.BYTES);
+        return this.toNumeric(tag, slot, tag == OVERFLOW ? this.overflowView() : null);
+    }
+
+    /**
+     * Creates a Cursor positioned before the first value.  Each Cursor belongs to one thread.
+     * @return The Cursor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Visits every value in order with one Cursor, allocating nothing per value.  The Cursor must not be kept.
+     * @param action What to do with the Cursor at each value.
+     */
+    public void forEach(final Consumer<Cursor> action) {
+        if (action == null) {
+            log.warn("Null action provided to NumericColumnStore.forEach()!");
+            return;
+        }
+        final Cursor cursor = this.cursor();
+        while (cursor.next()) {
+            action.accept(cursor);
+        }
+    }
+
+    /**
+     * Copies every value onto the heap as a column.  A store of longs is copied straight from its slots.
+     * @return The column, or an empty Optional if any value is empty.
+     */
+    public Optional<NumericArray> toNumericArray() {
+        final int length = size;
+        final Cursor cursor = this.cursor();
+        final long[] longs = new long[length];
+        int copied = 0;
+        while (copied < length && cursor.next() && cursor.isLong()) {
+            longs[copied++] = cursor.longValue();
+        }
+        if (copied == length) {
+            return Optional.of(NumericArray.ofUnscaled(longs, 0));
+        }
+        final BigDecimal[] decimals = new BigDecimal[length];
+        for (int i = 0; i < length; i++) {
+            cursor.seek(i);
+            if (!cursor.isPresent()) {
+                log.warn("NumericColumnStore holds an empty value at {}, which a NumericArray cannot hold!", i);
+                return Optional.empty();
+            }
+            decimals[i] = cursor.toNumeric().decimalValue();
+        }
+        return Optional.of(NumericArray.ofDecimals(decimals));
+    }
+
+    /**
+     * Writes any changes to a memory-mapped store back to its file.  Does nothing for a direct store.
+     */
+    public void flush() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer)buffer).force();
+        }
+    }
+
+    /**
+     * Works out the bytes a store needs.
+     * @return The number of bytes, or -1 if the sizes are negative or do not fit in a single buffer.
+     */
+    private static long bytesFor(final int capacity, final int overflowBytes) {
+        final long bytes = HEADER_BYTES + (long)capacity * (1 + Long.BYTES) + overflowBytes;
+        if (capacity < 0 || overflowBytes < 0 || bytes > Integer.MAX_VALUE) {
+            log.error("A NumericColumnStore of {} values and {} overflow bytes does not fit in a single buffer!",
+                    capacity, overflowBytes);
+            return -1;
+        }
+        return bytes;
+    }
+
+    private static NumericColumnStore initialize(final ByteBuffer buffer, final int capacity) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, capacity);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putInt(OVERFLOW_USED_OFFSET, 0);
+        return new NumericColumnStore(buffer, capacity);
+    }
+
+    private boolean appendSlot(final byte tag, final long slot) {
+        final int index = size;
+        if (index == capacity) {
+            log.error("NumericColumnStore is full at {} values!", capacity);
+            return false;
+        }
+        buffer.putLong(slotsStart + index * Long.BYTES, slot);
+        buffer.put(HEADER_BYTES + index, tag);
+        buffer.putInt(OVERFLOW_USED_OFFSET, overflowUsed);
+        buffer.putInt(SIZE_OFFSET, index + 1);
+        // Publishing the size last makes the slot visible to readers that observe it
+        size = index + 1;
+        return true;
+    }
+
+    private boolean appendOverflow(final Numeric value) {
+        if (size == capacity) {
+            log.error("NumericColumnStore is full at {} values!", capacity);
+            return false;
+        }
+        final ByteBuffer overflow = this.overflowView();
+        overflow.position(overflowStart + overflowUsed);
+        if (!NumericCodec.encode(value, overflow)) {
+            log.error("NumericColumnStore's overflow region is full!");
+            return false;
+        }
+        final int offset = overflowUsed;
+        overflowUsed = overflow.position() - overflowStart;
+        return this.appendSlot(OVERFLOW, offset);
+    }
+
+    /**
+     * Creates an independent view of the buffer for reading and writing the overflow region.  A duplicate starts out
+     * big-endian, so the store's byte order is set again.
+     */
+    private ByteBuffer overflowView() {
+        return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a Numeric for a value's tag and slot.
+     * @param tag How the value is held.
+     * @param slot The value's slot, which is an offset into the overflow region for an OVERFLOW tag.
+     * @param overflow A view of the buffer to decode from, only read when the tag is OVERFLOW.
+     * @return The Numeric, which is empty for an empty value.
+     */
+    private Numeric toNumeric(final byte tag, final long slot, final ByteBuffer overflow) {
+        switch (tag) {
+            case EMPTY:
+                return Numeric.empty();
+            case LONG:
+                return Numeric.ofLong(slot);
+            case DOUBLE:
+                return Numeric.of(Double.longBitsToDouble(slot));
+            case OVERFLOW:
+                overflow.position(overflowStart + (int)slot);
+                return NumericCodec.decode(overflow).orElse(Numeric.empty());
+            default:
+                return Numeric.ofDecimal(BigDecimal.valueOf(slot, tag - SCALED));
+        }
+    }
+
+    /**
+     * A reusable view over one value of the store.  Reading a value's tag, long, double or scale allocates nothing.
+     * Not thread-safe.
+     */
+    public final class Cursor {
+        // Created on the first read of an overflow value
+        private ByteBuffer overflow;
+        private int index = -1;
+        private byte tag;
+        private long slot;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next value.
+         * @return True if there is a next value.
+         */
+        public boolean next() {
+            return this.seek(index + 1);
+        }
+
+        /**
+         * Moves to a value.
+         * @param position The position of the value.
+         * @return True if the position holds a value.  The Cursor does not move otherwise.
+         */
+        public boolean seek(final int position) {
+            if (position < 0 || position >= size) {
+                return false;
+            }
+            index = position;
+            tag = buffer.get(HEADER_BYTES + position);
+            slot = buffer.getLong(slotsStart + position * Long.BYTES);
+            return true;
+        }
+
+        /**
+         * Fetches the Cursor's position.
+         * @return The position, or -1 before the first call to next() or seek().
+         */
+        public int position() {
+            return index;
+        }
+
+        public boolean isPresent() {
+            return tag != EMPTY;
+        }
+
+        /**
+         * Determines if the value is an integral long.
+         * @return True if longValue() is the value.
+         */
+        public boolean isLong() {
+            return tag == LONG;
+        }
+
+        /**
+         * Determines if the value is a decimal held as a long and a scale.
+         * @return True if unscaledValue() and scale() describe the value.
+         */
+        public boolean isScaled() {
+            return tag == LONG || tag > SCALED;
+        }
+
+        /**
+         * Fetches the value of a long.  Only meaningful when isLong() is true.
+         * @return The long.
+         */
+        public long longValue() {
+            return slot;
+        }
+
+        /**
+         * Fetches the unscaled value of a long or a decimal held in its slot.  Only meaningful when isScaled() is true.
+         * @return The unscaled value.
+         */
+        public long unscaledValue() {
+            return slot;
+        }
+
+        /**
+         * Fetches the scale of a long or a decimal held in its slot.  Only meaningful when isScaled() is true.
+         * @return The number of decimal places.
+         */
+        public int scale() {
+            return tag > SCALED ? tag - SCALED : 0;
+        }
+
+        /**
+         * Fetches the value as the nearest double.  Allocates only for values in the overflow region.
+         * @return The value, or NaN for an empty value.
+         */
+        public double doubleValue() {
+            switch (tag) {
+                case EMPTY:
+                    return Double.NaN;
+                case LONG:
+                    return slot;
+                case DOUBLE:
+                    return Double.longBitsToDouble(slot);
+                case OVERFLOW:
+                    return this.toNumeric().decimalValue().doubleValue();
+                default:
+                    final int scale = tag - SCALED;
+                    // Both operands are exact doubles when the unscaled value fits in the mantissa, and every power of
+                    // ten up to 10^18 does, so the quotient is correctly rounded just like BigDecimal.doubleValue()
+                    return Math.abs(slot) < (1L << 53)
+                            ? (double)slot / POWERS_OF_TEN[scale]
+                            : BigDecimal.valueOf(slot, scale).doubleValue();
+            }
+        }
+
+        /**
+         * Creates a Numeric for the value.  This is the one call that allocates for values held in a slot.
+         * @return The Numeric, which is empty for an empty value.
+         */
+        public Numeric toNumeric() {
+            if (tag == OVERFLOW && overflow == null) {
+                overflow = NumericColumnStore.this.overflowView();
+            }
+            return NumericColumnStore.this.toNumeric(tag, slot, overflow);
+        }
+
+        @Override
+        public String toString() {
+            if (index < 0) {
+                return "Cursor{before first}";
+            }
+            return "Cursor{" + index + "=" + (this.isPresent() ? this.toNumeric().decimalValue() : "empty") + "}";
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A lazily-evaluated chain of Numeric arithmetic over a single input, such as
+ * {@code NumericExpression.input().multiply(b).add(c).divide(d)}.  Building an expression only records a small tree;
+ * nothing is calculated until the expression is evaluated or compiled.
+ * <p>
+ * Compiling folds every constant subtree to a single value and flattens the tree into a postfix program.  When the
+ * input and every constant are held as longs, the program runs on a primitive stack with overflow-checked long
+ * arithmetic and only a single Numeric is created for the result; if any step overflows or does not divide exactly,
+ * that input is evaluated again step by step with Numeric arithmetic.  Results are always identical to writing the
+ * chain out with Numeric, including how empty and unsupported values are ignored.
+ * <p>
+ * Instances are immutable, and a compiled expression can be shared across threads and applied to a stream with map(),
+ * or to a whole NumericArray at once with applyAll().
+ */
+public final class NumericExpression {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericExpression.class);
+    private static final NumericExpression INPUT = new NumericExpression(null, null, null, null);
+    // Exactly one of these describes the node: the input (all null), a constant, or an operation on two subtrees
+    private final Numeric constant;
+    private final Numeric.Operation operation;
+    private final NumericExpression left;
+    private final NumericExpression right;
+
+    /**
+     * Fetches the expression that evaluates to its input.  Every expression is built up from this.
+     * @return The input expression.
+     */
+    public static NumericExpression input() {
+        return INPUT;
+    }
+
+    /**
+     * Creates an expression that ignores its input and always evaluates to a value.
+     * @param value Any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return The constant expression, which evaluates to an empty Numeric on bad input.
+     */
+    public static<T> NumericExpression constant(final T value) {
+        return new NumericExpression(Numeric.of(value), null, null, null);
+    }
+
+    private NumericExpression(final Numeric constant, final Numeric.Operation operation, final NumericExpression left,
+                              final NumericExpression right) {
+        this.constant = constant;
+        this.operation = operation;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Records an addition.
+     * @param augend Another NumericExpression, or any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric, or NumericExpression.
+     * @return The extended expression.
+     */
+    public<T> NumericExpression add(final T augend) {
+        return this.then(Numeric.Operation.ADD, augend);
+    }
+
+    /**
+     * Records a subtraction.
+     * @param subtrahend Another NumericExpression, or any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric, or NumericExpression.
+     * @return The extended expression.
+     */
+    public<T> NumericExpression subtract(final T subtrahend) {
+        return this.then(Numeric.Operation.SUBTRACT, subtrahend);
+    }
+
+    /**
+     * Records a multiplication.
+     * @param multiplicand Another NumericExpression, or any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric, or NumericExpression.
+     * @return The extended expression.
+     */
+    public<T> NumericExpression multiply(final T multiplicand) {
+        return this.then(Numeric.Operation.MULTIPLY, multiplicand);
+    }
+
+    /**
+     * Records a division.
+     * @param divisor Another NumericExpression, or any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric, or NumericExpression.
+     * @return The extended expression.
+     */
+    public<T> NumericExpression divide(final T divisor) {
+        return this.then(Numeric.Operation.DIVIDE, divisor);
+    }
+
+    /**
+     * Compiles the expression so that it can be applied many times.
+     * @return The compiled expression.
+     */
+    public Compiled compile() {
+        return new Compiled(this.fold());
+    }
+
+    /**
+     * Evaluates the expression once.  Compile the expression instead when evaluating it repeatedly.
+     * @param value The input, as any object that can be converted to a Numeric.
+     * @param <T> Any Type that can be converted to a Numeric.
+     * @return The result, exactly as if the chain had been written out with Numeric.
+     */
+    public<T> Numeric evaluate(final T value) {
+        return this.evaluateNumeric(Numeric.of(value));
+    }
+
+    private<T> NumericExpression then(final Numeric.Operation nextOperation, final T operand) {
+        if (operand instanceof NumericExpression) {
+            return new NumericExpression(null, nextOperation, this, (NumericExpression)operand);
+        }
+        final Numeric value = Numeric.of(operand);
+        // Numeric ignores bad operands, so the expression does too
+        if (!value.isPresent()) {
+            return this;
+        }
+        return new NumericExpression(null, nextOperation, this, new NumericExpression(value, null, null, null));
+    }
+
+    private boolean isInput() {
+        return constant == null && operation == null;
+    }
+
+    private boolean dependsOnInput() {
+        return this.isInput() || (operation != null && (left.dependsOnInput() || right.dependsOnInput()));
+    }
+
+    /**
+     * Evaluates the tree with Numeric arithmetic, one step at a time.  This defines the semantics of the expression.
+     */
+    private Numeric evaluateNumeric(final Numeric value) {
+        if (this.isInput()) {
+            return value;
+        }
+        if (operation == null) {
+            return constant;
+        }
+        final Numeric first = left.evaluateNumeric(value);
+        final Numeric second = right.evaluateNumeric(value);
+        switch (operation) {
+            case ADD:
+                return first.add(second);
+            case SUBTRACT:
+                return first.subtract(second);
+            case MULTIPLY:
+                return first.multiply(second);
+            default:
+                return first.divide(second);
+        }
+    }
+
+    /**
+     * Replaces every subtree that does not depend on the input with its value.
+     */
+    private NumericExpression fold() {
+        if (operation == null) {
+            return this;
+        }
+        if (!this.dependsOnInput()) {
+            return new NumericExpression(this.evaluateNumeric(Numeric.empty()), null, null, null);
+        }
+        final NumericExpression foldedLeft = left.fold();
+        final NumericExpression foldedRight = right.fold();
+        return foldedLeft == left && foldedRight == right
+                ? this
+                : new NumericExpression(null, operation, foldedLeft, foldedRight);
+    }
+
+    /**
+     * An expression flattened into a postfix program.  Thread-safe.
+     */
+    public static final class Compiled implements UnaryOperator<Numeric> {
+        private static final int PUSH_INPUT = -1;
+        private static final int PUSH_CONSTANT = -2;
+        private final NumericExpression expression;
+        // Each instruction is PUSH_INPUT, PUSH_CONSTANT (taking the next constant), or an Operation ordinal
+        private final int[] instructions;
+        private final long[] longConstants;
+        private final int stackDepth;
+        // Whether every constant is a long, which makes the long program usable for long inputs
+        private final boolean longProgram;
+
+        private Compiled(final NumericExpression expression) {
+            this.expression = expression;
+            final List<Integer> program = new ArrayList<>();
+            final List<Numeric> constants = new ArrayList<>();
+            this.stackDepth = Compiled.emit(expression, program, constants);
+            this.instructions = program.stream().mapToInt(Integer::intValue).toArray();
+            this.longProgram = constants.stream().allMatch(Numeric::isLong);
+            this.longConstants = longProgram ? constants.stream().mapToLong(Numeric::longValue).toArray() : null;
+        }
+
+        /**
+         * Evaluates the expression for one input.
+         * @param value The input.  An empty or null input is treated exactly as Numeric would treat it.
+         * @return The result.
+         */
+        @Override
+        public Numeric apply(final Numeric value) {
+            final Numeric input = value == null ? Numeric.empty() : value;
+            if (longProgram && input.isLong()) {
+                final long[] stack = new long[stackDepth];
+                if (this.runLong(input.longValue(), stack)) {
+                    return Numeric.ofLong(stack[0]);
+                }
+            }
+            return expression.evaluateNumeric(input);
+        }
+
+        /**
+         * Evaluates the expression for every value of a column.  A long column is run through the long program
+         * directly from its storage, sharing one stack per chunk, and honors the column's parallel setting.
+         * @param column The inputs.
+         * @return A new column of results, an empty column on null input, or the original column if the expression
+         * produces empty results.
+         */
+        public NumericArray applyAll(final NumericArray column) {
+            if (column == null) {
+                log.warn("Null NumericArray provided to NumericExpression!");
+                return NumericArray.of(new long[0]);
+            }
+            final int length = column.length();
+            if (longProgram && column.isScaled() && column.scale() == 0) {
+                final long[] inputs = column.unscaledValues();
+                final long[] results = new long[length];
+                final boolean failed = column.run(length, (from, to) -> {
+                    final long[] stack = new long[stackDepth];
+                    for (int i = from; i < to; i++) {
+                        if (!this.runLong(inputs[i], stack)) {
+                            return true;
+                        }
+                        results[i] = stack[0];
+                    }
+                    return false;
+                });
+                if (!failed) {
+                    final NumericArray result = NumericArray.ofUnscaled(results, 0);
+                    return column.isParallel() ? result.parallel() : result;
+                }
+            }
+            final BigDecimal[] results = new BigDecimal[length];
+            final boolean empty = column.run(length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    final Numeric result = this.apply(column.get(i));
+                    if (!result.isPresent()) {
+                        return true;
+                    }
+                    results[i] = result.decimalValue();
+                }
+                return false;
+            });
+            // Only an expression built from an empty constant can produce an empty result from a present input
+            if (empty) {
+                log.error("NumericExpression produced an empty result, so it cannot be applied to a NumericArray!");
+                return column;
+            }
+            final NumericArray result = NumericArray.ofDecimals(results);
+            return column.isParallel() ? result.parallel() : result;
+        }
+
+        /**
+         * Runs the program with long arithmetic, leaving the result in stack[0].
+         * @return False if any step overflowed or did not divide exactly, in which case the stack is garbage.
+         */
+        private boolean runLong(final long input, final long[] stack) {
+            int top = -1;
+            int constant = 0;
+            for (final int instruction : instructions) {
+                if (instruction == PUSH_INPUT) {
+                    stack[++top] = input;
+                    continue;
+                }
+                if (instruction == PUSH_CONSTANT) {
+                    stack[++top] = longConstants[constant++];
+                    continue;
+                }
+                final long second = stack[top--];
+                final long first = stack[top];
+                final long result;
+                // The same overflow checks as Numeric.Operation.applyLong, on primitives
+                if (instruction == Numeric.Operation.ADD.ordinal()) {
+                    result = first + second;
+                    if (((first ^ result) & (second ^ result)) < 0) {
+                        return false;
+                    }
+                } else if (instruction == Numeric.Operation.SUBTRACT.ordinal()) {
+                    result = first - second;
+                    if (((first ^ second) & (first ^ result)) < 0) {
+                        return false;
+                    }
+                } else if (instruction == Numeric.Operation.MULTIPLY.ordinal()) {
+                    result = first * second;
+                    if (((Math.abs(first) | Math.abs(second)) >>> 31) != 0
+                            && ((second != 0 && result / second != first)
+                            || (first == Long.MIN_VALUE && second == -1))) {
+                        return false;
+                    }
+                } else {
+                    if (second == 0 || (first == Long.MIN_VALUE && second == -1) || first % second != 0) {
+                        return false;
+                    }
+                    result = first / second;
+                }
+                stack[top] = result;
+            }
+            return true;
+        }
+
+        /**
+         * Appends the postfix instructions for a subtree.
+         * @return The stack depth the subtree needs.
+         */
+        private static int emit(final NumericExpression node, final List<Integer> program,
+                                final List<Numeric> constants) {
+            if (node.isInput()) {
+                program.add(PUSH_INPUT);
+                return 1;
+            }
+            if (node.operation == null) {
+                program.add(PUSH_CONSTANT);
+                constants.add(node.constant);
+                return 1;
+            }
+            final int leftDepth = Compiled.emit(node.left, program, constants);
+            final int rightDepth = Compiled.emit(node.right, program, constants);
+            program.add(node.operation.ordinal());
+            // The left result stays on the stack while the right subtree is evaluated
+            return Math.max(leftDepth, rightDepth + 1);
+        }
+    }
+}
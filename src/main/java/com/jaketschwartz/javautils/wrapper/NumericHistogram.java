@@ -0,0 +1,414 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * A log-bucketed histogram in the style of HdrHistogram, for recording large numbers of values such as latencies or
+ * amounts and reading back quantiles with a guaranteed relative error.
+ * <p>
+ * Each bucket covers the values that share a binary exponent and their leading precision bits of mantissa, so a
+ * bucket's index is simply the top bits of the value's IEEE 754 representation and recording a value is a shift and an
+ * increment.  A quantile is reported as the middle of its bucket, within 2^-(precision + 1) of the true value relative
+ * to its magnitude: about 0.4% at the default precision of 7 bits.  Zero and negative values are counted separately, so
+ * any finite value can be recorded, and the minimum and maximum are kept exactly.
+ * <p>
+ * Memory grows with the range of magnitudes recorded rather than the number of values: 2^precision counters for each
+ * power of two between the smallest and largest magnitude, whatever the count.  It is bounded by a trackable range of
+ * magnitudes fixed at creation, as in HdrHistogram, which may span at most MAX_BUCKETS buckets per sign.  Magnitudes
+ * outside the range are counted in the bucket at its nearer edge, so their quantiles lose the error guarantee while
+ * the minimum and maximum stay exact.  Histograms are not thread-safe; record into one per thread or partition and
+ * merge them, which is exact.
+ */
+public final class NumericHistogram {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericHistogram.class);
+    public static final int DEFAULT_PRECISION = 7;
+    public static final int MAX_PRECISION = 16;
+    // The most buckets either sign may grow to: 8 MB of counters.  Enough for the full range of doubles at precision 9.
+    public static final int MAX_BUCKETS = 1 << 20;
+    private static final int MANTISSA_BITS = 52;
+    private final int precision;
+    // The buckets of the smallest and largest trackable magnitudes
+    private final int lowestIndex;
+    private final int highestIndex;
+    private final Buckets positive;
+    private final Buckets negative;
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates an empty histogram with the default precision.
+     * @return The new histogram.
+     */
+    public static NumericHistogram create() {
+        return NumericHistogram.withPrecision(DEFAULT_PRECISION).get();
+    }
+
+    /**
+     * Creates an empty histogram that tracks every finite magnitude.
+     * @param precision The number of mantissa bits each bucket distinguishes.  Each extra bit halves the error and
+     *                  doubles the memory.  The full range of doubles fits in MAX_BUCKETS up to a precision of 9; use
+     *                  withRange() for more.
+     * @return The new histogram, or an empty Optional for an unsupported precision.
+     */
+    public static Optional<NumericHistogram> withPrecision(final int precision) {
+        return NumericHistogram.withRange(precision, Double.MIN_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * Creates an empty histogram that tracks a range of magnitudes, counting magnitudes outside of it at its edges.
+     * @param precision The number of mantissa bits each bucket distinguishes, from 1 to MAX_PRECISION.
+     * @param lowest The smallest magnitude to track, which must be positive.
+     * @param highest The largest magnitude to track, which must be finite and at least the lowest.
+     * @return The new histogram, or an empty Optional for an unsupported precision or range, including one that would
+     * need more than MAX_BUCKETS buckets.
+     */
+    public static Optional<NumericHistogram> withRange(final int precision, final double lowest, final double highest) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            log.error("NumericHistogram precision must be from 1 to {}, not {}!", MAX_PRECISION, precision);
+            return Optional.empty();
+        }
+        if (!(lowest > 0) || !(highest >= lowest) || Double.isInfinite(highest)) {
+            log.error("NumericHistogram cannot track magnitudes from {} to {}!", lowest, highest);
+            return Optional.empty();
+        }
+        final int lowestIndex = NumericHistogram.index(lowest, precision);
+        final int highestIndex = NumericHistogram.index(highest, precision);
+        if (highestIndex - lowestIndex + 1 > MAX_BUCKETS) {
+            log.error("Tracking magnitudes from {} to {} at precision {} needs {} buckets, more than the {} allowed!",
+                    lowest, highest, precision, highestIndex - lowestIndex + 1, MAX_BUCKETS);
+            return Optional.empty();
+        }
+        return Optional.of(new NumericHistogram(precision, lowestIndex, highestIndex));
+    }
+
+    private NumericHistogram(final int precision, final int lowestIndex, final int highestIndex) {
+        this.precision = precision;
+        this.lowestIndex = lowestIndex;
+        this.highestIndex = highestIndex;
+        this.positive = new Buckets(lowestIndex, highestIndex);
+        this.negative = new Buckets(lowestIndex, highestIndex);
+    }
+
+    /**
+     * Records a value.
+     * @param value The value to record.
+     */
+    public void record(final long value) {
+        this.record((double)value);
+    }
+
+    /**
+     * Records a value.  NaN and infinities are logged and skipped.
+     * @param value The value to record.
+     */
+    public void record(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            log.warn("NumericHistogram cannot record [{}]!", value);
+            return;
+        }
+        if (value > 0) {
+            positive.increment(this.index(value), 1);
+        } else if (value < 0) {
+            negative.increment(this.index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Records a value.  Null and empty Numerics are skipped.
+     * @param value The value to record.
+     */
+    public void record(final Numeric value) {
+        if (value == null || !value.isPresent()) {
+            return;
+        }
+        this.record(value.isLong() ? (double)value.longValue() : value.decimalValue().doubleValue());
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     * @param other A histogram with the same precision and range, which is left unchanged.
+     * @return True if the histograms were merged, or false on null input or a mismatched precision or range.
+     */
+    public boolean merge(final NumericHistogram other) {
+        if (other == null || other.precision != precision || other.lowestIndex != lowestIndex
+                || other.highestIndex != highestIndex) {
+            log.error("Cannot merge a NumericHistogram of precision {} into one of precision {}, or across ranges!",
+                    other == null ? "null" : other.precision, precision);
+            return false;
+        }
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return true;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Fetches the smallest value recorded.
+     * @return The exact minimum, or an empty Numeric if nothing was recorded.
+     */
+    public Numeric getMin() {
+        return count == 0 ? Numeric.empty() : Numeric.of(min);
+    }
+
+    /**
+     * Fetches the largest value recorded.
+     * @return The exact maximum, or an empty Numeric if nothing was recorded.
+     */
+    public Numeric getMax() {
+        return count == 0 ? Numeric.empty() : Numeric.of(max);
+    }
+
+    /**
+     * Estimates a quantile, such as 0.5 for the median or 0.99 for the 99th percentile.
+     * @param quantile The quantile, from 0 to 1.  0 and 1 give the exact minimum and maximum.
+     * @return The estimate, or an empty Numeric if nothing was recorded or the quantile is out of range.
+     */
+    public Numeric quantile(final double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            log.error("Quantiles must be from 0 to 1, not {}!", quantile);
+            return Numeric.empty();
+        }
+        if (count == 0 || quantile == 0) {
+            return this.getMin();
+        }
+        if (quantile == 1) {
+            return this.getMax();
+        }
+        // The zero-based rank of the value, as in nearest-rank percentiles
+        final long rank = (long)Math.floor(quantile * (count - 1));
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return this.estimate(-this.midpoint(negative.offset + i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return Numeric.of(0L);
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return this.estimate(this.midpoint(positive.offset + i));
+            }
+        }
+        return this.getMax();
+    }
+
+    /**
+     * Writes the histogram compactly: the header, then each sign's buckets as varint counts.
+     * @param buffer The buffer to write to, starting at its position.
+     * @return True if the histogram was written, or false on null input or if the buffer is too small.
+     */
+    public boolean encode(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericHistogram.encode()!");
+            return false;
+        }
+        final int start = buffer.position();
+        try {
+            buffer.put((byte)precision);
+            NumericCodec.putVarLong(lowestIndex, buffer);
+            NumericCodec.putVarLong(highestIndex, buffer);
+            NumericCodec.putVarLong(count, buffer);
+            NumericCodec.putVarLong(zeroCount, buffer);
+            NumericCodec.putFixedLong(Double.doubleToRawLongBits(min), buffer);
+            NumericCodec.putFixedLong(Double.doubleToRawLongBits(max), buffer);
+            positive.encode(buffer);
+            negative.encode(buffer);
+            return true;
+        } catch (final BufferOverflowException e) {
+            buffer.position(start);
+            log.error("The buffer provided to NumericHistogram.encode() is too small! Only {} bytes remain.",
+                    buffer.remaining());
+            return false;
+        }
+    }
+
+    /**
+     * Reads a histogram written by encode().
+     * @param buffer The buffer to read from, starting at its position.
+     * @return The histogram, or an empty Optional on null or malformed input.
+     */
+    public static Optional<NumericHistogram> decode(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericHistogram.decode()!");
+            return Optional.empty();
+        }
+        final int start = buffer.position();
+        try {
+            final int precision = buffer.get();
+            if (precision < 1 || precision > MAX_PRECISION) {
+                throw new IllegalArgumentException("Unsupported precision " + precision);
+            }
+            final int lowestIndex = NumericCodec.getCount(buffer);
+            final int highestIndex = NumericCodec.getCount(buffer);
+            if (highestIndex < lowestIndex || highestIndex - lowestIndex + 1 > MAX_BUCKETS
+                    || highestIndex > NumericHistogram.index(Double.MAX_VALUE, precision)) {
+                throw new IllegalArgumentException("Unsupported bucket range " + lowestIndex + " to " + highestIndex);
+            }
+            final NumericHistogram histogram = new NumericHistogram(precision, lowestIndex, highestIndex);
+            histogram.count = NumericCodec.getVarLong(buffer);
+            histogram.zeroCount = NumericCodec.getVarLong(buffer);
+            histogram.min = Double.longBitsToDouble(NumericCodec.getFixedLong(buffer));
+            histogram.max = Double.longBitsToDouble(NumericCodec.getFixedLong(buffer));
+            histogram.positive.decode(buffer);
+            histogram.negative.decode(buffer);
+            if (histogram.positive.total() + histogram.negative.total() + histogram.zeroCount != histogram.count) {
+                throw new IllegalArgumentException("Bucket counts do not add up to " + histogram.count);
+            }
+            return Optional.of(histogram);
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            buffer.position(start);
+            log.error("Malformed input provided to NumericHistogram.decode()! {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NumericHistogram{count=%d, min=%s, median=%s, p99=%s, max=%s}", count, this.getMin(),
+                this.quantile(0.5), this.quantile(0.99), this.getMax());
+    }
+
+    /**
+     * Finds the bucket of a positive magnitude, clamped to the trackable range.
+     */
+    private int index(final double magnitude) {
+        return Math.max(lowestIndex, Math.min(highestIndex, NumericHistogram.index(magnitude, precision)));
+    }
+
+    /**
+     * Finds the bucket of a positive magnitude.  The bits of a positive double increase with its value, so their top
+     * bits are the exponent followed by the leading mantissa bits.
+     */
+    private static int index(final double magnitude, final int precision) {
+        return (int)(Double.doubleToRawLongBits(magnitude) >>> (MANTISSA_BITS - precision));
+    }
+
+    /**
+     * The value halfway between the bounds of a bucket.
+     */
+    private double midpoint(final int index) {
+        final double lower = Double.longBitsToDouble((long)index << (MANTISSA_BITS - precision));
+        final double upper = Double.longBitsToDouble((long)(index + 1) << (MANTISSA_BITS - precision));
+        return lower + (upper - lower) / 2;
+    }
+
+    /**
+     * Keeps an estimate within the recorded range, which also makes single-valued histograms exact.
+     */
+    private Numeric estimate(final double value) {
+        return Numeric.of(Math.max(min, Math.min(max, value)));
+    }
+
+    /**
+     * Counts for a contiguous range of bucket indexes, grown in either direction as values arrive but never beyond the
+     * trackable range.
+     */
+    private static final class Buckets {
+        private static final long[] NONE = new long[0];
+        private final int floor;
+        private final int ceiling;
+        private int offset;
+        private long[] counts = NONE;
+
+        Buckets(final int floor, final int ceiling) {
+            this.floor = floor;
+            this.ceiling = ceiling;
+        }
+
+        void increment(final int index, final long amount) {
+            if (counts.length == 0) {
+                offset = index;
+                counts = new long[1];
+            } else if (index < offset || index >= offset + counts.length) {
+                this.grow(index);
+            }
+            counts[index - offset] += amount;
+        }
+
+        void addAll(final Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    this.increment(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        long total() {
+            long total = 0;
+            for (final long bucket : counts) {
+                total += bucket;
+            }
+            return total;
+        }
+
+        void encode(final ByteBuffer buffer) {
+            NumericCodec.putVarLong(offset, buffer);
+            NumericCodec.putVarLong(counts.length, buffer);
+            for (final long bucket : counts) {
+                NumericCodec.putVarLong(bucket, buffer);
+            }
+        }
+
+        void decode(final ByteBuffer buffer) {
+            final int start = NumericCodec.getCount(buffer);
+            final int length = NumericCodec.getCount(buffer);
+            // Every count takes at least a byte, which bounds the allocation by the input
+            if (length > buffer.remaining() || (length > 0 && (start < floor || (long)start + length - 1 > ceiling))) {
+                throw new IllegalArgumentException("Bucket range out of bounds");
+            }
+            offset = start;
+            counts = new long[length];
+            for (int i = 0; i < length; i++) {
+                counts[i] = NumericCodec.getVarLong(buffer);
+                if (counts[i] < 0) {
+                    throw new IllegalArgumentException("Negative bucket count");
+                }
+            }
+        }
+
+        /**
+         * Extends the range to cover an index, at least doubling it so that growth is amortized, up to the whole
+         * trackable range.
+         */
+        private void grow(final int index) {
+            final int low = Math.min(offset, index);
+            final int high = Math.max(offset + counts.length - 1, index);
+            final int length = Math.min(Math.max(high - low + 1, counts.length * 2), ceiling - floor + 1);
+            // Grow toward the side the new index is on, staying within the trackable range
+            final int preferred = index < offset ? high - length + 1 : low;
+            final int newOffset = Math.max(floor, Math.min(ceiling - length + 1, preferred));
+            final long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            offset = newOffset;
+            counts = grown;
+        }
+    }
+}
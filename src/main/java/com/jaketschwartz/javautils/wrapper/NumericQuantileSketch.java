@@ -0,0 +1,401 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A streaming quantile sketch after Karnin, Lang and Liberty (KLL), for estimating percentiles of more values than can
+ * be kept in memory.
+ * <p>
+ * Values are kept in a stack of compactors.  Each item on level h stands for 2^h recorded values.  When the sketch
+ * fills up, a full level is sorted and every other item, starting from a random one of the first two, moves up a level
+ * with double the weight.  Higher levels get the most room and each level below gets two thirds of the room of the one
+ * above, so the sketch holds about 3k items however many values are recorded.  The error in rank is roughly 1.7 / k:
+ * about 1% at the default k of 200, for any distribution, where a NumericHistogram bounds the error in value instead.
+ * The minimum and maximum are kept exactly.
+ * <p>
+ * Sketches are not thread-safe; record into one per thread or partition and merge them, which keeps the same error
+ * bound.
+ */
+public final class NumericQuantileSketch {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericQuantileSketch.class);
+    public static final int DEFAULT_K = 200;
+    public static final int MIN_K = 8;
+    public static final int MAX_K = 1 << 16;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+    private final int k;
+    // levels[h] holds sizes[h] items that each stand for 2^h values
+    private double[][] levels;
+    private int[] sizes;
+    // capacities[h] is the room for items on level h and capacity their sum, both recomputed only in addLevel()
+    private int[] capacities;
+    private int capacity;
+    private int retained;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // xorshift state for picking which half of a level survives a compaction
+    private long random = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Creates an empty sketch with the default accuracy.
+     * @return The new sketch.
+     */
+    public static NumericQuantileSketch create() {
+        return new NumericQuantileSketch(DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty sketch.
+     * @param k The accuracy parameter, from MIN_K to MAX_K.  The error in rank shrinks and the memory grows in
+     *          proportion to it.
+     * @return The new sketch, or an empty Optional for an unsupported k.
+     */
+    public static Optional<NumericQuantileSketch> withK(final int k) {
+        if (k < MIN_K || k > MAX_K) {
+            log.error("NumericQuantileSketch k must be from {} to {}, not {}!", MIN_K, MAX_K, k);
+            return Optional.empty();
+        }
+        return Optional.of(new NumericQuantileSketch(k));
+    }
+
+    private NumericQuantileSketch(final int k) {
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+        this.updateCapacities();
+    }
+
+    /**
+     * Records a value.
+     * @param value The value to record.
+     */
+    public void record(final long value) {
+        this.record((double)value);
+    }
+
+    /**
+     * Records a value.  NaN and infinities are logged and skipped.
+     * @param value The value to record.
+     */
+    public void record(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            log.warn("NumericQuantileSketch cannot record [{}]!", value);
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        this.append(0, value);
+        retained++;
+        if (retained >= capacity) {
+            this.compress();
+        }
+    }
+
+    /**
+     * Records a value.  Null and empty Numerics are skipped.
+     * @param value The value to record.
+     */
+    public void record(final Numeric value) {
+        if (value == null || !value.isPresent()) {
+            return;
+        }
+        this.record(value.isLong() ? (double)value.longValue() : value.decimalValue().doubleValue());
+    }
+
+    /**
+     * Adds every value recorded by another sketch to this one.
+     * @param other A sketch with the same k, which is left unchanged.
+     * @return True if the sketches were merged, or false on null input or mismatched k.
+     */
+    public boolean merge(final NumericQuantileSketch other) {
+        if (other == null || other.k != k) {
+            log.error("Cannot merge a NumericQuantileSketch with k {} into one with k {}!",
+                    other == null ? "null" : other.k, k);
+            return false;
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            while (level >= levels.length) {
+                this.addLevel();
+            }
+            for (int i = 0; i < other.sizes[level]; i++) {
+                this.append(level, other.levels[level][i]);
+            }
+            retained += other.sizes[level];
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= capacity) {
+            this.compress();
+        }
+        return true;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Fetches the smallest value recorded.
+     * @return The exact minimum, or an empty Numeric if nothing was recorded.
+     */
+    public Numeric getMin() {
+        return count == 0 ? Numeric.empty() : Numeric.of(min);
+    }
+
+    /**
+     * Fetches the largest value recorded.
+     * @return The exact maximum, or an empty Numeric if nothing was recorded.
+     */
+    public Numeric getMax() {
+        return count == 0 ? Numeric.empty() : Numeric.of(max);
+    }
+
+    /**
+     * Estimates a quantile, such as 0.5 for the median or 0.99 for the 99th percentile.
+     * @param quantile The quantile, from 0 to 1.  0 and 1 give the exact minimum and maximum.
+     * @return The estimate, which is always a recorded value, or an empty Numeric if nothing was recorded or the
+     * quantile is out of range.
+     */
+    public Numeric quantile(final double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            log.error("Quantiles must be from 0 to 1, not {}!", quantile);
+            return Numeric.empty();
+        }
+        if (count == 0 || quantile == 0) {
+            return this.getMin();
+        }
+        if (quantile == 1) {
+            return this.getMax();
+        }
+        final double[] values = new double[retained];
+        final long[] weights = new long[retained];
+        this.sortedItems(values, weights);
+        // The zero-based rank of the value, as in nearest-rank percentiles
+        final long rank = (long)Math.floor(quantile * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < values.length; i++) {
+            seen += weights[i];
+            if (seen > rank) {
+                return Numeric.of(values[i]);
+            }
+        }
+        return this.getMax();
+    }
+
+    /**
+     * Estimates the fraction of recorded values that are less than or equal to a value.
+     * @param value The value to rank.
+     * @return The fraction, from 0 to 1, or 0 if nothing was recorded.
+     */
+    public double rank(final double value) {
+        if (count == 0) {
+            return 0;
+        }
+        long below = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                if (levels[level][i] <= value) {
+                    below += 1L << level;
+                }
+            }
+        }
+        return (double)below / count;
+    }
+
+    /**
+     * Writes the sketch compactly: the header, then each level's items as raw double bits.
+     * @param buffer The buffer to write to, starting at its position.
+     * @return True if the sketch was written, or false on null input or if the buffer is too small.
+     */
+    public boolean encode(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericQuantileSketch.encode()!");
+            return false;
+        }
+        final int start = buffer.position();
+        try {
+            NumericCodec.putVarLong(k, buffer);
+            NumericCodec.putVarLong(count, buffer);
+            NumericCodec.putFixedLong(Double.doubleToRawLongBits(min), buffer);
+            NumericCodec.putFixedLong(Double.doubleToRawLongBits(max), buffer);
+            NumericCodec.putVarLong(levels.length, buffer);
+            for (int level = 0; level < levels.length; level++) {
+                NumericCodec.putVarLong(sizes[level], buffer);
+                for (int i = 0; i < sizes[level]; i++) {
+                    NumericCodec.putFixedLong(Double.doubleToRawLongBits(levels[level][i]), buffer);
+                }
+            }
+            return true;
+        } catch (final BufferOverflowException e) {
+            buffer.position(start);
+            log.error("The buffer provided to NumericQuantileSketch.encode() is too small! Only {} bytes remain.",
+                    buffer.remaining());
+            return false;
+        }
+    }
+
+    /**
+     * Reads a sketch written by encode().
+     * @param buffer The buffer to read from, starting at its position.
+     * @return The sketch, or an empty Optional on null or malformed input.
+     */
+    public static Optional<NumericQuantileSketch> decode(final ByteBuffer buffer) {
+        if (buffer == null) {
+            log.warn("Null buffer provided to NumericQuantileSketch.decode()!");
+            return Optional.empty();
+        }
+        final int start = buffer.position();
+        try {
+            final int k = NumericCodec.getCount(buffer);
+            if (k < MIN_K || k > MAX_K) {
+                throw new IllegalArgumentException("Unsupported k " + k);
+            }
+            final NumericQuantileSketch sketch = new NumericQuantileSketch(k);
+            sketch.count = NumericCodec.getVarLong(buffer);
+            sketch.min = Double.longBitsToDouble(NumericCodec.getFixedLong(buffer));
+            sketch.max = Double.longBitsToDouble(NumericCodec.getFixedLong(buffer));
+            final int levelCount = NumericCodec.getCount(buffer);
+            if (levelCount < 1 || levelCount >= Long.SIZE) {
+                throw new IllegalArgumentException("Unsupported level count " + levelCount);
+            }
+            while (sketch.levels.length < levelCount) {
+                sketch.addLevel();
+            }
+            long weight = 0;
+            for (int level = 0; level < levelCount; level++) {
+                final int size = NumericCodec.getCount(buffer);
+                // Every item takes eight bytes, which bounds the allocation by the input
+                if (size > buffer.remaining() / Long.BYTES) {
+                    throw new IllegalArgumentException("Level " + level + " is longer than the input");
+                }
+                for (int i = 0; i < size; i++) {
+                    sketch.append(level, Double.longBitsToDouble(NumericCodec.getFixedLong(buffer)));
+                }
+                sketch.retained += size;
+                weight += (long)size << level;
+            }
+            if (weight != sketch.count) {
+                throw new IllegalArgumentException("Item weights do not add up to " + sketch.count);
+            }
+            return Optional.of(sketch);
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            buffer.position(start);
+            log.error("Malformed input provided to NumericQuantileSketch.decode()! {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NumericQuantileSketch{count=%d, min=%s, median=%s, p99=%s, max=%s}", count,
+                this.getMin(), this.quantile(0.5), this.quantile(0.99), this.getMax());
+    }
+
+    /**
+     * Recomputes the room for items on each level, which shrinks geometrically with distance below the top level, and
+     * across every level.  Every level's depth changes when a level is added, so this runs after each addLevel().
+     */
+    private void updateCapacities() {
+        capacities = new int[levels.length];
+        int total = 0;
+        for (int level = 0; level < levels.length; level++) {
+            final int depth = levels.length - 1 - level;
+            capacities[level] = Math.max(MIN_CAPACITY, (int)Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            total += capacities[level];
+        }
+        capacity = total;
+    }
+
+    /**
+     * Compacts the lowest full level, and any full levels above it, until the sketch has room again.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] >= capacities[level]) {
+                if (level + 1 == levels.length) {
+                    this.addLevel();
+                }
+                this.compact(level);
+                if (retained < capacity) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other item to the level above.  With an odd number of items the largest stays
+     * behind, so the weight of the sketch is always exactly the count.
+     */
+    private void compact(final int level) {
+        final double[] items = levels[level];
+        final int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        final int paired = size & ~1;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        for (int i = (int)(random & 1); i < paired; i += 2) {
+            this.append(level + 1, items[i]);
+        }
+        if (paired != size) {
+            items[0] = items[size - 1];
+        }
+        sizes[level] = size - paired;
+        retained -= paired / 2;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new double[MIN_CAPACITY];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        this.updateCapacities();
+    }
+
+    private void append(final int level, final double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    /**
+     * Merges every level into one sorted run of items and their weights.
+     */
+    private void sortedItems(final double[] values, final long[] weights) {
+        int filled = 0;
+        for (int level = 0; level < levels.length; level++) {
+            final double[] items = levels[level];
+            final int size = sizes[level];
+            Arrays.sort(items, 0, size);
+            // Merge from the back so that the run already in place is never overwritten before it is read
+            int target = filled + size - 1;
+            int existing = filled - 1;
+            int incoming = size - 1;
+            while (incoming >= 0) {
+                if (existing >= 0 && values[existing] > items[incoming]) {
+                    values[target] = values[existing];
+                    weights[target--] = weights[existing--];
+                } else {
+                    values[target] = items[incoming--];
+                    weights[target--] = 1L << level;
+                }
+            }
+            filled += size;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import com.jaketschwartz.javautils.logging.Logger;
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Optional;
+
+/**
+ * Sorts Numerics, NumericArrays and longs into ascending numeric order, the order of Numeric.compareTo().
+ * <p>
+ * Values that can all be held as longs at one shared scale, which covers integral values and typical fixed-place
+ * decimals such as prices, are sorted with a least-significant-digit radix sort: one counting pass per byte of the
+ * long keys, skipping any byte that every key shares, with no comparisons and no boxing.  Anything else falls back to
+ * a comparison sort.  Both are stable, so values that are numerically equal but differ in scale, such as 1.0 and 1.00,
+ * keep their original order.
+ */
+public final class NumericSorter {
+    private static final Logger log = LoggerProvider.lazyLogger(NumericSorter.class);
+    // Below this many values a comparison sort is cheaper than building the radix histograms
+    private static final int RADIX_THRESHOLD = 64;
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+    // Null elements first, then empty Numerics, then numeric order
+    private static final Comparator<Numeric> ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private NumericSorter() {
+    }
+
+    /**
+     * Sorts longs into ascending order in place.
+     * @param values The values to sort.
+     */
+    public static void sort(final long[] values) {
+        if (values == null) {
+            log.warn("Null long[] provided to NumericSorter!");
+            return;
+        }
+        if (values.length < RADIX_THRESHOLD) {
+            Arrays.sort(values);
+            return;
+        }
+        NumericSorter.radixSort(values, null);
+    }
+
+    /**
+     * Sorts Numerics into ascending numeric order in place.  Null elements sort first, followed by empty Numerics.
+     * @param values The values to sort.
+     */
+    public static void sort(final Numeric[] values) {
+        if (values == null) {
+            log.warn("Null Numeric[] provided to NumericSorter!");
+            return;
+        }
+        final long[] keys = values.length < RADIX_THRESHOLD ? null : NumericSorter.keys(values);
+        if (keys == null) {
+            Arrays.sort(values, ORDER);
+            return;
+        }
+        final int[] order = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        NumericSorter.radixSort(keys, order);
+        final Numeric[] original = values.clone();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = original[order[i]];
+        }
+    }
+
+    /**
+     * Sorts a List of Numerics into ascending numeric order in place, as List.sort() would.  Null elements sort first,
+     * followed by empty Numerics.
+     * @param values The modifiable List to sort.
+     */
+    public static void sort(final List<Numeric> values) {
+        if (values == null) {
+            log.warn("Null List provided to NumericSorter!");
+            return;
+        }
+        final Numeric[] sorted = values.toArray(new Numeric[0]);
+        NumericSorter.sort(sorted);
+        final ListIterator<Numeric> iterator = values.listIterator();
+        for (final Numeric value : sorted) {
+            iterator.next();
+            iterator.set(value);
+        }
+    }
+
+    /**
+     * Sorts a column into ascending numeric order.  A column held as scaled longs is radix sorted directly from its
+     * storage.
+     * @param column The column to sort, which is left unchanged.
+     * @return A new sorted column with the same parallel setting, or an empty column on null input.
+     */
+    public static NumericArray sort(final NumericArray column) {
+        if (column == null) {
+            log.warn("Null NumericArray provided to NumericSorter!");
+            return NumericArray.of(new long[0]);
+        }
+        final NumericArray sorted;
+        if (column.isScaled()) {
+            final long[] values = column.unscaledValues().clone();
+            NumericSorter.sort(values);
+            sorted = NumericArray.ofUnscaled(values, column.scale());
+        } else {
+            final BigDecimal[] values = column.toBigDecimalArray();
+            // BigDecimal's natural order is numeric, and sorting objects is stable
+            Arrays.sort(values);
+            sorted = NumericArray.ofDecimals(values);
+        }
+        return column.isParallel() ? sorted.parallel() : sorted;
+    }
+
+    /**
+     * Expresses every value as an unscaled long at the largest scale among them, in the same way as a NumericArray.
+     * @return The keys, or null if any value is absent or does not fit in a long at the shared scale.
+     */
+    private static long[] keys(final Numeric[] values) {
+        for (final Numeric value : values) {
+            if (value == null || !value.isPresent()) {
+                return null;
+            }
+        }
+        final Optional<NumericArray> column = NumericArray.ofNumerics(Arrays.asList(values));
+        // The column was built for this call alone, so its storage can be reused as the keys
+        return column.filter(NumericArray::isScaled).map(NumericArray::unscaledValues).orElse(null);
+    }
+
+    /**
+     * Sorts keys in place with a stable least-significant-digit radix sort, rearranging the payload alongside them.
+     * Every histogram is gathered in one read of the keys, so a byte that every key shares costs no pass at all.
+     * @param keys The keys to sort.  Must not be empty.
+     * @param payload Values carried with the keys, or null.
+     */
+    private static void radixSort(final long[] keys, final int[] payload) {
+        final int length = keys.length;
+        final int[][] counts = new int[PASSES][BUCKETS];
+        for (final long key : keys) {
+            // Flipping the sign bit makes the unsigned order of the bytes match the signed order of the keys
+            final long flipped = key ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][(int)(flipped >>> (pass * RADIX_BITS)) & (BUCKETS - 1)]++;
+            }
+        }
+        long[] source = keys;
+        long[] target = new long[length];
+        int[] sourcePayload = payload;
+        int[] targetPayload = payload == null ? null : new int[length];
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int shift = pass * RADIX_BITS;
+            final int[] offsets = counts[pass];
+            if (offsets[(int)((source[0] ^ Long.MIN_VALUE) >>> shift) & (BUCKETS - 1)] == length) {
+                continue;
+            }
+            int offset = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                final int count = offsets[bucket];
+                offsets[bucket] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < length; i++) {
+                final int index = offsets[(int)((source[i] ^ Long.MIN_VALUE) >>> shift) & (BUCKETS - 1)]++;
+                target[index] = source[i];
+                if (sourcePayload != null) {
+                    targetPayload[index] = sourcePayload[i];
+                }
+            }
+            final long[] swapKeys = source;
+            source = target;
+            target = swapKeys;
+            final int[] swapPayload = sourcePayload;
+            sourcePayload = targetPayload;
+            targetPayload = swapPayload;
+        }
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, length);
+            if (payload != null) {
+                System.arraycopy(sourcePayload, 0, payload, 0, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.jaketschwartz.javautils.wrapper;
+
+/**
+ * The count, sum, mean, extremes and spread of a stream of Numerics, as produced by NumericCollectors.summarizing().
+ * Every statistic is calculated once, when the stream finishes, so the getters are plain reads.
+ */
+public final class NumericSummaryStatistics {
+    private final long count;
+    private final Numeric sum;
+    private final Numeric average;
+    private final Numeric min;
+    private final Numeric max;
+    private final Numeric variance;
+    private final Numeric standardDeviation;
+
+    NumericSummaryStatistics(final NumericAccumulator accumulator) {
+        this.count = accumulator.count();
+        this.sum = accumulator.sum();
+        this.average = accumulator.average();
+        this.min = accumulator.min();
+        this.max = accumulator.max();
+        this.variance = accumulator.variance();
+        this.standardDeviation = accumulator.standardDeviation();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Numeric getSum() {
+        return sum;
+    }
+
+    /**
+     * Fetches the mean, which is a double in FAST mode and rounded to DECIMAL128 in EXACT mode.
+     * @return The arithmetic mean, or an empty Numeric if there were no values.
+     */
+    public Numeric getAverage() {
+        return average;
+    }
+
+    /**
+     * Fetches the smallest value seen.
+     * @return The smallest value, or an empty Numeric if there were no values.
+     */
+    public Numeric getMin() {
+        return min;
+    }
+
+    /**
+     * Fetches the largest value seen.
+     * @return The largest value, or an empty Numeric if there were no values.
+     */
+    public Numeric getMax() {
+        return max;
+    }
+
+    /**
+     * Fetches the variance of the values, treating them as the whole population.
+     * @return The population variance, or an empty Numeric if there were no values.
+     */
+    public Numeric getVariance() {
+        return variance;
+    }
+
+    /**
+     * Fetches the square root of the variance.
+     * @return The population standard deviation, or an empty Numeric if there were no values.
+     */
+    public Numeric getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NumericSummaryStatistics[count=%d, sum=%s, average=%s, min=%s, max=%s, stddev=%s]", count,
+                NumericSummaryStatistics.describe(sum), NumericSummaryStatistics.describe(average),
+                NumericSummaryStatistics.describe(min), NumericSummaryStatistics.describe(max),
+                NumericSummaryStatistics.describe(standardDeviation));
+    }
+
+    private static String describe(final Numeric value) {
+        return value.isPresent() ? value.decimalValue().toPlainString() : "none";
+    }
+}
@@ -0,0 +1,70 @@
+package com.jaketschwartz.javautils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures how many bytes an operation allocates per call on the current thread, using the HotSpot extension of
+ * ThreadMXBean.  Each measurement warms the operation up first, so that the JIT has compiled it and escape analysis
+ * has removed whatever allocations it can, and then reports the lowest of several rounds to filter out one-off
+ * allocations such as class loading and lazily-initialized caches.
+ * <p>
+ * Operations should store their result somewhere that escapes, such as a static field, so that the JIT cannot discard
+ * the call entirely.  The numbers are therefore an upper bound on what a caller that keeps the result would see.
+ */
+public final class AllocationHarness {
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 20_000;
+    private static final int ROUNDS = 5;
+    private static final com.sun.management.ThreadMXBean THREADS = AllocationHarness.threadMXBean();
+
+    private AllocationHarness() {
+    }
+
+    /**
+     * Determines if this JVM can measure per-thread allocation.  Tests should be skipped when it cannot.
+     * @return True if bytesPerCall() can be used.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Measures the bytes one call of an operation allocates.
+     * @param operation The operation to call repeatedly.
+     * @return The lowest average number of bytes allocated per call across the measured rounds.
+     */
+    public static double bytesPerCall(final Runnable operation) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            operation.run();
+        }
+        final long threadId = Thread.currentThread().getId();
+        double lowest = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = THREADS.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                operation.run();
+            }
+            final long after = THREADS.getThreadAllocatedBytes(threadId);
+            lowest = Math.min(lowest, (double)(after - before) / MEASURED_CALLS);
+        }
+        return lowest;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)bean;
+        try {
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        } catch (final UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.jaketschwartz.javautils;
+
+import com.jaketschwartz.javautils.logging.LogLevel;
+import com.jaketschwartz.javautils.logging.LoggerI;
+import com.jaketschwartz.javautils.manipulation.ObjectConversionUtil;
+import com.jaketschwartz.javautils.parsing.SafeParser;
+import com.jaketschwartz.javautils.wrapper.Numeric;
+import com.jaketschwartz.javautils.wrapper.NumericHistogram;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Holds the library's hot paths to per-call allocation budgets, so that a change that adds boxing, an Optional or a
+ * copy to a path fails the build.  Budgets are in bytes per call, with headroom over what a 64-bit HotSpot JVM with
+ * compressed references measures, and should only be raised deliberately.  Escape analysis depends on how the JIT
+ * has profiled earlier callers, so a budget covers the worst case seen across the whole suite, not a test run alone.
+ */
+public class TestAllocationBudgets {
+    // Less than one byte per call, which any allocation on every call would exceed
+    private static final double ZERO = 1.0;
+    // Escape every result, so that the JIT cannot discard the calls being measured
+    private static Object sink;
+    private static long longSink;
+
+    @Before
+    public void requireSupport() {
+        Assume.assumeTrue("This JVM cannot measure per-thread allocation", AllocationHarness.isSupported());
+    }
+
+    @Test
+    public void testFilteredLog() {
+        final LoggerI logger = new LoggerI(TestAllocationBudgets.class, LogLevel.ERROR);
+        final Integer argument = 42;
+        assertWithinBudget(32, "A filtered log should only allocate its varargs array",
+                () -> logger.debug("Filtered [{}]", argument));
+    }
+
+    @Test
+    public void testDisplayedLog() {
+        final LoggerI logger = new LoggerI(TestAllocationBudgets.class, LogLevel.TRACE);
+        final PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+            }
+        }));
+        try {
+            assertWithinBudget(8192, "A displayed log", () -> logger.info("Displayed [{}]", "value"));
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertWithinBudget(104, "integerFromString()", () -> sink = SafeParser.integerFromString("12345"));
+        assertWithinBudget(112, "longFromString()", () -> sink = SafeParser.longFromString("1234567890123"));
+        assertWithinBudget(120, "doubleFromString()", () -> sink = SafeParser.doubleFromString("12345.678"));
+        assertWithinBudget(32, "epochDayFromIso() should only allocate its OptionalLong",
+                () -> longSink = SafeParser.epochDayFromIso("2020-01-02").getAsLong());
+    }
+
+    @Test
+    public void testArithmetic() {
+        final Numeric small = Numeric.of(5L);
+        final Numeric large = Numeric.of(1_000_000L);
+        final Numeric decimal = Numeric.of(new BigDecimal("1.5"));
+        assertWithinBudget(ZERO, "Adding to a cached result should not allocate", () -> sink = small.add(7L));
+        assertWithinBudget(48, "Adding longs should only allocate the result", () -> sink = large.add(large));
+        assertWithinBudget(48, "Adding decimals", () -> sink = decimal.add(decimal));
+    }
+
+    @Test
+    public void testCast() {
+        final Object value = "value";
+        assertWithinBudget(24, "A cast should only allocate its Optional",
+                () -> sink = ObjectConversionUtil.cast(value, CharSequence.class));
+        assertWithinBudget(ZERO, "A missed cast should not allocate",
+                () -> sink = ObjectConversionUtil.cast(value, Integer.class));
+    }
+
+    @Test
+    public void testHistogram() {
+        final NumericHistogram histogram = NumericHistogram.create();
+        assertWithinBudget(ZERO, "Recording into a histogram should not allocate", () -> histogram.record(12345L));
+    }
+
+    private static void assertWithinBudget(final double budget, final String description, final Runnable operation) {
+        final double bytesPerCall = AllocationHarness.bytesPerCall(operation);
+        assertTrue(String.format("%s: allocated %.1f bytes per call against a budget of %.1f", description,
+                bytesPerCall, budget), bytesPerCall <= budget);
+    }
+}
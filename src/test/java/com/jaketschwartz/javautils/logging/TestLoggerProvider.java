@@ -0,0 +1,88 @@
+package com.jaketschwartz.javautils.logging;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestLoggerProvider {
+    @After
+    public void restoreGenerator() {
+        LoggerProvider.setLoggerGenerator(null);
+    }
+
+    @Test
+    public void testDefaultGenerator() {
+        LoggerProvider.setLoggerGenerator(null);
+        assertTrue("With no generator set, Loggers should be LoggerIs",
+                LoggerProvider.logger(TestLoggerProvider.class) instanceof LoggerI);
+    }
+
+    @Test
+    public void testLazyLoggerBindsOnFirstUse() {
+        final AtomicInteger created = new AtomicInteger();
+        final RecordingLogger recorder = new RecordingLogger();
+        LoggerProvider.setLoggerGenerator(loggerClass -> {
+            created.incrementAndGet();
+            return recorder;
+        });
+        final Logger lazy = LoggerProvider.lazyLogger(TestLoggerProvider.class);
+        assertEquals("No Logger should be generated before the first call", 0, created.get());
+        lazy.info("first {}", 1);
+        lazy.warn("second");
+        assertEquals("The Logger should be generated once and reused", 1, created.get());
+        assertEquals("Every call should reach the generated Logger", 2, recorder.messages.size());
+        assertEquals("Calls should be forwarded as-is", "INFO first {}", recorder.messages.get(0));
+    }
+
+    @Test
+    public void testLazyLoggerRebinds() {
+        final RecordingLogger first = new RecordingLogger();
+        final RecordingLogger second = new RecordingLogger();
+        final Logger lazy = LoggerProvider.lazyLogger(TestLoggerProvider.class);
+        LoggerProvider.setLoggerGenerator(loggerClass -> first);
+        lazy.error("to first");
+        LoggerProvider.setLoggerGenerator(loggerClass -> second);
+        lazy.error("to second");
+        assertEquals("The first generator's Logger should only see calls made before the change", 1,
+                first.messages.size());
+        assertEquals("Calls after the change should go to the new generator's Logger", 1, second.messages.size());
+        assertSame("The handle should be bound to the current Logger", second,
+                ((LazyLogger)lazy).delegate());
+    }
+
+    private static final class RecordingLogger implements Logger {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void trace(final String text, final Object... args) {
+            messages.add("TRACE " + text);
+        }
+
+        @Override
+        public void debug(final String text, final Object... args) {
+            messages.add("DEBUG " + text);
+        }
+
+        @Override
+        public void info(final String text, final Object... args) {
+            messages.add("INFO " + text);
+        }
+
+        @Override
+        public void warn(final String text, final Object... args) {
+            messages.add("WARN " + text);
+        }
+
+        @Override
+        public void error(final String text, final Object... args) {
+            messages.add("ERROR " + text);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.jaketschwartz.javautils.manipulation;
+
+import com.jaketschwartz.javautils.wrapper.Numeric;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestFieldMapper {
+    public static class Source {
+        private String name = "widget";
+        private String count = "42";
+        private BigDecimal price = new BigDecimal("9.50");
+        private boolean active = true;
+        private Integer missing;
+        private String unmatched = "ignored";
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCount() {
+            return count;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public Integer getMissing() {
+            return missing;
+        }
+    }
+
+    public static class Target {
+        private String name;
+        private long count;
+        private Numeric price;
+        private boolean active;
+        private int missing = 7;
+        private final String fixed = "fixed";
+
+        public Target setName(final String name) {
+            this.name = name;
+            return this;
+        }
+    }
+
+    public static class Holder {
+        private Object count = "12";
+    }
+
+    public static class Counted {
+        private Long count;
+
+        private Counted() {
+        }
+    }
+
+    public static final class Celsius {
+        private final double degrees;
+
+        Celsius(final double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    public static final class Fahrenheit {
+        private final double degrees;
+
+        Fahrenheit(final double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    public static class Reading {
+        private Celsius temperature = new Celsius(100);
+    }
+
+    public static class Report {
+        private Fahrenheit temperature;
+    }
+
+    public static class NoDefault {
+        private String name;
+
+        public NoDefault(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void testNullInput() {
+        assertFalse("A null class should have no mapper", FieldMapper.of(null, Target.class).isPresent());
+        final FieldMapper<Source, Target> mapper = FieldMapper.of(Source.class, Target.class).orElse(null);
+        assertFalse("A null source should fail", mapper.copy(null, new Target()));
+        assertFalse("A null source should fail", mapper.map(null).isPresent());
+    }
+
+    @Test
+    public void testMapperIsCached() {
+        assertSame("A pair of classes should be introspected once", FieldMapper.of(Source.class, Target.class).get(),
+                FieldMapper.of(Source.class, Target.class).get());
+    }
+
+    @Test
+    public void testMatchedProperties() {
+        final FieldMapper<Source, Target> mapper = FieldMapper.of(Source.class, Target.class).orElse(null);
+        assertEquals("Only properties readable on one side and writable on the other should match",
+                new HashSet<>(Arrays.asList("name", "count", "price", "active", "missing")),
+                new HashSet<>(mapper.getPropertyNames()));
+    }
+
+    @Test
+    public void testMapConvertsProperties() {
+        final Target target = FieldMapper.of(Source.class, Target.class).flatMap(mapper -> mapper.map(new Source()))
+                .orElse(null);
+        assertEquals("The name should be copied through the fluent setter", "widget", target.name);
+        assertEquals("The count should be parsed into a long", 42L, target.count);
+        assertEquals("The price should be converted to a Numeric", Numeric.of(new BigDecimal("9.5")), target.price);
+        assertTrue("The boolean should be read through its is-getter", target.active);
+        assertEquals("A null value should leave a primitive unchanged", 7, target.missing);
+        assertEquals("A final field should be left alone", "fixed", target.fixed);
+    }
+
+    @Test
+    public void testCopyOntoExisting() {
+        final Source source = new Source();
+        source.count = "not a number";
+        final Target target = new Target();
+        target.count = 3;
+        assertFalse("A property that fails to convert should fail the copy",
+                FieldMapper.of(Source.class, Target.class).get().copy(source, target));
+        assertEquals("The failed property should be left unchanged", 3L, target.count);
+        assertEquals("The other properties should still be copied", "widget", target.name);
+    }
+
+    @Test
+    public void testRuntimeConversion() {
+        final Counted counted = FieldMapper.of(Holder.class, Counted.class).flatMap(mapper -> mapper.map(new Holder()))
+                .orElse(null);
+        assertEquals("A value declared as Object should convert by its runtime class", Long.valueOf(12), counted.count);
+    }
+
+    @Test
+    public void testConversionRegisteredAfterMapperIsBuilt() {
+        final FieldMapper<Reading, Report> mapper = FieldMapper.of(Reading.class, Report.class).orElse(null);
+        assertTrue("A property with no conversion should be skipped", mapper.getPropertyNames().isEmpty());
+        ObjectConversionUtil.registerConversion(Celsius.class, Fahrenheit.class,
+                celsius -> new Fahrenheit(celsius.degrees * 9 / 5 + 32));
+        assertEquals("The newly-convertible property should be picked up", Arrays.asList("temperature"),
+                mapper.getPropertyNames());
+        assertEquals("The registered conversion should be used", 212.0,
+                mapper.map(new Reading()).get().temperature.degrees, 0.0);
+        ObjectConversionUtil.registerConversion(Celsius.class, Fahrenheit.class, celsius -> new Fahrenheit(-1));
+        assertEquals("A later registration should replace the earlier one", -1.0,
+                mapper.map(new Reading()).get().temperature.degrees, 0.0);
+    }
+
+    @Test
+    public void testNoDefaultConstructor() {
+        final FieldMapper<Source, NoDefault> mapper = FieldMapper.of(Source.class, NoDefault.class).orElse(null);
+        assertFalse("A class without a no-argument constructor cannot be mapped into",
+                mapper.map(new Source()).isPresent());
+        final NoDefault target = new NoDefault(null);
+        assertTrue("Copying onto an existing object should still work", mapper.copy(new Source(), target));
+        assertEquals("The name should be copied", "widget", target.name);
+    }
+
+    @Test
+    public void testNullCopiedToReference() {
+        final Source source = new Source();
+        source.name = null;
+        final Target target = new Target().setName("old");
+        assertTrue("Copying a null should succeed",
+                FieldMapper.of(Source.class, Target.class).get().copy(source, target));
+        assertNull("A null should be copied onto a reference property", target.name);
+    }
+}
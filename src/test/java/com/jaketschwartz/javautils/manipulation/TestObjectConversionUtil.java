@@ -1,14 +1,23 @@
 package com.jaketschwartz.javautils.manipulation;
 
+import com.jaketschwartz.javautils.wrapper.Numeric;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TestObjectConversionUtil {
     @Test
@@ -50,4 +59,137 @@ public class TestObjectConversionUtil {
         assertEquals("We should have received a List successfully and they should be still equal",
                 strings, normalList);
     }
+
+    @Test
+    public void testMissesAreCounted() {
+        ObjectConversionUtil.resetMissCount();
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse("An Integer should never cast to a String",
+                    ObjectConversionUtil.cast(i, String.class).isPresent());
+            assertTrue("An Integer should always cast to a Number",
+                    ObjectConversionUtil.cast(i, Number.class).isPresent());
+        }
+        assertEquals("Only the mismatches should be counted", 1_000L, ObjectConversionUtil.getMissCount());
+        ObjectConversionUtil.setVerboseMisses(true);
+        try {
+            assertFalse("Verbose mode should not change the result",
+                    ObjectConversionUtil.cast(1L, Integer.class).isPresent());
+        } finally {
+            ObjectConversionUtil.setVerboseMisses(false);
+        }
+        assertFalse("A primitive Class should never match a boxed value",
+                ObjectConversionUtil.cast(1, int.class).isPresent());
+        assertEquals("Verbose misses should still be counted", 1_002L, ObjectConversionUtil.getMissCount());
+    }
+
+    @Test
+    public void testCastabilityIsCachedPerPair() {
+        assertTrue("An ArrayList should be castable to a List",
+                ObjectConversionUtil.isCastable(ArrayList.class, List.class));
+        assertFalse("A List should not be castable to an ArrayList",
+                ObjectConversionUtil.isCastable(List.class, ArrayList.class));
+        assertTrue("The cached answer should be the same the second time",
+                ObjectConversionUtil.isCastable(ArrayList.class, List.class));
+    }
+
+    @Test
+    public void testFilterCastViews() {
+        final List<Object> mixed = new ArrayList<>(Arrays.asList("a", 1, "b", null, 2.0, "c"));
+        final List<String> strings = new ArrayList<>();
+        ObjectConversionUtil.filterCast(mixed, String.class).forEach(strings::add);
+        assertEquals("Only the Strings should be picked out", Arrays.asList("a", "b", "c"), strings);
+        mixed.add("d");
+        final Iterator<String> view = ObjectConversionUtil.filterCast(mixed, String.class).iterator();
+        int count = 0;
+        while (view.hasNext()) {
+            view.next();
+            count++;
+        }
+        assertEquals("The view should be lazy and see later changes", 4, count);
+        final Object[] array = {1, "x", 2L};
+        final List<Number> numbers = new ArrayList<>();
+        ObjectConversionUtil.filterCast(array, Number.class).forEach(numbers::add);
+        assertEquals("Arrays should be filtered too", Arrays.asList(1, 2L), numbers);
+        assertEquals("Streams should be filtered too", Arrays.asList(1, 2L),
+                ObjectConversionUtil.filterCast(Stream.of(1, "x", 2L), Number.class).collect(Collectors.toList()));
+        assertFalse("Null input should produce an empty view",
+                ObjectConversionUtil.filterCast((Iterable<?>)null, String.class).iterator().hasNext());
+    }
+
+    @Test
+    public void testCastAllCountsMisses() {
+        ObjectConversionUtil.resetMissCount();
+        final List<Object> values = Arrays.asList(1, 2, "three", 4);
+        final List<Integer> integers = new ArrayList<>();
+        ObjectConversionUtil.castAll(values, Integer.class).forEach(integers::add);
+        assertEquals("Mismatches should be skipped", Arrays.asList(1, 2, 4), integers);
+        assertEquals("Mismatches should be counted", 1L, ObjectConversionUtil.getMissCount());
+        final String[] words = {"a", null, "b"};
+        final List<CharSequence> sequences = new ArrayList<>();
+        ObjectConversionUtil.castAll(words, CharSequence.class).forEach(sequences::add);
+        assertEquals("An array of a castable Type should skip only nulls", Arrays.asList("a", "b"), sequences);
+        final long sum = ObjectConversionUtil.castAll(IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> i % 10 == 0 ? (Object)String.valueOf(i) : (Object)i), Integer.class)
+                .mapToLong(Integer::longValue).sum();
+        assertEquals("A parallel Stream should be cast", 49_995_000L - 4_995_000L, sum);
+        assertEquals("Parallel mismatches should be counted", 1_001L, ObjectConversionUtil.getMissCount());
+    }
+
+    @Test
+    public void testPartitioningByType() {
+        final TypePartition partition = Stream.of(1, "a", 2.5, "b", 'c', null, 3L).parallel()
+                .collect(ObjectConversionUtil.partitioningByType(String.class, Integer.class, Number.class));
+        assertEquals("Strings should be partitioned in order", Arrays.asList("a", "b"), partition.get(String.class));
+        assertEquals("Integers should be taken by the first matching Type", Arrays.asList(1),
+                partition.get(Integer.class));
+        assertEquals("Other Numbers should fall to the broader Type", Arrays.<Number>asList(2.5, 3L),
+                partition.get(Number.class));
+        assertEquals("Everything else should be unmatched", Arrays.asList('c', null), partition.unmatched());
+        assertTrue("A Type that was not requested should be empty", partition.get(Long.class).isEmpty());
+    }
+
+    @Test
+    public void testConvertChainsConversions() {
+        assertEquals("An Integer should convert to a Long through Numeric", Long.valueOf(42L),
+                ObjectConversionUtil.convert(42, Long.class).orElse(null));
+        assertEquals("A Double should truncate to an int", Integer.valueOf(3),
+                ObjectConversionUtil.convert(3.7, int.class).orElse(null));
+        assertEquals("A String should parse to a Numeric", new BigDecimal("12.50"),
+                ObjectConversionUtil.convert("12.50", Numeric.class).flatMap(Numeric::getBigDecimal).orElse(null));
+        assertEquals("A String should parse with SafeParser", Long.valueOf(12L),
+                ObjectConversionUtil.convert("12.5", Long.class).orElse(null));
+        assertEquals("A Numeric should convert to a plain String", "1000",
+                ObjectConversionUtil.convert(Numeric.of(new BigDecimal("1E+3")), String.class).orElse(null));
+        assertEquals("A BigDecimal should convert to a Short through Numeric", Short.valueOf((short)7),
+                ObjectConversionUtil.convert(new BigDecimal("7.9"), Short.class).orElse(null));
+        final List<String> list = new ArrayList<>();
+        assertSame("A value of the target Type should be returned as-is", list,
+                ObjectConversionUtil.convert(list, List.class).orElse(null));
+        assertFalse("A failed step should produce an empty Optional",
+                ObjectConversionUtil.convert(Long.MAX_VALUE, Integer.class).isPresent());
+        assertFalse("A value with no chain should produce an empty Optional",
+                ObjectConversionUtil.convert(42, Thread.class).isPresent());
+    }
+
+    @Test
+    public void testRegisteredConversionsJoinChains() {
+        assertFalse("There should be no conversion to a Temperature yet",
+                ObjectConversionUtil.convert("21.5", Temperature.class).isPresent());
+        assertTrue("Registering a conversion should succeed", ObjectConversionUtil.registerConversion(Numeric.class,
+                Temperature.class, value -> new Temperature(value.getDouble().orElse(Double.NaN))));
+        assertEquals("A String should chain through Numeric to the new Type", 21.5,
+                ObjectConversionUtil.convert("21.5", Temperature.class).map(value -> value.celsius).orElse(0d), 0);
+        assertEquals("A long should chain through Numeric to the new Type", 30.0,
+                ObjectConversionUtil.convert(30L, Temperature.class).map(value -> value.celsius).orElse(0d), 0);
+        assertFalse("Null input should be rejected", ObjectConversionUtil.registerConversion(null, String.class,
+                String::valueOf));
+    }
+
+    private static final class Temperature {
+        private final double celsius;
+
+        private Temperature(final double celsius) {
+            this.celsius = celsius;
+        }
+    }
 }
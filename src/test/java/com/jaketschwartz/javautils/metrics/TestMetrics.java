@@ -0,0 +1,136 @@
+package com.jaketschwartz.javautils.metrics;
+
+import com.jaketschwartz.javautils.logging.LoggerProvider;
+import com.jaketschwartz.javautils.manipulation.ObjectConversionUtil;
+import com.jaketschwartz.javautils.parsing.SafeParser;
+import com.jaketschwartz.javautils.wrapper.Numeric;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestMetrics {
+    @Before
+    public void enable() {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    @After
+    public void disable() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void testCounterRespectsEnabledFlag() {
+        final Counter counter = Metrics.counter("test.counter");
+        assertSame("A counter should be registered once per name", counter, Metrics.counter("test.counter"));
+        counter.increment();
+        counter.add(4);
+        Metrics.setEnabled(false);
+        counter.increment();
+        assertEquals("Only events recorded while enabled should count", 5, counter.getCount());
+        assertEquals("The snapshot should report the counter", 5,
+                Metrics.snapshot().getCount("test.counter").getAsLong());
+        Metrics.reset();
+        assertEquals("Resetting should zero the counter", 0, counter.getCount());
+    }
+
+    @Test
+    public void testTimerSampling() {
+        final Timer everyCall = Metrics.timer("test.everyCall", 1);
+        for (int i = 0; i < 10; i++) {
+            everyCall.stop(everyCall.start());
+        }
+        final TimerSnapshot snapshot = everyCall.snapshot();
+        assertEquals("Every call should be counted", 10, snapshot.getCalls());
+        assertEquals("An interval of one should time every call", 10, snapshot.getSamples());
+        assertTrue("The maximum should not exceed the total", snapshot.getMaxNanos() <= snapshot.getTotalNanos());
+        final Timer sampled = Metrics.timer("test.sampled", 100);
+        assertEquals("The interval should round up to a power of two", 128, sampled.getSampleInterval());
+        for (int i = 0; i < 100_000; i++) {
+            sampled.stop(sampled.start());
+        }
+        assertEquals("Every call should be counted", 100_000, sampled.snapshot().getCalls());
+        assertTrue("Roughly one call in 128 should be timed", sampled.snapshot().getSamples() > 400
+                && sampled.snapshot().getSamples() < 1200);
+        Metrics.setEnabled(false);
+        assertEquals("Nothing should be timed while disabled", Timer.NOT_SAMPLED, sampled.start());
+    }
+
+    @Test
+    public void testGauges() {
+        assertTrue("A new gauge should register", Metrics.gauge("test.gauge", () -> 42L));
+        assertFalse("A gauge name should only register once", Metrics.gauge("test.gauge", () -> 0L));
+        Metrics.counter("test.taken");
+        assertFalse("A gauge cannot take a counter's name", Metrics.gauge("test.taken", () -> 0L));
+        assertFalse("A null gauge should not register", Metrics.gauge("test.null", null));
+        assertEquals("The snapshot should read the gauge", 42, Metrics.snapshot().getCount("test.gauge").getAsLong());
+    }
+
+    @Test
+    public void testLibraryMetricsAreRegisteredUpFront() {
+        final MetricsSnapshot snapshot = Metrics.snapshot();
+        for (final String name : new String[]{Metrics.PARSING_FAILURES, Metrics.CAST_MISSES,
+                Metrics.CONVERSION_FAILURES, Metrics.INT128_FALLBACKS, Metrics.DECIMAL_FALLBACKS}) {
+            assertTrue(name + " should be reported before its owner is used", snapshot.getCount(name).isPresent());
+        }
+        assertTrue("The log timer should be reported before LoggerI is used",
+                snapshot.getTimer(Metrics.DISPLAY_LOG).isPresent());
+    }
+
+    @Test
+    public void testLibraryIsInstrumented() {
+        SafeParser.integerFromString("not a number");
+        assertEquals("A failed parse should be counted", 1,
+                Metrics.snapshot().getCount(Metrics.PARSING_FAILURES).getAsLong());
+        final long misses = ObjectConversionUtil.getMissCount();
+        ObjectConversionUtil.cast(1, String.class);
+        assertEquals("The cast miss gauge should follow ObjectConversionUtil", misses + 1,
+                Metrics.snapshot().getCount(Metrics.CAST_MISSES).getAsLong());
+        final Numeric decimal = Numeric.of(new BigDecimal("1.5"));
+        decimal.add(decimal);
+        Numeric.of(Long.MAX_VALUE).add(Numeric.of(Long.MAX_VALUE).add(1L));
+        MetricsSnapshot snapshot = Metrics.snapshot();
+        assertEquals("Only the overflowing long sum should fall back to 128 bits", 1,
+                snapshot.getCount(Metrics.INT128_FALLBACKS).getAsLong());
+        assertEquals("Decimal arithmetic never had a faster path, so it is not a fallback", 0,
+                snapshot.getCount(Metrics.DECIMAL_FALLBACKS).getAsLong());
+        Numeric.of(7L).divide(2L);
+        snapshot = Metrics.snapshot();
+        assertEquals("A fractional quotient of integers should fall back to BigDecimal", 1,
+                snapshot.getCount(Metrics.DECIMAL_FALLBACKS).getAsLong());
+        assertEquals("Division has no 128-bit path, so it should not count as a 128-bit fallback", 1,
+                snapshot.getCount(Metrics.INT128_FALLBACKS).getAsLong());
+        LoggerProvider.logger(TestMetrics.class).info("Timed");
+        assertTrue("Displayed logs should be counted",
+                Metrics.snapshot().getTimer(Metrics.DISPLAY_LOG).get().getCalls() > 0);
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        assertTrue("The MXBean should register", Metrics.registerMBean());
+        assertTrue("Registering again should be harmless", Metrics.registerMBean());
+        Metrics.counter("test.jmx").increment();
+        final ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertEquals("The MXBean should report the enabled flag", true,
+                ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+        final Object counts = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Counts");
+        assertTrue("The counts should be exported as open data",
+                counts instanceof javax.management.openmbean.TabularData);
+        Metrics.timer("test.jmxTimer").stop(Metrics.timer("test.jmxTimer").start());
+        assertTrue("The timers should be exported as open data", ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(name, "Timers") instanceof javax.management.openmbean.TabularData);
+        ManagementFactory.getPlatformMBeanServer().invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals("Resetting through JMX should zero counters", 0, Metrics.counter("test.jmx").getCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.jaketschwartz.javautils.parsing;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestConverterRegistry {
+    @After
+    public void afterEach() {
+        // Ensure no registrations leak into other tests
+        ConverterRegistry.unregister(Locale.class);
+        ConverterRegistry.unregister(Integer.class);
+    }
+
+    @Test
+    public void testRegisterNullInput() {
+        assertFalse("A null class should not be registered",
+                ConverterRegistry.register(null, CharSequence::toString));
+        assertFalse("A null converter should not be registered",
+                ConverterRegistry.register(Locale.class, null));
+    }
+
+    @Test
+    public void testRegisterNewType() {
+        assertFalse("Locale should not be parseable before registration",
+                SafeParser.parse("en-US", Locale.class).isPresent());
+        assertTrue("The converter should be registered",
+                ConverterRegistry.register(Locale.class, value -> Locale.forLanguageTag(value.toString())));
+        assertEquals("Locale should be parseable after registration", Locale.US,
+                SafeParser.parse("en-US", Locale.class).orElse(null));
+        assertTrue("The converter should be removed", ConverterRegistry.unregister(Locale.class));
+        assertFalse("Locale should not be parseable after removal",
+                SafeParser.parse("en-US", Locale.class).isPresent());
+    }
+
+    @Test
+    public void testRegisterOverridesBuiltIn() {
+        ConverterRegistry.register(Integer.class, value -> Integer.valueOf(value.toString().trim()));
+        assertEquals("The registered converter should replace the built-in one", Integer.valueOf(42),
+                SafeParser.parse(" 42 ", Integer.class).orElse(null));
+        ConverterRegistry.unregister(Integer.class);
+        assertFalse("The built-in converter should be restored after removal",
+                SafeParser.parse(" 42 ", Integer.class).isPresent());
+    }
+
+    @Test
+    public void testConverterForUnknownType() {
+        assertFalse("An unknown type should have no converter",
+                ConverterRegistry.converterFor(Thread.class).isPresent());
+        assertFalse("A null type should have no converter", ConverterRegistry.converterFor(null).isPresent());
+    }
+}
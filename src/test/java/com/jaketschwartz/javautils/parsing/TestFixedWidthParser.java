@@ -0,0 +1,93 @@
+package com.jaketschwartz.javautils.parsing;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestFixedWidthParser {
+    @Test
+    public void testDigitsBadInput() {
+        assertFalse("A null input should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(null, 0, 1).isPresent());
+        assertFalse("A field running past the end should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(ascii("1234"), 1, 4).isPresent());
+        assertFalse("Too wide a field should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(ascii("12345678901234567890"), 0, 20).isPresent());
+        assertFalse("A non-digit should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(ascii("1234:678"), 0, 8).isPresent());
+        assertFalse("A non-digit in the padded head should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(ascii("1/3456789"), 0, 9).isPresent());
+        assertFalse("A 19-digit field over Long.MAX_VALUE should produce an empty OptionalLong",
+                FixedWidthParser.digitsFromBytes(ascii("9223372036854775808"), 0, 19).isPresent());
+    }
+
+    @Test
+    public void testDigitsGoodInput() {
+        assertEquals("We should receive a zero-padded amount", 1250L,
+                FixedWidthParser.digitsFromBytes(ascii("xx00001250"), 2, 8).getAsLong());
+        assertEquals("We should receive a 10-digit id", 4_294_967_296L,
+                FixedWidthParser.digitsFromBytes(ascii("4294967296"), 0, 10).getAsLong());
+        assertEquals("We should receive Long.MAX_VALUE", Long.MAX_VALUE,
+                FixedWidthParser.digitsFromBytes(ascii("9223372036854775807"), 0, 19).getAsLong());
+        final ByteBuffer bigEndian = ByteBuffer.wrap(ascii("20181203"));
+        assertEquals("We should receive an 8-digit date from a big-endian buffer", 20181203L,
+                FixedWidthParser.digitsFromBuffer(bigEndian, 0, 8).getAsLong());
+        assertEquals("The caller's byte order should be untouched", ByteOrder.BIG_ENDIAN, bigEndian.order());
+    }
+
+    @Test
+    public void testDigitColumn() {
+        final byte[] records = ascii("A20181203|B2019021x|C20200229|");
+        final long[] output = new long[3];
+        assertEquals("One field should be invalid", 1,
+                FixedWidthParser.digitColumn(records, 1, 10, 8, output, 3));
+        assertArrayEquals("Each record should be converted in order",
+                new long[]{20181203L, FixedWidthParser.INVALID, 20200229L}, output);
+        assertEquals("A column running past the end should be rejected", -1,
+                FixedWidthParser.digitColumn(records, 1, 10, 8, new long[4], 4));
+        final ByteBuffer direct = ByteBuffer.allocateDirect(records.length);
+        direct.put(records);
+        final long[] directOutput = new long[3];
+        FixedWidthParser.digitColumn(direct, 1, 10, 8, directOutput, 3);
+        assertArrayEquals("Direct buffers should produce the same column", output, directOutput);
+    }
+
+    @Test
+    public void testMatchesLongFromString() {
+        final Random random = new Random(28);
+        for (int width = 1; width <= FixedWidthParser.MAX_WIDTH; width++) {
+            final int records = 200;
+            final StringBuilder column = new StringBuilder();
+            for (int record = 0; record < records; record++) {
+                for (int digit = 0; digit < width; digit++) {
+                    column.append((char)('0' + random.nextInt(10)));
+                }
+                // Corrupt a few fields with characters on either side of the digit range
+                if (record % 17 == 0) {
+                    column.setCharAt(column.length() - 1 - random.nextInt(width), record % 2 == 0 ? '/' : ':');
+                }
+                column.append(';');
+            }
+            final long[] output = new long[records];
+            FixedWidthParser.digitColumn(ascii(column.toString()), 0, width + 1, width, output, records);
+            for (int record = 0; record < records; record++) {
+                final String field = column.substring(record * (width + 1), record * (width + 1) + width);
+                final long expected = field.chars().allMatch(Character::isDigit)
+                        ? SafeParser.longFromString(field).orElse(FixedWidthParser.INVALID)
+                        : FixedWidthParser.INVALID;
+                assertEquals("Field " + field + " should match longFromString()", expected, output[record]);
+            }
+        }
+    }
+
+    private static byte[] ascii(final String string) {
+        return string.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jaketschwartz.javautils.parsing;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestParseCache {
+    @Test(expected = NullPointerException.class)
+    public void testNullParser() {
+        ParseCache.of(null, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        ParseCache.forType(Integer.class, 0);
+    }
+
+    @Test
+    public void testNullInput() {
+        assertFalse("A null input should produce an empty Optional",
+                ParseCache.forType(Integer.class, 10).parse(null).isPresent());
+    }
+
+    @Test
+    public void testHitReturnsSharedValue() {
+        final ParseCache<BigDecimal> cache = ParseCache.of(SafeParser::bigDecimalFromString, 10);
+        final Optional<BigDecimal> first = cache.parse("19.99");
+        final Optional<BigDecimal> second = cache.parse(new String("19.99"));
+        assertEquals("We should receive the parsed value", new BigDecimal("19.99"), first.orElse(null));
+        assertSame("A hit should return the exact same Optional", first, second);
+        assertEquals("We should have one hit", 1, cache.stats().getHitCount());
+        assertEquals("We should have one miss", 1, cache.stats().getMissCount());
+        assertEquals("Half of our lookups should be hits", 0.5d, cache.stats().getHitRate(), 0d);
+    }
+
+    @Test
+    public void testFailuresAreRemembered() {
+        final AtomicInteger parses = new AtomicInteger();
+        final ParseCache<Integer> cache = ParseCache.of(value -> {
+            parses.incrementAndGet();
+            return SafeParser.integerFromString(value);
+        }, 10);
+        assertFalse("Bad input should produce an empty Optional", cache.parse("NOT A NUMBER").isPresent());
+        assertFalse("Bad input should still produce an empty Optional", cache.parse("NOT A NUMBER").isPresent());
+        assertEquals("The bad input should only be parsed once", 1, parses.get());
+    }
+
+    @Test
+    public void testClockEvictionKeepsReferencedEntries() {
+        final ParseCache<Integer> cache = ParseCache.forType(Integer.class, 3);
+        cache.parse("1");
+        cache.parse("2");
+        cache.parse("3");
+        // Reference 1 and 3 so that 2 is the only entry without a second chance
+        cache.parse("1");
+        cache.parse("3");
+        cache.parse("4");
+        assertEquals("One entry should have been evicted", 1, cache.stats().getEvictionCount());
+        assertEquals("The cache should never exceed its capacity", 3, cache.stats().getSize());
+        final long misses = cache.stats().getMissCount();
+        cache.parse("1");
+        cache.parse("3");
+        assertEquals("Referenced entries should survive eviction", misses, cache.stats().getMissCount());
+        cache.parse("2");
+        assertEquals("The unreferenced entry should have been evicted", misses + 1, cache.stats().getMissCount());
+    }
+
+    @Test
+    public void testConcurrentAccessStaysBounded() throws InterruptedException, ExecutionException {
+        final ParseCache<Long> cache = ParseCache.forType(Long.class, 64);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        final long value = (i * 31L + seed) % 100;
+                        // Thrown from the worker and rethrown by Future.get(), so a mismatch fails the test
+                        assertEquals(Long.valueOf(value), cache.parse(Long.toString(value)).orElse(null));
+                    }
+                }));
+            }
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue("The cache should never exceed its capacity", cache.stats().getSize() <= 64);
+        assertEquals("Every lookup should be counted", 20_000,
+                cache.stats().getHitCount() + cache.stats().getMissCount());
+    }
+}
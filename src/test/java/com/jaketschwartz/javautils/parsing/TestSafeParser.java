@@ -3,8 +3,21 @@ package com.jaketschwartz.javautils.parsing;
 import com.jaketschwartz.javautils.logging.LogLevel;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TestSafeParser {
     @Test
@@ -120,4 +133,132 @@ public class TestSafeParser {
         assertEquals("We should receive a Double value of MAX", Double.valueOf(Double.MAX_VALUE),
                 SafeParser.doubleFromString(Double.valueOf(Double.MAX_VALUE).toString()).orElse(null));
     }
+
+    @Test
+    public void testParseNullInput() {
+        assertFalse("A null input value should produce an empty Optional",
+                SafeParser.parse(null, Integer.class).isPresent());
+        assertFalse("A null target class should produce an empty Optional",
+                SafeParser.parse("10", null).isPresent());
+    }
+
+    @Test
+    public void testParseUnknownType() {
+        assertFalse("A type without a converter should produce an empty Optional",
+                SafeParser.parse("10", Thread.class).isPresent());
+    }
+
+    @Test
+    public void testParseMatchesFromStringMethods() {
+        assertEquals("parse() should shave decimals like integerFromString()",
+                SafeParser.integerFromString("12.9").orElse(null),
+                SafeParser.parse("12.9", Integer.class).orElse(null));
+        assertEquals("parse() should handle Longs like longFromString()",
+                SafeParser.longFromString("-9000").orElse(null), SafeParser.parse("-9000", Long.class).orElse(null));
+        assertEquals("parse() should handle BigDecimals like bigDecimalFromString()",
+                SafeParser.bigDecimalFromString("1.250").orElse(null),
+                SafeParser.parse("1.250", BigDecimal.class).orElse(null));
+        assertFalse("Too high a number should produce an empty Optional",
+                SafeParser.parse("1343", Byte.class).isPresent());
+    }
+
+    @Test
+    public void testParseAdditionalTypes() {
+        assertEquals("We should receive TRUE regardless of case", Boolean.TRUE,
+                SafeParser.parse("True", Boolean.class).orElse(null));
+        assertFalse("Nonsense should not be treated as FALSE",
+                SafeParser.parse("nope", Boolean.class).isPresent());
+        final UUID uuid = UUID.randomUUID();
+        assertEquals("We should receive the same UUID", uuid,
+                SafeParser.parse(uuid.toString(), UUID.class).orElse(null));
+        assertEquals("We should receive a BigInteger larger than a Long", new BigInteger("92233720368547758070"),
+                SafeParser.parse("92233720368547758070", BigInteger.class).orElse(null));
+        assertEquals("We should receive the parsed Instant", Instant.ofEpochSecond(86400),
+                SafeParser.parse("1970-01-02T00:00:00Z", Instant.class).orElse(null));
+        assertEquals("We should receive the parsed LocalDate", LocalDate.of(2018, 12, 3),
+                SafeParser.parse(new StringBuilder("2018-12-03"), LocalDate.class).orElse(null));
+        assertEquals("We should receive the parsed Duration", Duration.ofMinutes(90),
+                SafeParser.parse("PT1H30M", Duration.class).orElse(null));
+        assertEquals("Enums should be resolved without registration", LogLevel.WARN,
+                SafeParser.parse("WARN", LogLevel.class).orElse(null));
+    }
+
+    @Test
+    public void testIsoBadInput() {
+        assertFalse("A null input should produce an empty Optional",
+                SafeParser.localDateFromIso((CharSequence)null).isPresent());
+        assertFalse("An out-of-bounds byte range should produce an empty Optional",
+                SafeParser.localDateFromIso(new byte[4], 2, 10).isPresent());
+        assertFalse("An invalid day of month should produce an empty Optional",
+                SafeParser.localDateFromIso("2019-02-29").isPresent());
+        assertFalse("An invalid month should produce an empty Optional",
+                SafeParser.localDateFromIso("2019-13-01").isPresent());
+        assertFalse("Trailing characters should produce an empty Optional",
+                SafeParser.localDateFromIso("2019-01-011").isPresent());
+        assertFalse("An invalid hour should produce an empty Optional",
+                SafeParser.localDateTimeFromIso("2019-01-01T24:00").isPresent());
+        assertFalse("A local date-time should not carry an offset",
+                SafeParser.localDateTimeFromIso("2019-01-01T10:00Z").isPresent());
+        assertFalse("An instant must carry an offset",
+                SafeParser.instantFromIso("2019-01-01T10:00:00").isPresent());
+        assertFalse("Too many fraction digits should produce an empty Optional",
+                SafeParser.instantFromIso("2019-01-01T10:00:00.1234567890Z").isPresent());
+        assertFalse("An out-of-range offset should produce an empty Optional",
+                SafeParser.epochMillisFromIso("2019-01-01T10:00:00+19:00").isPresent());
+        assertFalse("Epoch nanos beyond the year 2262 should produce an empty OptionalLong",
+                SafeParser.epochNanosFromIso("2263-01-01T00:00:00Z").isPresent());
+    }
+
+    @Test
+    public void testIsoGoodInput() {
+        assertEquals("We should receive the leap day", LocalDate.of(2020, 2, 29),
+                SafeParser.localDateFromIso("2020-02-29").orElse(null));
+        assertEquals("We should receive the epoch day", LocalDate.of(1969, 7, 20).toEpochDay(),
+                SafeParser.epochDayFromIso("1969-07-20").getAsLong());
+        assertEquals("We should receive the local date-time without seconds", LocalDateTime.of(2018, 12, 3, 20, 7),
+                SafeParser.localDateTimeFromIso("2018-12-03T20:07").orElse(null));
+        assertEquals("We should receive the offset date-time",
+                OffsetDateTime.of(2018, 12, 3, 20, 7, 30, 500_000_000, ZoneOffset.ofHours(-7)),
+                SafeParser.offsetDateTimeFromIso("2018-12-03T20:07:30.5-07:00").orElse(null));
+        assertEquals("We should receive the instant", Instant.parse("2018-12-04T03:07:30.000000001Z"),
+                SafeParser.instantFromIso("2018-12-03T20:07:30.000000001-07:00").orElse(null));
+        assertEquals("We should receive epoch millis before the epoch",
+                Instant.parse("1969-12-31T23:59:59.999Z").toEpochMilli(),
+                SafeParser.epochMillisFromIso("1969-12-31T23:59:59.999Z").getAsLong());
+        assertEquals("We should receive epoch nanos", 1_543_892_850_123_456_789L,
+                SafeParser.epochNanosFromIso("2018-12-04T03:07:30.123456789Z").getAsLong());
+    }
+
+    @Test
+    public void testIsoByteRanges() {
+        final byte[] record = "id=7|2018-12-03T20:07:30Z|2018-12-03|".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("We should parse the instant out of the middle of the record",
+                Instant.parse("2018-12-03T20:07:30Z").toEpochMilli(),
+                SafeParser.epochMillisFromIso(record, 5, 20).getAsLong());
+        assertEquals("We should parse the date out of the middle of the record", LocalDate.of(2018, 12, 3),
+                SafeParser.localDateFromIso(record, 26, 10).orElse(null));
+    }
+
+    @Test
+    public void testIsoMatchesJavaTime() {
+        final Random random = new Random(8601);
+        for (int i = 0; i < 10_000; i++) {
+            final LocalDateTime expected = LocalDateTime.ofEpochSecond(random.nextInt(Integer.MAX_VALUE) * 4L
+                    - 4_000_000_000L, random.nextInt(1_000_000_000), ZoneOffset.UTC);
+            final ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(36 * 4) - 18 * 4) * 900);
+            final String local = expected.toString();
+            final String offsetText = OffsetDateTime.of(expected, offset).toString();
+            assertEquals("Local date-times should match java.time for " + local, expected,
+                    SafeParser.localDateTimeFromIso(local).orElse(null));
+            assertEquals("Dates should match java.time for " + local, expected.toLocalDate(),
+                    SafeParser.localDateFromIso(local.substring(0, 10)).orElse(null));
+            assertEquals("Offset date-times should match java.time for " + offsetText,
+                    OffsetDateTime.parse(offsetText), SafeParser.offsetDateTimeFromIso(offsetText).orElse(null));
+            assertEquals("Epoch millis should match java.time for " + offsetText,
+                    OffsetDateTime.parse(offsetText).toInstant().toEpochMilli(),
+                    SafeParser.epochMillisFromIso(offsetText).getAsLong());
+            assertTrue("The Instant converter should accept " + offsetText,
+                    SafeParser.parse(offsetText, Instant.class).isPresent());
+        }
+    }
 }
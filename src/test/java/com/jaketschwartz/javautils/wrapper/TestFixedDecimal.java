@@ -0,0 +1,112 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestFixedDecimal {
+
+    @Test
+    public void testBadInput() {
+        assertFalse("A negative scale should be rejected", FixedDecimal.of(1L, -1).isPresent());
+        assertFalse("A scale beyond 18 should be rejected", FixedDecimal.of(1L, 19).isPresent());
+        assertFalse("A null value should be rejected", FixedDecimal.of(null, 2, RoundingMode.HALF_EVEN).isPresent());
+        assertFalse("A null RoundingMode should be rejected", FixedDecimal.of(1.5d, 2, null).isPresent());
+        final FixedDecimal one = FixedDecimal.of(100L, 2).get();
+        assertFalse("A null operand should be rejected", one.add(null).isPresent());
+        assertFalse("Division by zero should be rejected",
+                one.divide(FixedDecimal.of(0L, 2).get(), RoundingMode.HALF_EVEN).isPresent());
+    }
+
+    @Test
+    public void testConversions() {
+        final FixedDecimal price = FixedDecimal.of(19.995d, 2, RoundingMode.HALF_EVEN).get();
+        assertEquals("19.995 should round to even", 2000L, price.getUnscaledValue());
+        assertEquals(new BigDecimal("20.00"), price.toBigDecimal());
+        assertEquals("20.00", price.toString());
+        assertEquals(new BigDecimal("20.00"), price.toNumeric().getBigDecimal().get());
+        assertEquals("A scale of zero should produce a long-backed Numeric", Long.valueOf(7L),
+                FixedDecimal.of(7L, 0).get().toNumeric().getLong().get());
+        assertEquals(Optional.of(price), Numeric.of(new BigDecimal("19.995"))
+                .getFixedDecimal(2, RoundingMode.HALF_EVEN));
+        assertFalse("Rounding should be refused under UNNECESSARY",
+                FixedDecimal.of(1.005d, 2, RoundingMode.UNNECESSARY).isPresent());
+        assertFalse("A value too large for the scale should be refused",
+                FixedDecimal.of(Long.MAX_VALUE / 10, 2, RoundingMode.HALF_EVEN).isPresent());
+    }
+
+    @Test
+    public void testOverflowIsDetected() {
+        final FixedDecimal max = FixedDecimal.of(Long.MAX_VALUE, 2).get();
+        final FixedDecimal tiny = FixedDecimal.of(1L, 2).get();
+        assertFalse("Adding past the maximum should be refused", max.add(tiny).isPresent());
+        assertFalse("Subtracting past the minimum should be refused",
+                FixedDecimal.of(Long.MIN_VALUE, 2).get().subtract(tiny).isPresent());
+        assertFalse("Rescaling past the maximum should be refused", max.setScale(3, RoundingMode.DOWN).isPresent());
+        assertFalse("A product past the maximum should be refused",
+                max.multiply(FixedDecimal.of(200L, 2).get(), RoundingMode.DOWN).isPresent());
+        assertEquals("An oversized intermediate product should still produce a result that fits",
+                Optional.of(FixedDecimal.of(Long.MAX_VALUE / 2, 2).get()),
+                max.multiply(FixedDecimal.of(5L, 1).get(), RoundingMode.DOWN));
+    }
+
+    @Test
+    public void testMatchesBigDecimal() {
+        final Random random = new Random(36);
+        final RoundingMode[] roundingModes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING,
+                RoundingMode.FLOOR, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+        for (int i = 0; i < 20_000; i++) {
+            final FixedDecimal left = FixedDecimal.of(this.randomUnscaled(random), random.nextInt(7)).get();
+            final FixedDecimal right = FixedDecimal.of(this.randomUnscaled(random), random.nextInt(7)).get();
+            final RoundingMode roundingMode = roundingModes[random.nextInt(roundingModes.length)];
+            final BigDecimal leftDecimal = left.toBigDecimal();
+            final BigDecimal rightDecimal = right.toBigDecimal();
+            this.assertMatches(leftDecimal.add(rightDecimal), left.add(right));
+            this.assertMatches(leftDecimal.subtract(rightDecimal), left.subtract(right));
+            this.assertMatches(leftDecimal.multiply(rightDecimal).setScale(left.getScale(), roundingMode),
+                    left.multiply(right, roundingMode));
+            if (right.getUnscaledValue() != 0) {
+                this.assertMatches(leftDecimal.divide(rightDecimal, left.getScale(), roundingMode),
+                        left.divide(right, roundingMode));
+            }
+            final int newScale = random.nextInt(7);
+            this.assertMatches(leftDecimal.setScale(newScale, roundingMode), left.setScale(newScale, roundingMode));
+        }
+    }
+
+    @Test
+    public void testDivideRounded() {
+        assertEquals(-2L, FixedDecimal.divideRounded(-5L, 2L, RoundingMode.HALF_EVEN));
+        assertEquals(-3L, FixedDecimal.divideRounded(-5L, 2L, RoundingMode.HALF_UP));
+        assertEquals(-1L, FixedDecimal.divideRounded(1L, Long.MIN_VALUE, RoundingMode.FLOOR));
+        assertEquals(0L, FixedDecimal.divideRounded(1L, Long.MIN_VALUE, RoundingMode.HALF_UP));
+        assertEquals(1L, FixedDecimal.divideRounded(Long.MIN_VALUE + 1, Long.MIN_VALUE, RoundingMode.HALF_UP));
+    }
+
+    private void assertMatches(final BigDecimal expected, final Optional<FixedDecimal> actual) {
+        final boolean fits = expected.unscaledValue().bitLength() <= 63;
+        assertEquals("Only results that fit should be produced for " + expected, fits, actual.isPresent());
+        if (fits) {
+            assertEquals(expected, actual.get().toBigDecimal());
+            assertTrue(expected.scale() == actual.get().getScale());
+        }
+    }
+
+    private long randomUnscaled(final Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(20_000) - 10_000;
+            case 1:
+                return random.nextLong() >> random.nextInt(40);
+            default:
+                return random.nextLong();
+        }
+    }
+}
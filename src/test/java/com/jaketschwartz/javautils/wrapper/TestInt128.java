@@ -0,0 +1,84 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestInt128 {
+    private static final BigInteger MIN = BigInteger.ONE.shiftLeft(127).negate();
+    private static final BigInteger MAX = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+
+    @Test
+    public void testMultiplyHighImplementationsAgree() {
+        final Random random = new Random(37);
+        final long[] edges = {0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 0xFFFFFFFFL, -0x100000000L};
+        for (final long first : edges) {
+            for (final long second : edges) {
+                this.assertMultiplyHigh(first, second);
+            }
+        }
+        for (int i = 0; i < 100_000; i++) {
+            this.assertMultiplyHigh(random.nextLong(), random.nextLong());
+        }
+    }
+
+    @Test
+    public void testBigIntegerRoundTrip() {
+        assertEquals(MIN, Int128.of(MIN).toBigInteger());
+        assertEquals(MAX, Int128.of(MAX).toBigInteger());
+        assertNull("2^127 should not fit", Int128.of(MAX.add(BigInteger.ONE)));
+        assertEquals(BigInteger.valueOf(Long.MIN_VALUE), Int128.of(Long.MIN_VALUE).toBigInteger());
+    }
+
+    @Test
+    public void testArithmeticMatchesBigInteger() {
+        final Random random = new Random(38);
+        for (int i = 0; i < 100_000; i++) {
+            final BigInteger first = this.randomValue(random);
+            final BigInteger second = this.randomValue(random);
+            final Int128 left = Int128.of(first);
+            final Int128 right = Int128.of(second);
+            this.assertMatches(first.add(second), left.add(right));
+            this.assertMatches(first.subtract(second), left.subtract(right));
+            this.assertMatches(first.multiply(second), left.multiply(right));
+        }
+    }
+
+    @Test
+    public void testEdges() {
+        final Int128 min = Int128.of(MIN);
+        final Int128 max = Int128.of(MAX);
+        this.assertMatches(MIN, Int128.of(Long.MIN_VALUE).multiply(Int128.of(BigInteger.ONE.shiftLeft(64))));
+        this.assertMatches(MIN.negate(), min.multiply(Int128.of(-1L)));
+        this.assertMatches(MIN.subtract(BigInteger.ONE), min.subtract(Int128.of(1L)));
+        this.assertMatches(MAX.add(BigInteger.ONE), max.add(Int128.of(1L)));
+        this.assertMatches(MIN, min.multiply(Int128.of(1L)));
+        this.assertMatches(MAX.negate(), max.multiply(Int128.of(-1L)));
+    }
+
+    private void assertMultiplyHigh(final long first, final long second) {
+        final long expected = BigInteger.valueOf(first).multiply(BigInteger.valueOf(second)).shiftRight(64)
+                .longValue();
+        assertEquals(expected, Int128.portableMultiplyHigh(first, second));
+        assertEquals(expected, Int128.multiplyHigh(first, second));
+        assertEquals(BigInteger.valueOf(first).multiply(BigInteger.valueOf(second)), Int128.multiply(first, second)
+                .toBigInteger());
+    }
+
+    private void assertMatches(final BigInteger expected, final Int128 actual) {
+        if (expected.compareTo(MIN) < 0 || expected.compareTo(MAX) > 0) {
+            assertNull("Overflow should be reported for " + expected, actual);
+        } else {
+            assertEquals(expected, actual.toBigInteger());
+        }
+    }
+
+    private BigInteger randomValue(final Random random) {
+        final BigInteger magnitude = new BigInteger(1 + random.nextInt(127), random);
+        return random.nextBoolean() ? magnitude : magnitude.negate();
+    }
+}
@@ -1,13 +1,18 @@
 package com.jaketschwartz.javautils.wrapper;
 
+import com.jaketschwartz.javautils.parsing.SafeParser;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TestNumeric {
 
@@ -241,4 +246,227 @@ public class TestNumeric {
                 Numeric.of(10).add("HELLO").subtract(3).multiply(new ArrayList<>()).divide(7).getInteger().orElse(null);
         assertEquals("(10 - 3) / 7 = 1", Integer.valueOf(1), output);
     }
+
+    @Test
+    public void testLongOverflowPromotesToBigDecimal() {
+        assertEquals("Adding past Long.MAX_VALUE should promote rather than wrap",
+                BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE),
+                Numeric.of(Long.MAX_VALUE).add(1).getBigDecimal().orElse(null));
+        assertEquals("Subtracting past Long.MIN_VALUE should promote rather than wrap",
+                BigDecimal.valueOf(Long.MIN_VALUE).subtract(BigDecimal.ONE),
+                Numeric.of(Long.MIN_VALUE).subtract(1).getBigDecimal().orElse(null));
+        assertEquals("Multiplying past Long.MAX_VALUE should promote rather than wrap",
+                BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(3)),
+                Numeric.of(Long.MAX_VALUE).multiply(3).getBigDecimal().orElse(null));
+        assertEquals("Long.MIN_VALUE / -1 should promote rather than wrap",
+                BigDecimal.valueOf(Long.MIN_VALUE).negate(),
+                Numeric.of(Long.MIN_VALUE).divide(-1).getBigDecimal().orElse(null));
+        assertFalse("A promoted value should no longer fit in a Long",
+                Numeric.of(Long.MAX_VALUE).add(1).getLong().isPresent());
+        assertEquals("A promoted value that shrinks back down should fit in a Long again", Long.valueOf(Long.MAX_VALUE),
+                Numeric.of(Long.MAX_VALUE).add(1).subtract(1).getLong().orElse(null));
+    }
+
+    @Test
+    public void testInt128PathMatchesBigDecimalSemantics() {
+        final Random random = new Random(37);
+        for (int i = 0; i < 20_000; i++) {
+            // Products of two longs land in the 128-bit tier; chaining pushes some of them past it
+            final Numeric first = Numeric.of(random.nextLong()).multiply(random.nextLong() >> random.nextInt(64));
+            final Numeric second = i % 2 == 0
+                    ? Numeric.of(random.nextLong())
+                    : Numeric.of(random.nextLong()).multiply(random.nextLong() >> random.nextInt(64));
+            final BigDecimal bigFirst = first.getBigDecimal().get();
+            final BigDecimal bigSecond = second.getBigDecimal().get();
+            assertEquals(bigFirst + " + " + bigSecond, bigFirst.add(bigSecond),
+                    first.add(second).getBigDecimal().orElse(null));
+            assertEquals(bigFirst + " - " + bigSecond, bigFirst.subtract(bigSecond),
+                    first.subtract(second).getBigDecimal().orElse(null));
+            assertEquals(bigFirst + " * " + bigSecond, bigFirst.multiply(bigSecond),
+                    first.multiply(second).getBigDecimal().orElse(null));
+            if (bigSecond.signum() != 0) {
+                assertEquals(bigFirst + " / " + bigSecond, bigFirst.divide(bigSecond, MathContext.DECIMAL128),
+                        first.divide(second).getBigDecimal().orElse(null));
+            }
+            assertEquals(bigFirst.doubleValue(), first.getDouble().get(), 0d);
+        }
+        assertTrue("The product of two longs should stay out of BigDecimal",
+                Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE).isIntegral());
+        assertFalse("A 128-bit value should not fit in a Long",
+                Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE).getLong().isPresent());
+        assertTrue("A large scale-zero BigDecimal should be held in 128 bits",
+                Numeric.of(new BigDecimal("170141183460469231731687303715884105727")).isIntegral());
+        assertFalse("A scale-zero BigDecimal past 128 bits should stay a BigDecimal",
+                Numeric.of(new BigDecimal("170141183460469231731687303715884105728")).isIntegral());
+    }
+
+    @Test
+    public void testCommonValuesAreCanonical() {
+        assertSame("Small integers should share an instance", Numeric.of(7), Numeric.of(7L));
+        assertSame("Small integers should share an instance", Numeric.of((byte)-128),
+                Numeric.of(BigDecimal.valueOf(-128)));
+        assertSame("Arithmetic landing on a small integer should share an instance", Numeric.of(1024),
+                Numeric.of(1000).add(24));
+        assertSame("Common decimals should share an instance", Numeric.of(0.25d), Numeric.of(new BigDecimal("0.25")));
+        assertFalse("Decimals with different scales should stay distinct",
+                Numeric.of(0.5d) == Numeric.of(new BigDecimal("0.50")));
+        assertEquals("A canonical decimal should keep its scale", new BigDecimal("0.50"),
+                Numeric.of(new BigDecimal("0.50")).getBigDecimal().get());
+        assertFalse("Large values should not be cached", Numeric.of(1025) == Numeric.of(1025));
+    }
+
+    @Test
+    public void testIdentityOperationsReturnTheOperand() {
+        final Numeric large = Numeric.of(123_456_789L);
+        final Numeric price = Numeric.of(new BigDecimal("19.990"));
+        assertSame(large, large.add(0));
+        assertSame(large, large.subtract(0));
+        assertSame(large, large.multiply(1));
+        assertSame(large, large.divide(1));
+        assertSame(price, price.add(0));
+        assertSame(price, Numeric.of(0).add(price));
+        assertSame(price, Numeric.of(1).multiply(price));
+        assertSame(price, price.divide(1));
+        // Each of these changes the scale under BigDecimal, so the operation must really happen
+        assertEquals(new BigDecimal("19.9900"), price.add(new BigDecimal("0.0000")).getBigDecimal().get());
+        assertEquals(new BigDecimal("1000"), Numeric.of(new BigDecimal("1E+3")).add(0).getBigDecimal().get());
+        final BigDecimal longDecimal = new BigDecimal("1.2345678901234567890123456789012345678");
+        assertEquals(longDecimal.round(MathContext.DECIMAL128),
+                Numeric.of(longDecimal).divide(1).getBigDecimal().get());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivideByZero() {
+        Numeric.of(10).divide(0);
+    }
+
+    @Test
+    public void testLongPathMatchesBigDecimalSemantics() {
+        final Random random = new Random(31);
+        final long[] interesting = {0, 1, -1, 2, -2, 3, 7, 10, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 2, Long.MIN_VALUE / 3, 3_037_000_500L};
+        for (int i = 0; i < 20_000; i++) {
+            final long first = i % 4 == 0 ? interesting[random.nextInt(interesting.length)] : random.nextLong()
+                    >> random.nextInt(64);
+            final long second = i % 3 == 0 ? interesting[random.nextInt(interesting.length)] : random.nextLong()
+                    >> random.nextInt(64);
+            final BigDecimal bigFirst = BigDecimal.valueOf(first);
+            final BigDecimal bigSecond = BigDecimal.valueOf(second);
+            assertEquals(first + " + " + second, bigFirst.add(bigSecond),
+                    Numeric.of(first).add(second).getBigDecimal().orElse(null));
+            assertEquals(first + " - " + second, bigFirst.subtract(bigSecond),
+                    Numeric.of(first).subtract(second).getBigDecimal().orElse(null));
+            assertEquals(first + " * " + second, bigFirst.multiply(bigSecond),
+                    Numeric.of(first).multiply(second).getBigDecimal().orElse(null));
+            if (second != 0) {
+                assertEquals(first + " / " + second, bigFirst.divide(bigSecond, MathContext.DECIMAL128),
+                        Numeric.of(first).divide(second).getBigDecimal().orElse(null));
+            }
+        }
+    }
+
+    @Test
+    public void testLongPathConversionsMatchStringParsing() {
+        final Random random = new Random(32);
+        for (int i = 0; i < 1_000; i++) {
+            final long value = random.nextLong() >> random.nextInt(64);
+            final Numeric numeric = Numeric.of(value);
+            assertEquals("Float conversion of " + value, Float.valueOf(Long.toString(value)),
+                    numeric.getFloat().orElse(null));
+            assertEquals("Double conversion of " + value, Double.valueOf(Long.toString(value)),
+                    numeric.getDouble().orElse(null));
+            assertEquals("Integer conversion of " + value, value == (int)value,
+                    numeric.getInteger().isPresent());
+            assertTrue("Long conversion of " + value, numeric.getLong().filter(l -> l == value).isPresent());
+        }
+    }
+
+    @Test
+    public void testNonFiniteFloatingPointIsEmpty() {
+        assertFalse("NaN should produce an empty Numeric", Numeric.of(Double.NaN).isPresent());
+        assertFalse("Infinity should produce an empty Numeric", Numeric.of(Float.POSITIVE_INFINITY).isPresent());
+    }
+
+    @Test
+    public void testNumericInput() {
+        final Numeric numeric = Numeric.of(12);
+        assertSame("Wrapping a Numeric should hand back the same immutable Numeric", numeric, Numeric.of(numeric));
+        assertEquals("Numerics should be usable as operands", Integer.valueOf(24),
+                numeric.add(numeric).getInteger().orElse(null));
+    }
+
+    @Test
+    public void testNegativeDecimalsTruncateTowardZero() {
+        final Numeric numeric = Numeric.of(-343.9d);
+        assertEquals("-343.9 should truncate to -343", Integer.valueOf(-343), numeric.getInteger().orElse(null));
+        assertEquals("-343.9 should truncate to -343", Long.valueOf(-343), numeric.getLong().orElse(null));
+        assertFalse("-343.9 is too small to be a byte", numeric.getByte().isPresent());
+    }
+
+    @Test
+    public void testDirectConversionsMatchStringParsing() {
+        final Random random = new Random(32);
+        for (int i = 0; i < 2_000; i++) {
+            final BigDecimal value = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(12));
+            final Numeric numeric = Numeric.of(value);
+            final String text = value.toPlainString();
+            assertEquals("Byte conversion of " + text, SafeParser.byteFromString(text), numeric.getByte());
+            assertEquals("Short conversion of " + text, SafeParser.shortFromString(text), numeric.getShort());
+            assertEquals("Integer conversion of " + text, SafeParser.integerFromString(text), numeric.getInteger());
+            assertEquals("Long conversion of " + text, SafeParser.longFromString(text), numeric.getLong());
+            assertEquals("Float conversion of " + text, SafeParser.floatFromString(text), numeric.getFloat());
+            assertEquals("Double conversion of " + text, SafeParser.doubleFromString(text), numeric.getDouble());
+            final double doubleValue = random.nextDouble() * Math.pow(10, random.nextInt(30) - 10);
+            assertEquals("Double input " + doubleValue, new BigDecimal(Double.toString(doubleValue)),
+                    Numeric.of(doubleValue).getBigDecimal().orElse(null));
+            final float floatValue = (float)doubleValue;
+            assertEquals("Float input " + floatValue, new BigDecimal(Float.toString(floatValue)),
+                    Numeric.of(floatValue).getBigDecimal().orElse(null));
+        }
+    }
+
+    @Test
+    public void testEqualityAndHashingAreNumeric() {
+        final Numeric[] ones = {Numeric.of(1), Numeric.of(1L), Numeric.of(1.0), Numeric.of(new BigDecimal("1.00")),
+                Numeric.of(new BigDecimal("0.1E+1"))};
+        for (final Numeric first : ones) {
+            for (final Numeric second : ones) {
+                assertEquals("Numerically equal values should be equal", first, second);
+                assertEquals("Numerically equal values should share a hash", first.hashCode(), second.hashCode());
+            }
+        }
+        final Numeric wide = Numeric.of(Long.MAX_VALUE).add(1);
+        final Numeric wideDecimal = Numeric.of(new BigDecimal("9223372036854775808.000"));
+        assertEquals("A 128-bit value should equal its BigDecimal form", wide, wideDecimal);
+        assertEquals("A 128-bit value should share a hash with its BigDecimal form", wide.hashCode(),
+                wideDecimal.hashCode());
+        assertEquals("A long should hash exactly as its Long does", Long.hashCode(123_456_789_012L),
+                Numeric.of(123_456_789_012L).hashCode());
+        assertEquals("Zero should be equal at any scale", Numeric.of(0), Numeric.of(new BigDecimal("0.000")));
+        assertEquals("Empty Numerics should be equal", Numeric.of(null), Numeric.of(new ArrayList<>()));
+        assertFalse("An empty Numeric should not equal zero", Numeric.of(null).equals(Numeric.of(0)));
+        assertFalse("Different values should not be equal", Numeric.of(1.5).equals(Numeric.of(1.25)));
+        assertFalse("A Numeric should not equal its BigDecimal", Numeric.of(1).equals(BigDecimal.ONE));
+    }
+
+    @Test
+    public void testOrderingIsNumeric() {
+        final Random random = new Random(41);
+        for (int i = 0; i < 2_000; i++) {
+            final BigDecimal first = BigDecimal.valueOf(random.nextLong(), random.nextInt(4))
+                    .multiply(BigDecimal.valueOf(random.nextInt(3) == 0 ? random.nextLong() : 1));
+            final BigDecimal second = random.nextInt(4) == 0
+                    ? first.setScale(first.scale() + 1)
+                    : BigDecimal.valueOf(random.nextLong(), random.nextInt(4));
+            final Numeric left = Numeric.of(first);
+            final Numeric right = Numeric.of(second);
+            assertEquals("Ordering should match BigDecimal.compareTo() for " + first + " and " + second,
+                    Integer.signum(first.compareTo(second)), Integer.signum(left.compareTo(right)));
+            assertEquals("Equality should match BigDecimal.compareTo() for " + first + " and " + second,
+                    first.compareTo(second) == 0, left.equals(right));
+        }
+        assertTrue("An empty Numeric should sort first", Numeric.of(null).compareTo(Numeric.of(Long.MIN_VALUE)) < 0);
+        assertTrue("A wide negative value should sort below a long",
+                Numeric.of(Long.MIN_VALUE).subtract(1).compareTo(Numeric.of(Long.MIN_VALUE)) < 0);
+    }
 }
@@ -0,0 +1,95 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestNumericAdder {
+
+    @Test
+    public void testEmptyAdder() {
+        assertEquals("A new adder should total zero", Long.valueOf(0L), new NumericAdder().sum().getLong().get());
+    }
+
+    @Test
+    public void testBadInputIsIgnored() {
+        final NumericAdder adder = new NumericAdder();
+        adder.add(5);
+        adder.add((Object)null);
+        adder.add("WORDS");
+        assertEquals("Bad input should not change the total", Long.valueOf(5L), adder.sum().getLong().get());
+    }
+
+    @Test
+    public void testFractionalAndOverflowingInput() {
+        final NumericAdder adder = new NumericAdder();
+        adder.add(Long.MAX_VALUE);
+        adder.add(Long.MAX_VALUE);
+        adder.add(0.25d);
+        adder.add(new BigDecimal("-0.75"));
+        assertEquals("The total should be exact", 0, BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2))
+                .subtract(new BigDecimal("0.5")).compareTo(adder.sum().getBigDecimal().get()));
+    }
+
+    @Test
+    public void testUncontendedAddsStayInBase() {
+        final NumericAdder adder = new NumericAdder();
+        adder.add(Long.MAX_VALUE);
+        adder.add(Long.MAX_VALUE);
+        adder.add(0.25d);
+        adder.add(0.5d);
+        adder.add(1L);
+        assertFalse("Fractional and overflowing adds from one thread should not create cells", adder.isContended());
+        assertEquals(0, BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2)).add(new BigDecimal("1.75"))
+                .compareTo(adder.sum().getBigDecimal().get()));
+    }
+
+    @Test
+    public void testSumThenReset() {
+        final NumericAdder adder = new NumericAdder();
+        adder.add(10);
+        adder.add(1.5d);
+        assertEquals(0, new BigDecimal("11.5").compareTo(adder.sumThenReset().getBigDecimal().get()));
+        assertEquals("The adder should be back to zero", Long.valueOf(0L), adder.sum().getLong().get());
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        final NumericAdder adder = new NumericAdder();
+        final int threadCount = 8;
+        final int addsPerThread = 100_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < addsPerThread; i++) {
+                    adder.add(i);
+                    if (i % 1_000 == 0) {
+                        adder.add(new BigDecimal("0.01"));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final BigDecimal expected = BigDecimal.valueOf((long)threadCount * addsPerThread * (addsPerThread - 1) / 2)
+                .add(new BigDecimal("0.01").multiply(BigDecimal.valueOf(threadCount * (addsPerThread / 1_000))));
+        assertEquals("No adds should be lost", 0, expected.compareTo(adder.sum().getBigDecimal().get()));
+    }
+}
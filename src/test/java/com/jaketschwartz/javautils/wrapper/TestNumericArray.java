@@ -0,0 +1,139 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericArray {
+    @Test
+    public void testBadInput() {
+        assertFalse("A null BigDecimal should produce an empty Optional",
+                NumericArray.of(BigDecimal.ONE, null).isPresent());
+        assertFalse("NaN should produce an empty Optional", NumericArray.of(1d, Double.NaN).isPresent());
+        assertFalse("An empty Numeric should produce an empty Optional",
+                NumericArray.ofNumerics(Arrays.asList(Numeric.of(1), Numeric.of(null))).isPresent());
+        assertFalse("An out-of-bounds index should produce an empty Numeric", NumericArray.of(1L).get(1).isPresent());
+    }
+
+    @Test
+    public void testBadOperandsHaveNoEffect() {
+        final NumericArray array = NumericArray.of(1L, 2L, 3L);
+        assertSame("Mismatched lengths should return the original column", array, array.add(NumericArray.of(1L)));
+        assertSame("A nonsense scalar should return the original column", array, array.multiply("WORDS"));
+    }
+
+    @Test
+    public void testScaledStorage() {
+        final NumericArray prices = NumericArray.of(19.99d, 5d, 0.5d).get();
+        assertTrue("Doubles with few digits should be stored as scaled longs", prices.isScaled());
+        assertEquals("The column should share the largest scale", 2, prices.scale());
+        assertArrayEquals("We should receive the doubles back", new double[]{19.99d, 5d, 0.5d},
+                prices.toDoubleArray(), 0d);
+        final NumericArray totals = prices.multiply(3).add(0.005d);
+        assertTrue("The results should still be scaled longs", totals.isScaled());
+        assertEquals("19.99 * 3 + 0.005 = 59.975", 0, new BigDecimal("59.975")
+                .compareTo(totals.get(0).getBigDecimal().get()));
+    }
+
+    @Test
+    public void testOverflowFallsBackToBigDecimal() {
+        final NumericArray array = NumericArray.of(Long.MAX_VALUE, 1L);
+        final NumericArray sums = array.add(NumericArray.of(1L, 1L));
+        assertFalse("An overflowing column should be stored as BigDecimals", sums.isScaled());
+        assertEquals("The overflowing element should be exact",
+                BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE), sums.get(0).getBigDecimal().get());
+        assertTrue("Shrinking back down should return to scaled storage", sums.subtract(1).isScaled());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivideByZero() {
+        NumericArray.of(1L, 2L).divide(NumericArray.of(1L, 0L));
+    }
+
+    @Test
+    public void testMatchesNumericSemantics() {
+        final Random random = new Random(33);
+        final List<BiFunction<Numeric, Numeric, Numeric>> numericOperations = Arrays.asList(
+                Numeric::add, Numeric::subtract, Numeric::multiply, Numeric::divide);
+        final List<BiFunction<NumericArray, NumericArray, NumericArray>> arrayOperations = Arrays.asList(
+                NumericArray::add, NumericArray::subtract, NumericArray::multiply, NumericArray::divide);
+        for (int round = 0; round < 50; round++) {
+            final List<Numeric> left = new ArrayList<>();
+            final List<Numeric> right = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                left.add(this.randomNumeric(random, round));
+                Numeric divisor = this.randomNumeric(random, round);
+                while (divisor.getBigDecimal().get().signum() == 0) {
+                    divisor = this.randomNumeric(random, round);
+                }
+                right.add(divisor);
+            }
+            final NumericArray leftArray = NumericArray.ofNumerics(left).get();
+            final NumericArray rightArray = NumericArray.ofNumerics(right).get();
+            for (int operation = 0; operation < numericOperations.size(); operation++) {
+                final NumericArray result = arrayOperations.get(operation).apply(leftArray, rightArray);
+                for (int i = 0; i < left.size(); i++) {
+                    final BigDecimal expected = numericOperations.get(operation)
+                            .apply(left.get(i), right.get(i)).getBigDecimal().get();
+                    assertEquals("Operation " + operation + " on " + left.get(i).getBigDecimal().get() + " and "
+                            + right.get(i).getBigDecimal().get(), 0,
+                            expected.compareTo(result.get(i).getBigDecimal().get()));
+                }
+            }
+            final Numeric scalar = right.get(0);
+            final NumericArray scaled = leftArray.multiply(scalar);
+            for (int i = 0; i < left.size(); i++) {
+                assertEquals("Scalar multiply of " + left.get(i).getBigDecimal().get(), 0,
+                        left.get(i).multiply(scalar).getBigDecimal().get()
+                                .compareTo(scaled.get(i).getBigDecimal().get()));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        final Random random = new Random(34);
+        final long[] left = new long[100_000];
+        final long[] right = new long[left.length];
+        for (int i = 0; i < left.length; i++) {
+            left[i] = random.nextInt();
+            right[i] = random.nextInt(1000) + 1;
+        }
+        final NumericArray sequential = NumericArray.of(left);
+        final NumericArray parallel = sequential.parallel();
+        assertTrue("The view should be parallel", parallel.isParallel());
+        assertArrayEquals("Parallel addition should match sequential addition",
+                sequential.add(NumericArray.of(right)).toDoubleArray(),
+                parallel.add(NumericArray.of(right)).toDoubleArray(), 0d);
+        assertArrayEquals("Parallel division should match sequential division",
+                sequential.divide(NumericArray.of(right)).toBigDecimalArray(),
+                parallel.divide(NumericArray.of(right)).toBigDecimalArray());
+        left[left.length - 1] = Long.MAX_VALUE;
+        assertFalse("An overflow in the last chunk should still be caught",
+                NumericArray.of(left).parallel().add(1).isScaled());
+    }
+
+    private Numeric randomNumeric(final Random random, final int round) {
+        switch ((round + random.nextInt(4)) % 4) {
+            case 0:
+                return Numeric.of(random.nextInt(2000) - 1000);
+            case 1:
+                return Numeric.of(random.nextLong() >> random.nextInt(8));
+            case 2:
+                return Numeric.of((random.nextInt(200_000) - 100_000) / 100d);
+            default:
+                return Numeric.of(BigDecimal.valueOf(random.nextLong(), random.nextInt(25)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericCodec {
+
+    @Test
+    public void testValuesRoundTrip() {
+        final List<Numeric> values = Arrays.asList(Numeric.of(0), Numeric.of(-1), Numeric.of(Long.MIN_VALUE),
+                Numeric.of(Long.MAX_VALUE), Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE),
+                Numeric.of(Long.MIN_VALUE).multiply(Long.MAX_VALUE), Numeric.of(new BigDecimal("19.990")),
+                Numeric.of(new BigDecimal("-1E+5")), Numeric.of(new BigDecimal("123456789012345678901234567890.5")),
+                Numeric.of(new BigDecimal("1E+400")), Numeric.of(null));
+        final ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        for (final Numeric value : values) {
+            assertTrue(NumericCodec.encode(value, buffer));
+        }
+        buffer.flip();
+        for (final Numeric value : values) {
+            final Numeric decoded = NumericCodec.decode(buffer).get();
+            assertEquals("Presence should survive", value.isPresent(), decoded.isPresent());
+            assertEquals("Value and scale should survive", value.getBigDecimal(), decoded.getBigDecimal());
+        }
+        assertFalse("Every byte should have been read", buffer.hasRemaining());
+    }
+
+    @Test
+    public void testSmallValuesAreCompact() {
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        NumericCodec.encode(Numeric.of(-3), buffer);
+        assertEquals("A small integer should take a tag and one byte", 2, buffer.position());
+    }
+
+    @Test
+    public void testDoubles() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        assertTrue(NumericCodec.encode(Math.PI, buffer));
+        assertFalse("NaN should be refused", NumericCodec.encode(Double.NaN, buffer));
+        buffer.flip();
+        assertEquals("A double should take a tag and its eight raw bytes", 9, buffer.remaining());
+        assertEquals(Numeric.of(Math.PI).getBigDecimal(), NumericCodec.decode(buffer).get().getBigDecimal());
+    }
+
+    @Test
+    public void testBufferTooSmall() {
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.put((byte)9);
+        assertFalse(NumericCodec.encode(Numeric.of(Long.MAX_VALUE), buffer));
+        assertEquals("The position should be restored", 1, buffer.position());
+        assertFalse(NumericCodec.encodeColumn(NumericArray.of(1L, 2L, 3L, 4L), buffer));
+        assertEquals("The position should be restored", 1, buffer.position());
+    }
+
+    @Test
+    public void testMalformedInput() {
+        final ByteBuffer unknown = ByteBuffer.wrap(new byte[]{42, 1, 2});
+        assertFalse(NumericCodec.decode(unknown).isPresent());
+        assertEquals("The position should be restored", 0, unknown.position());
+        assertFalse("A truncated value should be refused",
+                NumericCodec.decode(ByteBuffer.wrap(new byte[]{1, (byte)0x80})).isPresent());
+        final byte[] overlong = new byte[12];
+        Arrays.fill(overlong, (byte)0xFF);
+        overlong[0] = 1;
+        assertFalse("An overlong varint should be refused", NumericCodec.decode(ByteBuffer.wrap(overlong)).isPresent());
+        assertFalse("A truncated column should be refused",
+                NumericCodec.decodeColumn(ByteBuffer.wrap(new byte[]{16, 0, 5, 0, 2})).isPresent());
+        final byte hugeCount0 = (byte)0xFE;
+        final byte hugeCount1 = (byte)0xFF;
+        for (final NumericCodec.ColumnEncoding encoding : NumericCodec.ColumnEncoding.values()) {
+            final ByteBuffer corrupt = ByteBuffer.wrap(new byte[]{16, 0, hugeCount0, hugeCount1, hugeCount1,
+                    hugeCount1, 7, (byte)encoding.ordinal(), 0, 1});
+            assertFalse("A count larger than the input could hold should be refused under " + encoding,
+                    NumericCodec.decodeColumn(corrupt).isPresent());
+            assertEquals("The position should be restored", 0, corrupt.position());
+        }
+        assertFalse("A decimal column count larger than the input should be refused", NumericCodec.decodeColumn(
+                ByteBuffer.wrap(new byte[]{17, hugeCount0, hugeCount1, hugeCount1, hugeCount1, 7, 0})).isPresent());
+    }
+
+    @Test
+    public void testColumnEncodingsRoundTrip() {
+        final Random random = new Random(40);
+        final long[][] columns = {
+                {},
+                {7},
+                {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 1},
+                random.longs(1_000).toArray(),
+                random.longs(1_000, -50, 50).toArray(),
+                random.longs(1_000, 0, 1 << 20).sorted().toArray(),
+                this.runs(),
+                // Packs into a handful of bytes under run-length and frame-of-reference encoding
+                new long[100_000],
+        };
+        for (final long[] values : columns) {
+            for (final NumericCodec.ColumnEncoding encoding : NumericCodec.ColumnEncoding.values()) {
+                this.assertColumnRoundTrips(values, encoding);
+            }
+            this.assertColumnRoundTrips(values, null);
+        }
+    }
+
+    @Test
+    public void testSmallestEncodingIsChosen() {
+        final Random random = new Random(41);
+        final long[] sorted = random.longs(1_000, 0, Long.MAX_VALUE / 2).sorted().toArray();
+        final long[] clustered = random.longs(1_000, 1_000_000, 1_000_016).toArray();
+        final long[] runs = this.runs();
+        for (final long[] values : new long[][]{sorted, clustered, runs}) {
+            int smallest = Integer.MAX_VALUE;
+            for (final NumericCodec.ColumnEncoding encoding : NumericCodec.ColumnEncoding.values()) {
+                smallest = Math.min(smallest, this.assertColumnRoundTrips(values, encoding));
+            }
+            assertEquals("The automatic choice should be the smallest", smallest,
+                    this.assertColumnRoundTrips(values, null));
+        }
+        assertTrue("Clustered values should pack into four bits each", this.assertColumnRoundTrips(clustered,
+                NumericCodec.ColumnEncoding.FRAME_OF_REFERENCE) < 1_000 / 2 + 16);
+    }
+
+    @Test
+    public void testDecimalColumns() {
+        final NumericArray prices = NumericArray.of(19.99d, 5d, 0.5d).get();
+        final NumericArray wide = NumericArray.of(new BigDecimal("1E+30"), new BigDecimal("0.125")).get();
+        for (final NumericArray column : new NumericArray[]{prices, wide}) {
+            final ByteBuffer buffer = ByteBuffer.allocate(256);
+            assertTrue(NumericCodec.encodeColumn(column, buffer));
+            buffer.flip();
+            final NumericArray decoded = NumericCodec.decodeColumn(buffer).get();
+            assertArrayEquals(column.toBigDecimalArray(), decoded.toBigDecimalArray());
+        }
+    }
+
+    private int assertColumnRoundTrips(final long[] values, final NumericCodec.ColumnEncoding encoding) {
+        final ByteBuffer buffer = ByteBuffer.allocate(values.length * 11 + 32);
+        assertTrue(NumericCodec.encodeColumn(NumericArray.ofUnscaled(values.clone(), 2), buffer, encoding));
+        final int size = buffer.position();
+        buffer.flip();
+        final NumericArray decoded = NumericCodec.decodeColumn(buffer).get();
+        assertEquals(2, decoded.scale());
+        assertArrayEquals("Encoding " + encoding, values, decoded.unscaledValues());
+        assertFalse("Every byte should have been read", buffer.hasRemaining());
+        return size;
+    }
+
+    private long[] runs() {
+        final long[] values = new long[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i / 100) * 1_000_000_007L;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericCollectors {
+
+    @Test
+    public void testEmptyStream() {
+        final NumericSummaryStatistics statistics = Collections.<Numeric>emptyList().stream()
+                .collect(NumericCollectors.summarizing(NumericCollectors.Mode.EXACT));
+        assertEquals("Nothing should be counted", 0L, statistics.getCount());
+        assertEquals("The sum of nothing should be zero", Long.valueOf(0L), statistics.getSum().getLong().get());
+        assertFalse("There should be no average", statistics.getAverage().isPresent());
+        assertFalse("There should be no minimum", statistics.getMin().isPresent());
+        assertFalse("There should be no variance", statistics.getVariance().isPresent());
+    }
+
+    @Test
+    public void testEmptyNumericsAreSkipped() {
+        final List<Numeric> values = Arrays.asList(Numeric.of(1), Numeric.of(null), null, Numeric.of(3));
+        assertEquals("Only present values should be counted", Long.valueOf(2L),
+                values.stream().collect(NumericCollectors.counting()));
+        assertEquals("Only present values should be averaged", Long.valueOf(2L),
+                values.stream().collect(NumericCollectors.averaging(NumericCollectors.Mode.EXACT)).getLong().get());
+    }
+
+    @Test
+    public void testExactSumMatchesReduce() {
+        final Random random = new Random(34);
+        final List<Numeric> values = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            values.add(i % 3 == 0
+                    ? Numeric.of(BigDecimal.valueOf(random.nextLong(), random.nextInt(6)))
+                    : Numeric.of(random.nextLong()));
+        }
+        final BigDecimal expected = values.stream().reduce(Numeric::add).get().getBigDecimal().get();
+        assertEquals("The sequential sum should match reduce()", 0,
+                expected.compareTo(values.stream().collect(NumericCollectors.summing()).getBigDecimal().get()));
+        assertEquals("The parallel sum should match reduce()", 0, expected.compareTo(
+                values.parallelStream().collect(NumericCollectors.summing()).getBigDecimal().get()));
+    }
+
+    @Test
+    public void testLongOverflowPromotes() {
+        final Numeric sum = LongStream.of(Long.MAX_VALUE, Long.MAX_VALUE, 2L).mapToObj(Numeric::of)
+                .collect(NumericCollectors.summing());
+        assertEquals("The sum should not wrap", BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2))
+                .add(BigDecimal.valueOf(2)), sum.getBigDecimal().get());
+    }
+
+    @Test
+    public void testExactStatistics() {
+        final List<Numeric> values = LongStream.of(2, 4, 4, 4, 5, 5, 7, 9).mapToObj(Numeric::of)
+                .collect(Collectors.toList());
+        final NumericSummaryStatistics statistics = values.parallelStream()
+                .collect(NumericCollectors.summarizing(NumericCollectors.Mode.EXACT));
+        assertEquals(8L, statistics.getCount());
+        assertEquals(Long.valueOf(40L), statistics.getSum().getLong().get());
+        assertEquals(Long.valueOf(5L), statistics.getAverage().getLong().get());
+        assertEquals(Long.valueOf(2L), statistics.getMin().getLong().get());
+        assertEquals(Long.valueOf(9L), statistics.getMax().getLong().get());
+        assertEquals(Long.valueOf(4L), statistics.getVariance().getLong().get());
+        assertEquals(Long.valueOf(2L), statistics.getStandardDeviation().getLong().get());
+    }
+
+    @Test
+    public void testExactVarianceHasNoCancellation() {
+        // A huge offset wipes out the spread entirely with the naive double formula
+        final BigDecimal offset = new BigDecimal("1e20");
+        final List<Numeric> values = LongStream.of(1, 2, 3).mapToObj(value -> Numeric.of(
+                offset.add(BigDecimal.valueOf(value)))).collect(Collectors.toList());
+        final BigDecimal variance = values.stream().collect(NumericCollectors.variance(NumericCollectors.Mode.EXACT))
+                .getBigDecimal().get();
+        assertEquals("The variance of 1, 2, 3 is 2/3", 0, variance.compareTo(
+                BigDecimal.valueOf(2).divide(BigDecimal.valueOf(3), MathContext.DECIMAL128)));
+    }
+
+    @Test
+    public void testFastModeIsCompensated() {
+        // 0.1 ten million times drifts visibly with naive summation
+        final List<Numeric> values = Collections.nCopies(10_000_000, Numeric.of(0.1d));
+        final double naive = values.stream().mapToDouble(value -> value.getDouble().get()).reduce(0d, Double::sum);
+        final double compensated = values.parallelStream()
+                .collect(NumericCollectors.summing(NumericCollectors.Mode.FAST)).getDouble().get();
+        assertTrue("Naive summation should have drifted", Math.abs(naive - 1_000_000d) > 1e-6);
+        assertEquals("Compensated summation should not drift", 1_000_000d, compensated, 1e-6);
+    }
+
+    @Test
+    public void testFastStatisticsMatchExact() {
+        final Random random = new Random(35);
+        final List<Numeric> values = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            values.add(Numeric.of(random.nextGaussian() * 1_000 + 50_000));
+        }
+        final NumericSummaryStatistics exact = values.stream()
+                .collect(NumericCollectors.summarizing(NumericCollectors.Mode.EXACT));
+        final NumericSummaryStatistics fast = values.parallelStream()
+                .collect(NumericCollectors.summarizing(NumericCollectors.Mode.FAST));
+        assertEquals(exact.getCount(), fast.getCount());
+        assertEquals(exact.getSum().getDouble().get(), fast.getSum().getDouble().get(), 1e-6);
+        assertEquals(exact.getAverage().getDouble().get(), fast.getAverage().getDouble().get(), 1e-9);
+        assertEquals(exact.getVariance().getDouble().get(), fast.getVariance().getDouble().get(), 1e-3);
+        assertEquals(exact.getStandardDeviation().getDouble().get(),
+                fast.getStandardDeviation().getDouble().get(), 1e-6);
+        assertEquals(exact.getMin().getDouble().get(), fast.getMin().getDouble().get(), 0d);
+    }
+
+    @Test
+    public void testSquareRoot() {
+        assertEquals(0, new BigDecimal("1.414213562373095048801688724209698").compareTo(
+                NumericAccumulator.squareRoot(BigDecimal.valueOf(2))));
+        assertEquals(0, new BigDecimal("1e200").compareTo(NumericAccumulator.squareRoot(new BigDecimal("1e400"))));
+    }
+}
@@ -0,0 +1,115 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericColumnStore {
+    private static final List<Numeric> VALUES = Arrays.asList(Numeric.of(42), Numeric.of(-7L),
+            Numeric.of(new BigDecimal("19.99")), Numeric.of(new BigDecimal("-0.000000000000000001")),
+            Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE), Numeric.of(new BigDecimal("1E+40")),
+            Numeric.of(new BigDecimal("3.14159265358979323846264338327950288")), Numeric.of(null), Numeric.of(2.5));
+
+    @Test
+    public void testBadInput() {
+        assertFalse("A negative capacity should be rejected", NumericColumnStore.allocateDirect(-1, 0).isPresent());
+        assertFalse("A store too large for a buffer should be rejected",
+                NumericColumnStore.allocateDirect(Integer.MAX_VALUE / 4, 0).isPresent());
+        final NumericColumnStore store = NumericColumnStore.allocateDirect(2, 0).get();
+        assertFalse("NaN should be rejected", store.append(Double.NaN));
+        assertFalse("A value needing overflow room should be rejected when there is none",
+                store.append(Numeric.of(new BigDecimal("1E+40"))));
+        assertTrue("A long should fit", store.append(1L));
+        assertTrue("A double should fit", store.append(0.1));
+        assertFalse("A full store should reject values", store.append(2L));
+        assertEquals("Rejected values should not be counted", 2, store.size());
+        assertFalse("An index out of range should be empty", store.get(2).isPresent());
+    }
+
+    @Test
+    public void testValuesRoundTrip() {
+        final NumericColumnStore store = NumericColumnStore.allocateDirect(VALUES.size(), 256).get();
+        VALUES.forEach(value -> assertTrue("Every value should fit", store.append(value)));
+        assertRoundTrips(store);
+    }
+
+    @Test
+    public void testMappedStoreReopens() throws IOException {
+        final Path file = Files.createTempFile("numeric-column-store", ".bin");
+        try {
+            final NumericColumnStore store = NumericColumnStore.create(file, 100, 256).get();
+            VALUES.forEach(store::append);
+            store.flush();
+            final NumericColumnStore reopened = NumericColumnStore.open(file).get();
+            assertEquals("The capacity should survive", 100, reopened.capacity());
+            assertRoundTrips(reopened);
+            assertTrue("The reopened store should accept more values", reopened.append(Numeric.of(1E+300)));
+            assertEquals("The new value should be readable", Numeric.of(1E+300), reopened.get(VALUES.size()));
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+            assertFalse("A file that is not a store should be rejected", NumericColumnStore.open(file).isPresent());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCursorReadsSlotsWithoutNumerics() {
+        final NumericColumnStore store = NumericColumnStore.allocateDirect(10_000, 0).get();
+        long expected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue("Every value should fit", i % 2 == 0
+                    ? store.append(i)
+                    : store.append(Numeric.of(BigDecimal.valueOf(i, 2))));
+            expected += i % 2 == 0 ? i * 100L : i;
+        }
+        final AtomicLong cents = new AtomicLong();
+        store.forEach(cursor -> {
+            assertTrue("Every value should be scaled", cursor.isScaled());
+            cents.addAndGet(cursor.isLong() ? cursor.longValue() * 100 : cursor.unscaledValue());
+        });
+        assertEquals("A scan should see every value", expected, cents.get());
+        final NumericColumnStore.Cursor cursor = store.cursor();
+        assertTrue("Seeking within the store should succeed", cursor.seek(9_999));
+        assertEquals("The scale should be read from the tag", 2, cursor.scale());
+        assertEquals("The double should be correctly rounded", 99.99, cursor.doubleValue(), 0);
+        assertFalse("There should be nothing after the last value", cursor.next());
+        assertEquals("A failed move should not move the Cursor", 9_999, cursor.position());
+    }
+
+    @Test
+    public void testToNumericArray() {
+        final NumericColumnStore longs = NumericColumnStore.allocateDirect(3, 0).get();
+        longs.append(3L);
+        longs.append(1L);
+        longs.append(2L);
+        assertArrayEquals("A store of longs should copy into a column", new double[]{3, 1, 2},
+                longs.toNumericArray().get().toDoubleArray(), 0);
+        final NumericColumnStore mixed = NumericColumnStore.allocateDirect(VALUES.size(), 256).get();
+        VALUES.forEach(mixed::append);
+        assertFalse("A store with an empty value should not become a column", mixed.toNumericArray().isPresent());
+    }
+
+    private static void assertRoundTrips(final NumericColumnStore store) {
+        assertEquals("Every value should be counted", VALUES.size(), store.size());
+        for (int i = 0; i < VALUES.size(); i++) {
+            final Numeric expected = VALUES.get(i);
+            final Numeric actual = store.get(i);
+            assertEquals("Presence should survive at " + i, expected.isPresent(), actual.isPresent());
+            if (expected.isPresent()) {
+                assertEquals("The value and scale should survive at " + i, expected.getBigDecimal().get(),
+                        actual.getBigDecimal().get());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericExpression {
+
+    @Test
+    public void testChainMatchesNumeric() {
+        final NumericExpression expression = NumericExpression.input().multiply(3).add(7L).divide(2);
+        final NumericExpression.Compiled compiled = expression.compile();
+        for (final long value : new long[]{0, 1, 5, -9, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            final Numeric expected = Numeric.of(value).multiply(3).add(7L).divide(2);
+            assertEquals("Compiled result for " + value, expected.getBigDecimal(),
+                    compiled.apply(Numeric.of(value)).getBigDecimal());
+            assertEquals("Interpreted result for " + value, expected.getBigDecimal(),
+                    expression.evaluate(value).getBigDecimal());
+        }
+    }
+
+    @Test
+    public void testSubtreesAndFolding() {
+        // (x * x + 2 * 3) - (x / 4.0)
+        final NumericExpression input = NumericExpression.input();
+        final NumericExpression expression = input.multiply(input)
+                .add(NumericExpression.constant(2).multiply(3))
+                .subtract(input.divide(new BigDecimal("4.0")));
+        final NumericExpression.Compiled compiled = expression.compile();
+        final Random random = new Random(39);
+        for (int i = 0; i < 10_000; i++) {
+            final Numeric value = i % 2 == 0 ? Numeric.of(random.nextLong() >> random.nextInt(64))
+                    : Numeric.of(BigDecimal.valueOf(random.nextInt(), random.nextInt(5)));
+            final Numeric expected = value.multiply(value).add(Numeric.of(2).multiply(3))
+                    .subtract(value.divide(new BigDecimal("4.0")));
+            assertEquals(expected.getBigDecimal(), compiled.apply(value).getBigDecimal());
+        }
+    }
+
+    @Test
+    public void testBadValuesMatchNumeric() {
+        final NumericExpression.Compiled compiled = NumericExpression.input().add("WORDS").multiply(2).compile();
+        assertEquals("A bad operand should be ignored", Long.valueOf(10L),
+                compiled.apply(Numeric.of(5)).getLong().get());
+        assertFalse("An empty input should produce an empty result", compiled.apply(Numeric.of(null)).isPresent());
+        assertFalse("A null input should produce an empty result", compiled.apply(null).isPresent());
+        assertEquals("An empty input on the right should be ignored, as Numeric does", Long.valueOf(5L),
+                NumericExpression.constant(5).add(NumericExpression.input()).compile().apply(Numeric.of(null))
+                        .getLong().get());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivideByZero() {
+        NumericExpression.input().divide(NumericExpression.input().subtract(3)).compile().apply(Numeric.of(3));
+    }
+
+    @Test
+    public void testStreams() {
+        final NumericExpression.Compiled compiled = NumericExpression.input().multiply(1.5d).compile();
+        final List<BigDecimal> results = Arrays.asList(1, 2, 3).stream().map(Numeric::of).map(compiled)
+                .map(value -> value.getBigDecimal().get()).collect(Collectors.toList());
+        assertEquals(Arrays.asList(new BigDecimal("1.5"), new BigDecimal("3.0"), new BigDecimal("4.5")), results);
+    }
+
+    @Test
+    public void testNumericArrays() {
+        final NumericExpression.Compiled compiled = NumericExpression.input().multiply(3).add(1).compile();
+        final long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - 25_000;
+        }
+        final NumericArray sequential = compiled.applyAll(NumericArray.of(values));
+        final NumericArray parallel = compiled.applyAll(NumericArray.of(values).parallel());
+        assertTrue("Long results should stay in scaled storage", sequential.isScaled());
+        assertTrue("The parallel setting should carry over", parallel.isParallel());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i] * 3 + 1, sequential.unscaledValues()[i]);
+            assertEquals(values[i] * 3 + 1, parallel.unscaledValues()[i]);
+        }
+        values[0] = Long.MAX_VALUE;
+        final NumericArray overflowed = compiled.applyAll(NumericArray.of(values));
+        assertEquals("An overflowing element should fall back to exact arithmetic",
+                BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(3)).add(BigDecimal.ONE),
+                overflowed.get(0).getBigDecimal().get());
+        assertEquals(Long.valueOf(-74_996L), overflowed.get(1).getLong().get());
+        final NumericArray decimals = compiled.applyAll(NumericArray.of(0.5d, 1.25d).get());
+        assertEquals(0, new BigDecimal("4.75").compareTo(decimals.get(1).getBigDecimal().get()));
+        final NumericArray column = NumericArray.of(1L, 2L);
+        assertSame("An expression that produces empty results should leave the column alone", column,
+                NumericExpression.constant(null).compile().applyAll(column));
+    }
+}
@@ -0,0 +1,124 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericHistogram {
+    @Test
+    public void testBadInput() {
+        assertFalse("A precision of zero should be rejected", NumericHistogram.withPrecision(0).isPresent());
+        assertFalse("Too high a precision should be rejected",
+                NumericHistogram.withPrecision(NumericHistogram.MAX_PRECISION + 1).isPresent());
+        final NumericHistogram histogram = NumericHistogram.create();
+        histogram.record(Double.NaN);
+        histogram.record(Numeric.of(null));
+        histogram.record((Numeric)null);
+        assertEquals("Bad values should not be recorded", 0, histogram.getCount());
+        assertFalse("An empty histogram should have no quantiles", histogram.quantile(0.5).isPresent());
+        histogram.record(1);
+        assertFalse("An out-of-range quantile should be empty", histogram.quantile(1.5).isPresent());
+        assertFalse("Histograms of different precisions should not merge",
+                histogram.merge(NumericHistogram.withPrecision(3).get()));
+    }
+
+    @Test
+    public void testMemoryIsBounded() {
+        assertFalse("A precision whose full range exceeds the bucket cap should be rejected",
+                NumericHistogram.withPrecision(NumericHistogram.MAX_PRECISION).isPresent());
+        assertFalse("A range that exceeds the bucket cap should be rejected",
+                NumericHistogram.withRange(NumericHistogram.MAX_PRECISION, 1e-300, 1e300).isPresent());
+        assertFalse("A non-positive lowest magnitude should be rejected",
+                NumericHistogram.withRange(7, 0, 1).isPresent());
+        assertTrue("The full range should fit at precision 9", NumericHistogram.withPrecision(9).isPresent());
+        final NumericHistogram histogram = NumericHistogram.withRange(NumericHistogram.MAX_PRECISION, 1e-2, 1e2).get();
+        histogram.record(1e-300);
+        histogram.record(1e300);
+        histogram.record(-1e300);
+        histogram.record(1.5);
+        assertEquals("Values outside the range should still be counted", 4, histogram.getCount());
+        assertEquals("The minimum should stay exact", -1e300, histogram.getMin().getDouble().get(), 0);
+        assertEquals("The maximum should stay exact", 1e300, histogram.getMax().getDouble().get(), 0);
+        final double inRange = histogram.quantile(0.75).getDouble().get();
+        assertTrue("Values within the range should keep their precision, not " + inRange,
+                Math.abs(inRange - 1.5) <= 1.5 * Math.pow(2, -(NumericHistogram.MAX_PRECISION + 1)));
+        assertFalse("Histograms over different ranges should not merge",
+                histogram.merge(NumericHistogram.withRange(NumericHistogram.MAX_PRECISION, 1e-1, 1e2).get()));
+        // Values at both edges spread the buckets over the whole range, each taking at least a byte
+        final ByteBuffer buffer = ByteBuffer.allocate(2 * NumericHistogram.MAX_BUCKETS + 64);
+        assertTrue("A ranged histogram should encode", histogram.encode(buffer));
+        buffer.flip();
+        final NumericHistogram decoded = NumericHistogram.decode(buffer).get();
+        assertTrue("The decoded histogram should keep its range", decoded.merge(histogram));
+        assertEquals("The decoded histogram should keep its counts", 8, decoded.getCount());
+    }
+
+    @Test
+    public void testQuantilesHaveBoundedRelativeError() {
+        final Random random = new Random(42);
+        final NumericHistogram histogram = NumericHistogram.create();
+        final double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal, like latencies, with a few negative and zero values mixed in
+            values[i] = i % 100 == 0 ? -Math.exp(random.nextGaussian()) : Math.exp(random.nextGaussian() * 3);
+            values[i] = i % 1_000 == 1 ? 0 : values[i];
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        final double bound = Math.pow(2, -(NumericHistogram.DEFAULT_PRECISION + 1));
+        for (final double quantile : new double[]{0.001, 0.01, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+            final double expected = values[(int)Math.floor(quantile * (values.length - 1))];
+            final double actual = histogram.quantile(quantile).getDouble().get();
+            assertTrue("Quantile " + quantile + " should be " + expected + " within the bound, not " + actual,
+                    Math.abs(actual - expected) <= Math.abs(expected) * bound);
+        }
+        assertEquals("The minimum should be exact", values[0], histogram.quantile(0).getDouble().get(), 0);
+        assertEquals("The maximum should be exact", values[values.length - 1], histogram.getMax().getDouble().get(), 0);
+    }
+
+    @Test
+    public void testMergeMatchesSingleHistogram() {
+        final List<Numeric> values = IntStream.range(0, 50_000).mapToObj(i -> Numeric.of((i * 7_919L) % 100_003))
+                .collect(Collectors.toList());
+        final NumericHistogram single = NumericHistogram.create();
+        values.forEach(single::record);
+        final NumericHistogram parallel = values.parallelStream().collect(NumericCollectors.histogram());
+        assertEquals("Every value should be counted", values.size(), parallel.getCount());
+        for (final double quantile : new double[]{0.1, 0.5, 0.99}) {
+            assertEquals("Merging should be exact", single.quantile(quantile), parallel.quantile(quantile));
+        }
+    }
+
+    @Test
+    public void testEncodingRoundTrips() {
+        final NumericHistogram histogram = NumericHistogram.create();
+        for (int i = -1_000; i < 100_000; i += 7) {
+            histogram.record(i);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(16_384);
+        assertTrue("The histogram should fit", histogram.encode(buffer));
+        buffer.flip();
+        final NumericHistogram decoded = NumericHistogram.decode(buffer).get();
+        assertEquals("Every byte should be read", 0, buffer.remaining());
+        assertEquals("The count should survive", histogram.getCount(), decoded.getCount());
+        for (final double quantile : new double[]{0, 0.01, 0.5, 0.99, 1}) {
+            assertEquals("Quantiles should survive", histogram.quantile(quantile), decoded.quantile(quantile));
+        }
+        final ByteBuffer tooSmall = ByteBuffer.allocate(20);
+        assertFalse("A small buffer should be rejected", histogram.encode(tooSmall));
+        assertEquals("A failed write should leave the position", 0, tooSmall.position());
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+        assertFalse("Truncated input should be rejected", NumericHistogram.decode(buffer).isPresent());
+        assertEquals("A failed read should leave the position", 0, buffer.position());
+    }
+}
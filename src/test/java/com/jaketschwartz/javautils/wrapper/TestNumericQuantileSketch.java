@@ -0,0 +1,98 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericQuantileSketch {
+    @Test
+    public void testBadInput() {
+        assertFalse("Too small a k should be rejected",
+                NumericQuantileSketch.withK(NumericQuantileSketch.MIN_K - 1).isPresent());
+        final NumericQuantileSketch sketch = NumericQuantileSketch.create();
+        sketch.record(Double.POSITIVE_INFINITY);
+        sketch.record(Numeric.of(null));
+        assertEquals("Bad values should not be recorded", 0, sketch.getCount());
+        assertFalse("An empty sketch should have no quantiles", sketch.quantile(0.5).isPresent());
+        assertFalse("Sketches of different k should not merge",
+                sketch.merge(NumericQuantileSketch.withK(100).get()));
+    }
+
+    @Test
+    public void testRankErrorIsBounded() {
+        final Random random = new Random(42);
+        final NumericQuantileSketch sketch = NumericQuantileSketch.create();
+        final double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 1_000;
+            sketch.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertSketchAccurate(sketch, values);
+        assertTrue("The summary should show the count", sketch.toString().contains("count=200000"));
+    }
+
+    @Test
+    public void testMergedSketchesStayAccurate() {
+        final Random random = new Random(7);
+        final List<NumericQuantileSketch> partitions = new ArrayList<>();
+        final double[] values = new double[100_000];
+        for (int partition = 0; partition < 10; partition++) {
+            final NumericQuantileSketch sketch = NumericQuantileSketch.create();
+            for (int i = 0; i < 10_000; i++) {
+                // Each partition covers a different range, so a merge that lost weight would show up as bias
+                final long value = partition * 10_000L + random.nextInt(10_000);
+                values[partition * 10_000 + i] = value;
+                sketch.record(Numeric.of(value));
+            }
+            partitions.add(sketch);
+        }
+        final NumericQuantileSketch merged = NumericQuantileSketch.create();
+        partitions.forEach(merged::merge);
+        Arrays.sort(values);
+        assertEquals("Every value should be counted", values.length, merged.getCount());
+        assertSketchAccurate(merged, values);
+    }
+
+    @Test
+    public void testEncodingRoundTrips() {
+        final NumericQuantileSketch sketch = NumericQuantileSketch.create();
+        for (long i = 0; i < 50_000; i++) {
+            sketch.record(i * 31 % 50_000);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(64 * 1_024);
+        assertTrue("The sketch should fit", sketch.encode(buffer));
+        buffer.flip();
+        final NumericQuantileSketch decoded = NumericQuantileSketch.decode(buffer).get();
+        assertEquals("Every byte should be read", 0, buffer.remaining());
+        for (final double quantile : new double[]{0, 0.01, 0.5, 0.99, 1}) {
+            assertEquals("Quantiles should survive", sketch.quantile(quantile), decoded.quantile(quantile));
+        }
+        buffer.flip();
+        buffer.put(buffer.limit() - 1, (byte)0x7F);
+        buffer.limit(buffer.limit() - 9);
+        assertFalse("Truncated input should be rejected", NumericQuantileSketch.decode(buffer).isPresent());
+        assertEquals("A failed read should leave the position", 0, buffer.position());
+    }
+
+    private static void assertSketchAccurate(final NumericQuantileSketch sketch, final double[] sorted) {
+        for (final double quantile : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            final double estimate = sketch.quantile(quantile).getDouble().get();
+            // The true rank of the estimate, which KLL bounds to within about 1.7 / k
+            final int rank = Math.abs(Arrays.binarySearch(sorted, estimate));
+            assertEquals("Quantile " + quantile + " should be within the rank bound", quantile,
+                    (double)rank / sorted.length, 0.02);
+            assertEquals("The rank of an estimate should match its quantile", quantile, sketch.rank(estimate), 0.02);
+        }
+        assertEquals("The minimum should be exact", sorted[0], sketch.quantile(0).getDouble().get(), 0);
+        assertEquals("The maximum should be exact", sorted[sorted.length - 1], sketch.getMax().getDouble().get(), 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.jaketschwartz.javautils.wrapper;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestNumericSorter {
+    @Test
+    public void testLongsMatchArraysSort() {
+        final Random random = new Random(41);
+        for (final int length : new int[]{0, 1, 63, 64, 1_000, 10_000}) {
+            final long[] values = new long[length];
+            for (int i = 0; i < length; i++) {
+                // Mix full-width values with small ones so that some byte passes are skipped
+                values[i] = i % 3 == 0 ? random.nextLong() : random.nextInt(1_000) - 500;
+            }
+            final long[] expected = values.clone();
+            Arrays.sort(expected);
+            NumericSorter.sort(values);
+            assertArrayEquals("The radix sort should match Arrays.sort() for length " + length, expected, values);
+        }
+        final long[] extremes = new long[100];
+        for (int i = 0; i < extremes.length; i++) {
+            extremes[i] = i % 2 == 0 ? Long.MAX_VALUE - i : Long.MIN_VALUE + i;
+        }
+        final long[] expected = extremes.clone();
+        Arrays.sort(expected);
+        NumericSorter.sort(extremes);
+        assertArrayEquals("The radix sort should order extreme values", expected, extremes);
+    }
+
+    @Test
+    public void testNumericsSortStablyInNumericOrder() {
+        final Random random = new Random(7);
+        final List<Numeric> values = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    values.add(Numeric.of(random.nextInt(200) - 100));
+                    break;
+                case 1:
+                    values.add(Numeric.of(BigDecimal.valueOf(random.nextInt(2_000) - 1_000, 1)));
+                    break;
+                default:
+                    values.add(Numeric.of(BigDecimal.valueOf(random.nextInt(20_000) - 10_000, 2)));
+            }
+        }
+        final List<Numeric> expected = new ArrayList<>(values);
+        expected.sort(Comparator.naturalOrder());
+        NumericSorter.sort(values);
+        for (int i = 0; i < values.size(); i++) {
+            // Identity, not equality, shows that numerically equal values kept their original order
+            assertSame("The radix sort should match a stable comparison sort at " + i, expected.get(i), values.get(i));
+        }
+    }
+
+    @Test
+    public void testUnencodableNumericsFallBack() {
+        final Numeric[] values = new Numeric[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Numeric.of(values.length - i);
+        }
+        values[10] = Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE);
+        values[20] = Numeric.of(new BigDecimal("0.0000000000000000000001"));
+        values[30] = Numeric.of(null);
+        values[40] = null;
+        NumericSorter.sort(values);
+        assertEquals("Null elements should sort first", null, values[0]);
+        assertEquals("Empty Numerics should follow", false, values[1].isPresent());
+        for (int i = 2; i < values.length - 1; i++) {
+            assertTrue("The values should be in ascending order", values[i].compareTo(values[i + 1]) <= 0);
+        }
+        assertEquals("The 128-bit value should sort last", Numeric.of(Long.MAX_VALUE).multiply(Long.MAX_VALUE),
+                values[values.length - 1]);
+    }
+
+    @Test
+    public void testColumnsSort() {
+        final NumericArray scaled = NumericArray.of(3.5, -1.25, 2.0, -7.0).get().parallel();
+        final NumericArray sorted = NumericSorter.sort(scaled);
+        assertArrayEquals("A scaled column should sort numerically", new double[]{-7.0, -1.25, 2.0, 3.5},
+                sorted.toDoubleArray(), 0);
+        assertTrue("The parallel setting should be kept", sorted.isParallel());
+        assertArrayEquals("The original column should be unchanged", new double[]{3.5, -1.25, 2.0, -7.0},
+                scaled.toDoubleArray(), 0);
+        final NumericArray decimals = NumericArray.of(new BigDecimal("1E+30"), new BigDecimal("0.5"),
+                new BigDecimal("-1E+30")).get();
+        assertArrayEquals("A BigDecimal column should sort numerically",
+                new BigDecimal[]{new BigDecimal("-1E+30"), new BigDecimal("0.5"), new BigDecimal("1E+30")},
+                NumericSorter.sort(decimals).toBigDecimalArray());
+    }
+}